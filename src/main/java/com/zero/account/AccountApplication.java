@@ -2,8 +2,10 @@ package com.zero.account;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 
-@SpringBootApplication
+// R2DBC ConnectionFactory 가 bean 으로 생기면 JDBC DataSource 자동 설정이 빠지므로 끄고 ReactiveConfiguration 에서 만든다
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class AccountApplication {
 
 	public static void main(String[] args) {
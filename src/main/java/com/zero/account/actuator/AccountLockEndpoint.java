@@ -0,0 +1,24 @@
+package com.zero.account.actuator;
+
+import com.zero.account.dto.AccountLockInfo;
+import com.zero.account.service.LockMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@Endpoint(id = "accountlocks")
+@RequiredArgsConstructor
+public class AccountLockEndpoint {
+
+    private final LockMetrics lockMetrics;
+
+    @ReadOperation
+    public List<AccountLockInfo> heldLocks() {
+        return lockMetrics.getHeldLocks();
+    }
+
+}
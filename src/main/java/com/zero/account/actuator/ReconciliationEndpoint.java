@@ -0,0 +1,29 @@
+package com.zero.account.actuator;
+
+import com.zero.account.dto.ReconciliationReport;
+import com.zero.account.service.ReconciliationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+@Component
+@Endpoint(id = "reconciliation")
+@RequiredArgsConstructor
+public class ReconciliationEndpoint {
+
+    private final ReconciliationService reconciliationService;
+
+    @ReadOperation
+    public ReconciliationReport lastReport() {
+        return reconciliationService.getLastReport();
+    }
+
+    // 비동기로 시작하고 진행 상황은 ReadOperation 으로 확인
+    @WriteOperation
+    public boolean start() {
+        return reconciliationService.start();
+    }
+
+}
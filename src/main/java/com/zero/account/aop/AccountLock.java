@@ -1,5 +1,7 @@
 package com.zero.account.aop;
 
+import com.zero.account.type.LockMode;
+
 import java.lang.annotation.*;
 
 @Target(ElementType.METHOD)
@@ -8,4 +10,12 @@ import java.lang.annotation.*;
 @Inherited
 public @interface AccountLock {
     long tryLockTime() default 5000L;
+
+    long leaseTime() default 15000L;
+
+    // atomic-debit 모드에서는 조건부 UPDATE 로 잔액을 차감하므로 lock 없이 실행
+    boolean lockFreeOnAtomicDebit() default false;
+
+    // OPTIMISTIC 이면 Redis lock 없이 @Version 충돌 시 재시도
+    LockMode mode() default LockMode.PESSIMISTIC;
 }
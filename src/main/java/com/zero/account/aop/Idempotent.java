@@ -0,0 +1,11 @@
+package com.zero.account.aop;
+
+import java.lang.annotation.*;
+
+// Idempotency-Key 헤더가 있으면 같은 키의 재요청은 저장된 결과로 응답 (lock 보다 먼저 적용)
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+public @interface Idempotent {
+}
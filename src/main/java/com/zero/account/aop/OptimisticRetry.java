@@ -0,0 +1,11 @@
+package com.zero.account.aop;
+
+import java.lang.annotation.*;
+
+// @Version 충돌 시 이 메소드(트랜잭션) 만 다시 실행한다 (컨트롤러나 lock 구간은 다시 실행하지 않음)
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+public @interface OptimisticRetry {
+}
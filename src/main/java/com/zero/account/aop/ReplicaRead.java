@@ -0,0 +1,14 @@
+package com.zero.account.aop;
+
+import com.zero.account.type.ConsistencyKey;
+
+import java.lang.annotation.*;
+
+// replica 모드에서 이 조회를 replica 로 보낸다 (key 의 최근 쓰기가 있으면 primary 에서 조회)
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+public @interface ReplicaRead {
+    ConsistencyKey key() default ConsistencyKey.NONE;
+}
@@ -0,0 +1,10 @@
+package com.zero.account.aop;
+
+import java.lang.annotation.*;
+
+// 샤딩 모드에서 이 파라미터(계좌 번호 또는 id)로 샤드를 정하고, 트랜잭션은 그 샤드에서 시작한다
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ShardKey {
+}
@@ -0,0 +1,67 @@
+package com.zero.account.config;
+
+import com.zero.account.domain.TimeOrderedIdentifierGenerator;
+import org.hibernate.boot.model.IdGeneratorStrategyInterpreter;
+import org.hibernate.boot.model.IdentifierGeneratorDefinition;
+import org.hibernate.boot.spi.MetadataBuilderContributor;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.persistence.GenerationType;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.TableGenerator;
+
+// BaseEntity 의 @GeneratedValue(이름 없는 IDENTITY/AUTO) 를 시간 순서 id 생성기로 바꾼다
+@Configuration
+public class IdGeneratorConfiguration {
+
+    @Value("${account.id.time-ordered.enabled:false}")
+    private boolean timeOrderedEnabled;
+
+    @Value("${account.id.node-id:0}")
+    private int nodeId;
+
+    @Bean
+    public HibernatePropertiesCustomizer timeOrderedIdCustomizer() {
+        return properties -> {
+            if (!timeOrderedEnabled) {
+                return;
+            }
+            properties.put(TimeOrderedIdentifierGenerator.NODE_ID_SETTING, nodeId);
+            properties.put(EntityManagerFactoryBuilderImpl.METADATA_BUILDER_CONTRIBUTOR,
+                    (MetadataBuilderContributor) metadataBuilder ->
+                            metadataBuilder.applyIdGenerationTypeInterpreter(new TimeOrderedIdInterpreter()));
+        };
+    }
+
+    private static class TimeOrderedIdInterpreter implements IdGeneratorStrategyInterpreter {
+
+        @Override
+        public String determineGeneratorName(GenerationType generationType,
+                                             GeneratorNameDeterminationContext context) {
+            boolean unnamed = context.getGeneratedValueGeneratorName() == null
+                    || context.getGeneratedValueGeneratorName().isEmpty();
+            if (unnamed
+                    && Long.class.equals(context.getIdType())
+                    && (generationType == GenerationType.IDENTITY || generationType == GenerationType.AUTO)) {
+                return TimeOrderedIdentifierGenerator.class.getName();
+            }
+            return null;
+        }
+
+        @Override
+        public void interpretTableGenerator(TableGenerator tableGenerator,
+                                            IdentifierGeneratorDefinition.Builder definitionBuilder) {
+        }
+
+        @Override
+        public void interpretSequenceGenerator(SequenceGenerator sequenceGenerator,
+                                               IdentifierGeneratorDefinition.Builder definitionBuilder) {
+        }
+
+    }
+
+}
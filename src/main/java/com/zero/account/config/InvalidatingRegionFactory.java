@@ -0,0 +1,165 @@
+package com.zero.account.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.jcache.internal.JCacheAccessImpl;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.codec.SerializationCodec;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.io.Serializable;
+import java.util.UUID;
+
+// 2 차 캐시 region 은 노드마다 로컬 캐시에 두고, 이 노드가 바꾸거나 지운 항목만 Redisson topic 으로 알려 다른 노드에서 지운다
+// DB 에서 읽어 채운 항목(putFromLoad)과 쿼리 결과는 알리지 않는다 (조회 경로에는 Redis 왕복이 없다)
+@Slf4j
+public class InvalidatingRegionFactory extends JCacheRegionFactory {
+
+    static final String TOPIC = "ACL2 : invalidation";
+
+    private final RTopic topic;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final int listenerId;
+
+    public InvalidatingRegionFactory(RedissonClient redissonClient) {
+        this.topic = redissonClient.getTopic(TOPIC, new SerializationCodec());
+        this.listenerId = topic.addListener(Invalidation.class, (channel, invalidation) -> apply(invalidation));
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(
+            DomainDataRegionConfig regionConfig, DomainDataRegionBuildingContext buildingContext) {
+        return new InvalidatingAccess(
+                underlyingCache(super.createDomainDataStorageAccess(regionConfig, buildingContext)));
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(
+            String regionName, SessionFactoryImplementor sessionFactory) {
+        return new InvalidatingAccess(
+                underlyingCache(super.createTimestampsRegionStorageAccess(regionName, sessionFactory)));
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        topic.removeListener(listenerId);
+        super.releaseFromUse();
+    }
+
+    // 다른 노드가 보낸 무효화 : 로컬 캐시에서만 지우고 다시 알리지 않는다
+    void apply(Invalidation invalidation) {
+        CacheManager cacheManager = getCacheManager();
+        if (nodeId.equals(invalidation.getNodeId()) || cacheManager == null) {
+            return;
+        }
+        // 갱신 시각은 노드마다 시계가 다르므로 옮기지 않고, 그 시각으로 검사할 쿼리 결과를 지운다
+        if (RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME.equals(invalidation.getRegion())) {
+            clear(cacheManager.getCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME));
+            return;
+        }
+        Cache<Object, Object> cache = cacheManager.getCache(invalidation.getRegion());
+        if (cache == null) {
+            return;
+        }
+        if (invalidation.getKey() == null) {
+            cache.clear();
+        } else {
+            cache.remove(invalidation.getKey());
+        }
+    }
+
+    // JCacheAccessImpl 은 raw type 으로 돌려준다 (JCacheRegionFactory 가 Cache<Object, Object> 로 만든 캐시)
+    @SuppressWarnings("unchecked")
+    private static Cache<Object, Object> underlyingCache(StorageAccess storageAccess) {
+        return ((JCacheAccessImpl) storageAccess).getUnderlyingCache();
+    }
+
+    private void clear(Cache<Object, Object> cache) {
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private void publish(String region, Object key) {
+        topic.publishAsync(new Invalidation(nodeId, region, key))
+                .whenComplete((receivers, e) -> {
+                    if (e != null) {
+                        log.warn("Failed to publish cache invalidation for region : {}", region, e);
+                    }
+                });
+    }
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class Invalidation implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private String nodeId;
+        private String region;
+        // null 이면 region 전체
+        private Object key;
+
+    }
+
+    // 엔티티 갱신/삭제(soft lock 포함)와 region 비우기를 알린다
+    private class InvalidatingAccess extends JCacheAccessImpl {
+
+        private final String region;
+
+        InvalidatingAccess(Cache<Object, Object> cache) {
+            super(cache);
+            this.region = cache.getName();
+        }
+
+        @Override
+        public void putFromLoad(Object key, Object value, SharedSessionContractImplementor session) {
+            super.putIntoCache(key, value, session);
+        }
+
+        @Override
+        public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            super.putIntoCache(key, value, session);
+            publish(region, key);
+        }
+
+        @Override
+        public void removeFromCache(Object key, SharedSessionContractImplementor session) {
+            super.removeFromCache(key, session);
+            publish(region, key);
+        }
+
+        @Override
+        public void evictData(Object key) {
+            super.evictData(key);
+            publish(region, key);
+        }
+
+        @Override
+        public void clearCache(SharedSessionContractImplementor session) {
+            super.clearCache(session);
+            publish(region, null);
+        }
+
+        @Override
+        public void evictData() {
+            super.evictData();
+            publish(region, null);
+        }
+
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.zero.account.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zero.account.controller.ReactiveTransactionHandler;
+import com.zero.account.exception.ReactiveExceptionHandler;
+import com.zero.account.repository.ReactiveAccountRepository;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.Disposable;
+
+import javax.annotation.PreDestroy;
+
+// 결제/취소/조회를 WebFlux + R2DBC 로 처리하는 Netty 서버를 servlet 서버 옆에 별도 포트로 띄운다
+// ConnectionFactory, R2dbcTransactionManager 를 bean 으로 두면 DataSource, JpaTransactionManager 자동 설정이 빠지므로 여기서만 쓴다
+@Configuration
+@ConditionalOnProperty(name = "account.reactive.enabled", havingValue = "true")
+@EnableR2dbcRepositories(
+        basePackageClasses = ReactiveAccountRepository.class,
+        includeFilters = @ComponentScan.Filter(
+                type = FilterType.ASSIGNABLE_TYPE, classes = ReactiveCrudRepository.class),
+        entityOperationsRef = "reactiveEntityTemplate")
+public class ReactiveConfiguration {
+
+    private final ConnectionFactory connectionFactory;
+
+    public ReactiveConfiguration(
+            @Value("${account.reactive.url}") String url,
+            @Value("${spring.datasource.username:}") String username,
+            @Value("${spring.datasource.password:}") String password,
+            @Value("${account.id.time-ordered.enabled:false}") boolean timeOrderedId,
+            @Value("${account.sharding.enabled:false}") boolean sharding,
+            @Value("${account.replica.enabled:false}") boolean replica,
+            @Value("${account.second-level-cache.enabled:false}") boolean secondLevelCache,
+            @Value("${account.account-cache.enabled:false}") boolean accountCache,
+            @Value("${account.balance-ledger.enabled:false}") boolean balanceLedger,
+            @Value("${account.transaction.journal.enabled:false}") boolean journal,
+            @Value("${account.transaction.redis-balance.enabled:false}") boolean redisBalance,
+            @Value("${account.transaction.sequencer.enabled:false}") boolean sequencer) {
+        // IDENTITY/sequence 는 Hibernate 설정에 따라 달라지므로 거래 id 는 JPA 와 같은 생성기로 만든다
+        if (!timeOrderedId) {
+            throw new IllegalStateException("account.reactive requires account.id.time-ordered.enabled");
+        }
+        // Hibernate 를 거치지 않고 account 를 바꾸므로 2 차 캐시, 계좌 캐시, read-your-writes 표시가 갱신되지 않는다
+        if (sharding || replica || secondLevelCache || accountCache) {
+            throw new IllegalStateException("account.reactive cannot be combined with "
+                    + "sharding, replica, second-level-cache or account-cache");
+        }
+        // 잔액을 account row 가 아닌 곳에서 계산하거나 lock 대신 다른 방식으로 직렬화하는 모드
+        if (balanceLedger || journal || redisBalance || sequencer) {
+            throw new IllegalStateException("account.reactive cannot be combined with balance-ledger, "
+                    + "transaction.journal, transaction.redis-balance or transaction.sequencer");
+        }
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url);
+        if (!username.isEmpty()) {
+            options = options.mutate()
+                    .option(ConnectionFactoryOptions.USER, username)
+                    .option(ConnectionFactoryOptions.PASSWORD, password)
+                    .build();
+        }
+        this.connectionFactory = ConnectionFactories.get(options);
+    }
+
+    @Bean
+    public R2dbcEntityTemplate reactiveEntityTemplate() {
+        return new R2dbcEntityTemplate(connectionFactory);
+    }
+
+    // 같은 ConnectionFactory 로 만들어야 repository 가 트랜잭션의 connection 을 쓴다
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator() {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+
+    @Bean
+    public ReactiveTransactionServer reactiveTransactionServer(
+            @Value("${account.reactive.port:8081}") int port,
+            ReactiveTransactionHandler reactiveTransactionHandler,
+            ReactiveExceptionHandler reactiveExceptionHandler,
+            ObjectMapper objectMapper) {
+        RouterFunction<ServerResponse> routes = RouterFunctions.route()
+                .POST("/transaction/use.do", reactiveTransactionHandler::transactionUse)
+                .POST("/transaction/cancel.do", reactiveTransactionHandler::transactionCancel)
+                .GET("/transactions/{transactionId}", reactiveTransactionHandler::selectTransaction)
+                .onError(Throwable.class, reactiveExceptionHandler::handle)
+                .build();
+        // servlet 과 같은 JSON 형식 (날짜 등) 이 되도록 Spring Boot 의 ObjectMapper 를 쓴다
+        HandlerStrategies handlerStrategies = HandlerStrategies.builder()
+                .codecs(configurer -> {
+                    configurer.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+        return new ReactiveTransactionServer(new NettyReactiveWebServerFactory(port)
+                .getWebServer(RouterFunctions.toHttpHandler(routes, handlerStrategies)));
+    }
+
+    @PreDestroy
+    public void close() {
+        if (connectionFactory instanceof Disposable) {
+            ((Disposable) connectionFactory).dispose();
+        }
+    }
+
+}
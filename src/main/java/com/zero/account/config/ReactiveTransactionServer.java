@@ -0,0 +1,38 @@
+package com.zero.account.config;
+
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.context.SmartLifecycle;
+
+// servlet 서버와 별도 포트에서 뜨는 Netty 서버 (컨텍스트와 같이 시작/종료)
+public class ReactiveTransactionServer implements SmartLifecycle {
+
+    private final WebServer webServer;
+    private volatile boolean running;
+
+    public ReactiveTransactionServer(WebServer webServer) {
+        this.webServer = webServer;
+    }
+
+    @Override
+    public void start() {
+        webServer.start();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        webServer.stop();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // port 를 0 으로 두면 시작 후에 정해진 port
+    public int getPort() {
+        return webServer.getPort();
+    }
+
+}
@@ -6,6 +6,7 @@ import org.redisson.config.Config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
 
 @Configuration
 public class RedisRepositoryConfig {
@@ -16,7 +17,9 @@ public class RedisRepositoryConfig {
     @Value("${spring.redis.port}")
     private int redisPort;
 
-    @Bean
+    // 2 차 캐시를 쓰면 JPA 초기화 중에 만들어지므로 로컬 Redis 가 먼저 떠 있어야 한다
+    @Bean(destroyMethod = "shutdown")
+    @DependsOn("localRedisConfig")
     public RedissonClient redissonClient() {
         Config config = new Config();
         config.useSingleServer().setAddress("redis://" + redisHost + ":" + redisPort);
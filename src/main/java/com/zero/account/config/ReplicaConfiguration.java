@@ -0,0 +1,45 @@
+package com.zero.account.config;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.List;
+
+// @ReplicaRead 조회를 replica 로 보낸다 (샤딩 모드에서는 ShardingConfiguration 이 샤드마다 replica 를 붙인다)
+@Configuration
+@ConditionalOnExpression("${account.replica.enabled:false} and !${account.sharding.enabled:false}")
+public class ReplicaConfiguration {
+
+    private final SchemaReplicator schemaReplicator = new SchemaReplicator();
+
+    private ReplicaRoutingDataSource dataSource;
+
+    @Bean
+    public DataSource dataSource(
+            @Value("${spring.datasource.url}") String url,
+            @Value("${spring.datasource.username:}") String username,
+            @Value("${spring.datasource.password:}") String password,
+            @Value("${account.replica.urls}") List<String> replicaUrls) {
+        dataSource = new ReplicaRoutingDataSource(
+                ShardingConfiguration.createDataSource(url, username, password),
+                ShardingConfiguration.createDataSource(replicaUrls.get(0), username, password));
+        return dataSource;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer replicaCustomizer() {
+        return schemaReplicator::register;
+    }
+
+    @Bean
+    public InitializingBean replicaSchemaInitializer(EntityManagerFactory entityManagerFactory) {
+        return () -> schemaReplicator.replicate(entityManagerFactory, List.of(dataSource.getReplica()));
+    }
+
+}
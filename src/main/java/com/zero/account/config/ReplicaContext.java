@@ -0,0 +1,23 @@
+package com.zero.account.config;
+
+// 현재 스레드의 조회를 replica 로 보낼지 (@ReplicaRead 가 트랜잭션 시작 전에 정한다)
+public final class ReplicaContext {
+
+    private static final ThreadLocal<Boolean> REPLICA = new ThreadLocal<>();
+
+    private ReplicaContext() {
+    }
+
+    public static boolean isReplica() {
+        return Boolean.TRUE.equals(REPLICA.get());
+    }
+
+    public static void set(boolean replica) {
+        if (replica) {
+            REPLICA.set(true);
+        } else {
+            REPLICA.remove();
+        }
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.zero.account.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// primary 와 replica 중 하나를 고른다 (샤딩 모드에서는 샤드마다 하나씩)
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ReplicaContext.isReplica() ? REPLICA : PRIMARY;
+    }
+
+    public DataSource getReplica() {
+        return getResolvedDataSources().get(REPLICA);
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource dataSource : getResolvedDataSources().values()) {
+            if (dataSource instanceof AutoCloseable) {
+                ((AutoCloseable) dataSource).close();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.zero.account.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.hbm2ddl.SchemaExport;
+import org.hibernate.tool.schema.TargetType;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Hibernate 가 스키마를 만드는 환경(create, create-drop)이면 기본 DB 외의 DB(샤드, replica)에도 같은 스키마와 data.sql 을 적용한다
+@Slf4j
+public class SchemaReplicator implements Integrator {
+
+    private static final Set<String> CREATE_ACTIONS = Set.of("create", "create-drop");
+
+    private volatile Metadata metadata;
+
+    public void register(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER,
+                (IntegratorProvider) () -> List.of(this));
+    }
+
+    public void replicate(EntityManagerFactory entityManagerFactory, List<DataSource> dataSources) {
+        Object action = entityManagerFactory.getProperties().get(AvailableSettings.HBM2DDL_AUTO);
+        if (action == null || !CREATE_ACTIONS.contains(action.toString())) {
+            return;
+        }
+        ClassPathResource data = new ClassPathResource("data.sql");
+        for (DataSource dataSource : dataSources) {
+            StandardServiceRegistry serviceRegistry = new StandardServiceRegistryBuilder()
+                    .applySetting(AvailableSettings.DATASOURCE, dataSource)
+                    .applySetting(AvailableSettings.DIALECT,
+                            metadata.getDatabase().getDialect().getClass().getName())
+                    .build();
+            try {
+                new SchemaExport()
+                        .setHaltOnError(true)
+                        .execute(EnumSet.of(TargetType.DATABASE), SchemaExport.Action.BOTH, metadata, serviceRegistry);
+            } finally {
+                StandardServiceRegistryBuilder.destroy(serviceRegistry);
+            }
+            if (data.exists()) {
+                new ResourceDatabasePopulator(data).execute(dataSource);
+            }
+        }
+        log.info("Replicated schema to {} data sources", dataSources.size());
+    }
+
+    @Override
+    public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory,
+                          SessionFactoryServiceRegistry serviceRegistry) {
+        this.metadata = metadata;
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory,
+                             SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+}
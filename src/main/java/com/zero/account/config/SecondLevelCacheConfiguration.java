@@ -0,0 +1,110 @@
+package com.zero.account.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.zero.account.domain.Account;
+import com.zero.account.domain.AccountUser;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.persistence.SharedCacheMode;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+// Hibernate 2 차 캐시 : AccountUser(read-only), Account(read-write), findByAccountNumber 쿼리 캐시
+// 저장소는 노드마다 로컬 Caffeine JCache 이고, 갱신/무효화는 InvalidatingRegionFactory 가 Redisson topic 으로 다른 노드에 알린다
+// 무효화가 도착하기 전 다른 노드의 오래된 Account 는 @Version 검사에서 걸리므로 잔액이 덮어써지지 않는다
+@Configuration
+@ConditionalOnProperty(name = "account.second-level-cache.enabled", havingValue = "true")
+public class SecondLevelCacheConfiguration {
+
+    private static final List<String> EXPIRING_REGIONS = List.of(
+            AccountUser.class.getName(),
+            Account.class.getName(),
+            RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+
+    private final long ttlSeconds;
+    private final long maxEntries;
+
+    public SecondLevelCacheConfiguration(
+            @Value("${account.second-level-cache.ttl-seconds:600}") long ttlSeconds,
+            @Value("${account.second-level-cache.max-entries:100000}") long maxEntries,
+            @Value("${account.replica.enabled:false}") boolean replica,
+            @Value("${account.transaction.atomic-debit:false}") boolean atomicDebit) {
+        // replica 에서 읽은 (복제가 늦은) 행이 캐시에 들어가면 primary 조회에도 보이게 된다
+        if (replica) {
+            throw new IllegalStateException("account.second-level-cache cannot be combined with account.replica");
+        }
+        // atomic-debit 은 JPQL bulk update 로 차감하므로 결제마다 Account region 과 쿼리 캐시 전체가 비워진다
+        if (atomicDebit) {
+            throw new IllegalStateException(
+                    "account.second-level-cache cannot be combined with account.transaction.atomic-debit");
+        }
+        this.ttlSeconds = ttlSeconds;
+        this.maxEntries = maxEntries;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager();
+        for (String region : EXPIRING_REGIONS) {
+            CaffeineConfiguration<Object, Object> configuration = createConfiguration();
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+            configuration.setMaximumSize(OptionalLong.of(maxEntries));
+            cacheManager.createCache(region, configuration);
+        }
+        // 쿼리 캐시의 무효화 기준이므로 쿼리 결과보다 먼저 만료되면 안 된다 (테이블마다 하나)
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                createConfiguration());
+        return cacheManager;
+    }
+
+    @Bean
+    public InvalidatingRegionFactory invalidatingRegionFactory(RedissonClient redissonClient) {
+        return new InvalidatingRegionFactory(redissonClient);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(
+            CacheManager hibernateCacheManager, InvalidatingRegionFactory invalidatingRegionFactory) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.JPA_SHARED_CACHE_MODE, SharedCacheMode.ENABLE_SELECTIVE);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, invalidatingRegionFactory);
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            // hibernate.second.level.cache.* , hibernate.query.cache.* 메트릭
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    // cache.gets, cache.puts, cache.evictions 메트릭
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(CacheManager hibernateCacheManager) {
+        return meterRegistry -> hibernateCacheManager.getCacheNames().forEach(region ->
+                JCacheMetrics.monitor(meterRegistry, hibernateCacheManager.getCache(region)));
+    }
+
+    // 로컬 캐시이므로 값을 복사하지 않는다 (Hibernate 가 캐시에 넣는 값은 변경되지 않는 CacheEntry)
+    private CaffeineConfiguration<Object, Object> createConfiguration() {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.zero.account.config;
+
+// 현재 스레드가 사용할 샤드 (지정하지 않으면 계좌 번호 구간 같은 전역 테이블이 있는 0 번 샤드)
+public final class ShardContext {
+
+    public static final int GLOBAL_SHARD = 0;
+
+    private static final ThreadLocal<Integer> SHARD = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Integer get() {
+        return SHARD.get();
+    }
+
+    public static int getShard() {
+        Integer shard = SHARD.get();
+        return shard == null ? GLOBAL_SHARD : shard;
+    }
+
+    public static void set(Integer shard) {
+        if (shard == null) {
+            SHARD.remove();
+        } else {
+            SHARD.set(shard);
+        }
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.zero.account.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+
+// connection 을 얻을 때의 ShardContext 로 샤드를 고른다 (트랜잭션 시작 전에 정해져 있어야 한다)
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.get();
+    }
+
+    // 샤드별 connection pool 도 같이 닫는다
+    @Override
+    public void close() throws Exception {
+        for (DataSource dataSource : getResolvedDataSources().values()) {
+            if (dataSource instanceof AutoCloseable) {
+                ((AutoCloseable) dataSource).close();
+            }
+        }
+    }
+
+}
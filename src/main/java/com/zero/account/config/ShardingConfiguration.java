@@ -0,0 +1,104 @@
+package com.zero.account.config;
+
+import com.zero.account.domain.TimeOrderedIdentifierGenerator;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// 계좌와 거래 내역을 계좌 번호 hash 로 N 개 DB 에 나눠 저장 (0 번 샤드는 계좌 번호 구간 같은 전역 테이블도 가진다)
+// account_user 는 참조 테이블로 모든 샤드에 같은 내용이 있어야 한다
+@Configuration
+@ConditionalOnProperty(name = "account.sharding.enabled", havingValue = "true")
+public class ShardingConfiguration {
+
+    private final List<String> urls;
+    // replica 를 쓰지 않으면 비어 있다 (쓰면 샤드마다 하나)
+    private final List<String> replicaUrls;
+    private final SchemaReplicator schemaReplicator = new SchemaReplicator();
+    // 0 번 샤드 primary 외의 DB (스키마는 Hibernate 가 0 번 샤드에만 만든다)
+    private final List<DataSource> replicatedDataSources = new ArrayList<>();
+
+    public ShardingConfiguration(
+            @Value("${account.sharding.urls:}") List<String> urls,
+            @Value("${account.id.time-ordered.enabled:false}") boolean timeOrderedId,
+            @Value("${account.transaction.journal.enabled:false}") boolean journal,
+            @Value("${account.transaction.redis-balance.enabled:false}") boolean redisBalance,
+            @Value("${account.replica.enabled:false}") boolean replica,
+            @Value("${account.replica.urls:}") List<String> replicaUrls) {
+        if (urls.isEmpty()) {
+            throw new IllegalStateException("account.sharding.urls is required");
+        }
+        // 거래 id 로 샤드를 찾으려면 id 에 샤드가 들어 있어야 한다
+        if (!timeOrderedId) {
+            throw new IllegalStateException("account.sharding requires account.id.time-ordered.enabled");
+        }
+        // journal, redis-balance 는 여러 계좌의 기록을 한 트랜잭션에서 반영하므로 샤드를 나눌 수 없다
+        if (journal || redisBalance) {
+            throw new IllegalStateException(
+                    "account.sharding cannot be combined with transaction.journal or transaction.redis-balance");
+        }
+        if (replica && replicaUrls.size() != urls.size()) {
+            throw new IllegalStateException("account.replica.urls needs one replica per shard");
+        }
+        this.urls = urls;
+        this.replicaUrls = replica ? replicaUrls : List.of();
+    }
+
+    @Bean
+    public DataSource dataSource(
+            @Value("${spring.datasource.username:}") String username,
+            @Value("${spring.datasource.password:}") String password) {
+        Map<Object, Object> shards = new HashMap<>();
+        for (int shard = 0; shard < urls.size(); shard++) {
+            DataSource primary = createDataSource(urls.get(shard), username, password);
+            if (shard != ShardContext.GLOBAL_SHARD) {
+                replicatedDataSources.add(primary);
+            }
+            if (replicaUrls.isEmpty()) {
+                shards.put(shard, primary);
+                continue;
+            }
+            DataSource replica = createDataSource(replicaUrls.get(shard), username, password);
+            replicatedDataSources.add(replica);
+            shards.put(shard, new ReplicaRoutingDataSource(primary, replica));
+        }
+        ShardRoutingDataSource dataSource = new ShardRoutingDataSource();
+        dataSource.setTargetDataSources(shards);
+        dataSource.setDefaultTargetDataSource(shards.get(ShardContext.GLOBAL_SHARD));
+        dataSource.setLenientFallback(false);
+        return dataSource;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer shardingCustomizer() {
+        return properties -> {
+            properties.put(TimeOrderedIdentifierGenerator.SHARD_COUNT_SETTING, urls.size());
+            schemaReplicator.register(properties);
+        };
+    }
+
+    @Bean
+    public InitializingBean shardSchemaInitializer(EntityManagerFactory entityManagerFactory) {
+        return () -> schemaReplicator.replicate(entityManagerFactory, replicatedDataSources);
+    }
+
+    static DataSource createDataSource(String url, String username, String password) {
+        return DataSourceBuilder.create()
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+    }
+
+}
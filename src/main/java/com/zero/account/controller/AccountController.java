@@ -1,16 +1,18 @@
 package com.zero.account.controller;
 
+import com.zero.account.dto.AccountBalance;
 import com.zero.account.dto.AccountInfo;
 import com.zero.account.dto.CreateAccount;
 import com.zero.account.dto.PatchAccount;
 import com.zero.account.service.AccountService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequiredArgsConstructor
@@ -24,6 +26,7 @@ public class AccountController {
         return CreateAccount.Response.from(
                 accountService.createAccount(
                         request.getUserId(),
+                        accountService.reserveAccountNumber(request.getUserId()),
                         request.getInitialBalance()));
     }
 
@@ -38,12 +41,14 @@ public class AccountController {
     @GetMapping("/accounts")
     public List<AccountInfo> selectAccounts(
             @RequestParam("userId") @NotBlank(message = "사용자 아이디를 입력해야 합니다.") Long userId) {
-        return accountService.selectAccounts(userId).stream().map(accountDto ->
-                        AccountInfo.builder()
-                                .accountNumber(accountDto.getAccountNumber())
-                                .balance(accountDto.getBalance())
-                                .build())
-                .collect(Collectors.toList());
+        return accountService.selectAccounts(userId);
+    }
+
+    @GetMapping("/accounts/{accountNumber}/balance")
+    public AccountBalance selectBalance(
+            @PathVariable String accountNumber,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return accountService.selectBalance(accountNumber, at);
     }
 
 }
@@ -0,0 +1,87 @@
+package com.zero.account.controller;
+
+import com.zero.account.dto.TransactionCancel;
+import com.zero.account.dto.TransactionUse;
+import com.zero.account.service.ReactiveTransactionService;
+import com.zero.account.service.TransactionETagCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validator;
+import java.util.Set;
+
+// TransactionController 의 결제/취소/조회를 WebFlux 핸들러로 (멱등 처리, 3 초 지연은 없다)
+@Component
+@ConditionalOnProperty(name = "account.reactive.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ReactiveTransactionHandler {
+
+    private final ReactiveTransactionService reactiveTransactionService;
+    private final TransactionETagCache transactionETagCache;
+    private final Validator validator;
+
+    public Mono<ServerResponse> transactionUse(ServerRequest request) {
+        return readBody(request, TransactionUse.Request.class)
+                .flatMap(body -> reactiveTransactionService.transactionUse(
+                        body.getUserId(),
+                        body.getAccountNumber(),
+                        body.getTransactionAmount()))
+                .flatMap(transactionDto -> ServerResponse.ok()
+                        .bodyValue(TransactionUse.Response.from(transactionDto)));
+    }
+
+    public Mono<ServerResponse> transactionCancel(ServerRequest request) {
+        return readBody(request, TransactionCancel.Request.class)
+                .flatMap(body -> reactiveTransactionService.transactionCancel(
+                                body.getTransactionId(),
+                                body.getAccountNumber(),
+                                body.getTransactionAmount())
+                        .map(transactionDto -> TransactionCancel.Response.from(
+                                transactionDto, body.getAccountNumber())))
+                .flatMap(response -> ServerResponse.ok().bodyValue(response));
+    }
+
+    public Mono<ServerResponse> selectTransaction(ServerRequest request) {
+        return Mono.fromSupplier(() -> Long.valueOf(request.pathVariable("transactionId")))
+                .flatMap(transactionId -> selectTransaction(transactionId, request));
+    }
+
+    private Mono<ServerResponse> selectTransaction(Long transactionId, ServerRequest request) {
+        String eTag = transactionETagCache.get(transactionId);
+        if (eTag != null && request.headers().asHttpHeaders().getIfNoneMatch().contains(eTag)) {
+            return ServerResponse.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .header(HttpHeaders.CACHE_CONTROL, transactionETagCache.getCacheControl())
+                    .build();
+        }
+
+        return reactiveTransactionService.selectTransaction(transactionId)
+                .flatMap(transactionInfo -> ServerResponse.ok()
+                        .eTag(transactionETagCache.put(transactionInfo))
+                        .header(HttpHeaders.CACHE_CONTROL, transactionETagCache.getCacheControl())
+                        .bodyValue(transactionInfo));
+    }
+
+    // @RequestBody @Valid 와 같이 본문이 없으면 읽기 오류, 검증 실패면 INVALID_REQUEST
+    private <T> Mono<T> readBody(ServerRequest request, Class<T> bodyType) {
+        return request.bodyToMono(bodyType)
+                .switchIfEmpty(Mono.error(() -> new ServerWebInputException("Request body is missing")))
+                .map(body -> {
+                    Set<ConstraintViolation<T>> violations = validator.validate(body);
+                    if (!violations.isEmpty()) {
+                        throw new ConstraintViolationException(violations);
+                    }
+                    return body;
+                });
+    }
+
+}
@@ -1,19 +1,38 @@
 package com.zero.account.controller;
 
 import com.zero.account.aop.AccountLock;
+import com.zero.account.aop.Idempotent;
 import com.zero.account.dto.TransactionCancel;
+import com.zero.account.dto.TransactionHistory;
 import com.zero.account.dto.TransactionInfo;
 import com.zero.account.dto.TransactionUse;
+import com.zero.account.dto.TransactionUseBatch;
 import com.zero.account.exception.AccountException;
+import com.zero.account.service.FailedTransactionRecorder;
+import com.zero.account.service.TransactionBatchService;
+import com.zero.account.service.TransactionETagCache;
+import com.zero.account.service.TransactionExportService;
+import com.zero.account.service.TransactionSequencer;
 import com.zero.account.service.TransactionService;
+import com.zero.account.type.ExportFormat;
+import com.zero.account.type.TransactionResultStatus;
 import com.zero.account.type.TransactionStatus;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Slf4j
 @RestController
@@ -21,56 +40,120 @@ import javax.validation.constraints.NotNull;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final TransactionSequencer transactionSequencer;
+    private final TransactionBatchService transactionBatchService;
+    private final FailedTransactionRecorder failedTransactionRecorder;
+    private final TransactionETagCache transactionETagCache;
+    private final TransactionExportService transactionExportService;
 
     @PostMapping("/transaction/use.do")
-    @AccountLock
-    public TransactionUse.Response transactionUse(
+    @Idempotent
+    @AccountLock(lockFreeOnAtomicDebit = true)
+    public CompletableFuture<TransactionUse.Response> transactionUse(
             @RequestBody @Valid TransactionUse.Request request) throws InterruptedException {
-        try {
-            Thread.sleep(3000L);
-            return TransactionUse.Response.from(
-                    transactionService.
-                            transactionUse(
-                                    request.getUserId(),
-                                    request.getAccountNumber(),
-                                    request.getTransactionAmount()));
-        } catch (AccountException e) {
-            log.error("Failed TransactionUse");
-            transactionService.createFailedTransaction(
-                    request.getAccountNumber(),
-                    request.getTransactionAmount(),
-                    TransactionStatus.APPROVAL);
-            throw e;
-        }
+        Thread.sleep(3000L);
+        // sequencer 모드에서는 파티션 작업의 future 를 그대로 돌려줘서 요청 스레드가 기다리지 않는다
+        return transactionSequencer.submit(request.getAccountNumber(), () ->
+                        transactionService.transactionUse(
+                                request.getUserId(),
+                                request.getAccountNumber(),
+                                request.getTransactionAmount()))
+                .thenApply(TransactionUse.Response::from)
+                .whenComplete((response, e) -> {
+                    if (isAccountException(e)) {
+                        log.error("Failed TransactionUse");
+                        failedTransactionRecorder.record(
+                                request.getAccountNumber(),
+                                request.getTransactionAmount(),
+                                TransactionStatus.APPROVAL);
+                    }
+                });
+    }
 
+    @PostMapping("/transaction/use-batch.do")
+    public TransactionUseBatch.Response transactionUseBatch(
+            @RequestBody @Valid TransactionUseBatch.Request request) {
+        return TransactionUseBatch.Response.from(
+                transactionBatchService.transactionUseBatch(request.getTransactions()));
     }
 
     @PostMapping("/transaction/cancel.do")
+    @Idempotent
     @AccountLock
-    public TransactionCancel.Response transactionCancel(
+    public CompletableFuture<TransactionCancel.Response> transactionCancel(
             @RequestBody @Valid TransactionCancel.Request request) throws InterruptedException {
-        try {
-            Thread.sleep(3000L);
-            return TransactionCancel.Response.from(
-                    transactionService.transactionCancel(
-                            request.getTransactionId(),
-                            request.getAccountNumber(),
-                            request.getTransactionAmount()),
-                    request.getAccountNumber());
-        } catch (AccountException e) {
-            log.error("Failed TransactionCancel");
-            transactionService.createFailedTransaction(
-                    request.getAccountNumber(),
-                    request.getTransactionAmount(),
-                    TransactionStatus.CANCEL);
-            throw e;
-        }
+        Thread.sleep(3000L);
+        return transactionSequencer.submit(request.getAccountNumber(), () ->
+                        transactionService.transactionCancel(
+                                request.getTransactionId(),
+                                request.getAccountNumber(),
+                                request.getTransactionAmount()))
+                .thenApply(transactionDto ->
+                        TransactionCancel.Response.from(transactionDto, request.getAccountNumber()))
+                .whenComplete((response, e) -> {
+                    if (isAccountException(e)) {
+                        log.error("Failed TransactionCancel");
+                        failedTransactionRecorder.record(
+                                request.getAccountNumber(),
+                                request.getTransactionAmount(),
+                                TransactionStatus.CANCEL);
+                    }
+                });
+    }
 
+    // 정산용 기간별 거래 내역 export (to 포함, 하루 단위)
+    @GetMapping("/transactions/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, format.getContentType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions-"
+                        + from + "-" + to + "." + format.getExtension() + "\"");
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(outputStream -> transactionExportService.export(
+                from.atStartOfDay(), to.plusDays(1).atStartOfDay(), format, gzip, outputStream));
     }
 
     @GetMapping("/transactions/{transactionId}")
-    public TransactionInfo selectTransactions(@PathVariable @NotNull Long transactionId) {
-        return transactionService.selectTransaction(transactionId);
+    public ResponseEntity<TransactionInfo> selectTransactions(
+            @PathVariable @NotNull Long transactionId, WebRequest webRequest) {
+        String eTag = transactionETagCache.get(transactionId);
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .header(HttpHeaders.CACHE_CONTROL, transactionETagCache.getCacheControl())
+                    .build();
+        }
+
+        TransactionInfo transactionInfo = transactionService.selectTransaction(transactionId);
+        return ResponseEntity.ok()
+                .eTag(transactionETagCache.put(transactionInfo))
+                .header(HttpHeaders.CACHE_CONTROL, transactionETagCache.getCacheControl())
+                .body(transactionInfo);
+    }
+
+    @GetMapping("/accounts/{accountNumber}/transactions")
+    public TransactionHistory.Response selectTransactionHistory(
+            @PathVariable String accountNumber,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) TransactionStatus transactionStatus,
+            @RequestParam(required = false) TransactionResultStatus transactionResultStatus) {
+        return transactionService.selectTransactionHistory(
+                accountNumber, cursor, size, transactionStatus, transactionResultStatus);
+    }
+
+    // 파티션 작업에서 던진 예외는 CompletionException 으로 감싸져서 온다
+    private boolean isAccountException(Throwable e) {
+        if (e instanceof CompletionException) {
+            e = e.getCause();
+        }
+        return e instanceof AccountException;
     }
 
 
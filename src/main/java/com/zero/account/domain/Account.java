@@ -4,6 +4,8 @@ package com.zero.account.domain;
 import com.zero.account.exception.AccountException;
 import com.zero.account.type.AccountStatus;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -20,29 +22,42 @@ import static com.zero.account.type.ErrorCode.*;
 @Builder
 @Entity
 @EntityListeners(AuditingEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Account extends BaseEntity{
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "account_user_id")
     private AccountUser accountUser;
+    @Column(unique = true)
     private String accountNumber;
     @Enumerated(EnumType.STRING)
     private AccountStatus accountStatus;
     private Long balance;
+    // 계좌 생성 시 입금액 (잔액 정합성 검사의 기준)
+    private Long openingBalance;
+    // ledger 모드 : balance 는 이 거래 id 까지 반영한 스냅샷, 현재 잔액은 이후 거래를 더해서 계산 (기존 방식이면 null)
+    private Long snapshotTransactionId;
     private LocalDateTime registeredAt;
     private LocalDateTime unRegisteredAt;
+    @Version
+    private Long version;
 
     public void useBalance(Long paymentAmount) {
+        validatePaymentAmount(paymentAmount);
+        if (paymentAmount > balance) {
+            throw new AccountException(INSUFFICIENT_BALANCE);
+        }
+        this.balance -= paymentAmount;
+    }
+
+    public static void validatePaymentAmount(Long paymentAmount) {
         if (paymentAmount < 100) {
             throw new AccountException(USE_BALANCE_MINIMUM_OUT_OF_RANGE);
         }
         if (paymentAmount >= 100_000_000) {
             throw new AccountException(USE_BALANCE_MAXIMUM_OUT_OF_RANGE);
         }
-        if (paymentAmount > balance) {
-            throw new AccountException(INSUFFICIENT_BALANCE);
-        }
-        this.balance -= paymentAmount;
     }
 
 }
@@ -0,0 +1,20 @@
+package com.zero.account.domain;
+
+import lombok.*;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+public class AccountNumberBlock {
+
+    @Id
+    private String name;
+    private Long nextValue;
+
+}
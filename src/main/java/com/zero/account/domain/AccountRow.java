@@ -0,0 +1,24 @@
+package com.zero.account.domain;
+
+import com.zero.account.type.AccountStatus;
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+// R2DBC 로 읽는 account 테이블 (JPA 엔티티 Account 와 같은 테이블, 거래에 필요한 컬럼만)
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table("account")
+public class AccountRow {
+
+    @Id
+    private Long id;
+    private Long accountUserId;
+    private String accountNumber;
+    private AccountStatus accountStatus;
+    private Long balance;
+
+}
@@ -0,0 +1,26 @@
+package com.zero.account.domain;
+
+import lombok.*;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// compaction 때마다 남기는 계좌 잔액 기록 (과거 시점 잔액 = 그 이전 스냅샷 + 이후 거래)
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(indexes = @Index(name = "idx_balance_snapshot_account", columnList = "accountId, snapshotAt"))
+@EntityListeners(AuditingEntityListener.class)
+public class BalanceSnapshot extends BaseEntity {
+
+    private Long accountId;
+    private Long balance;
+    private Long lastTransactionId;
+    // lastTransactionId 거래의 생성 시각
+    private LocalDateTime snapshotAt;
+
+}
@@ -0,0 +1,59 @@
+package com.zero.account.domain;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 41 bit 시각(ms) + 10 bit 노드 + 12 bit 순번 : DB 왕복 없이 시간 순서로 증가하는 64 bit id
+public class TimeOrderedIdGenerator {
+
+    public static final long EPOCH = Instant.parse("2022-01-01T00:00:00Z").toEpochMilli();
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+    private static final Map<Integer, TimeOrderedIdGenerator> SHARED_GENERATORS = new ConcurrentHashMap<>();
+
+    private final long nodeId;
+    private long lastTimestamp = -1L;
+    private long sequence;
+
+    public TimeOrderedIdGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("nodeId must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+    }
+
+    // 같은 테이블에 JPA 와 R2DBC 가 함께 insert 하므로 같은 JVM 에서는 노드마다 하나를 같이 쓴다 (같은 ms 의 순번 중복 방지)
+    public static TimeOrderedIdGenerator forNode(int nodeId) {
+        return SHARED_GENERATORS.computeIfAbsent(nodeId, TimeOrderedIdGenerator::new);
+    }
+
+    // 시계가 뒤로 가거나 1ms 안에 순번을 다 쓰면 마지막 시각을 이어서 사용한다 (항상 증가)
+    public synchronized long nextId() {
+        long timestamp = Math.max(currentTimeMillis(), lastTimestamp);
+        if (timestamp == lastTimestamp) {
+            sequence = (sequence + 1) & MAX_SEQUENCE;
+            if (sequence == 0) {
+                timestamp++;
+            }
+        } else {
+            sequence = 0;
+        }
+        lastTimestamp = timestamp;
+        return ((timestamp - EPOCH) << (NODE_BITS + SEQUENCE_BITS))
+                | (nodeId << SEQUENCE_BITS)
+                | sequence;
+    }
+
+    public static int getNodeId(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.zero.account.domain;
+
+import com.zero.account.config.ShardContext;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Properties;
+
+// IDENTITY 와 달리 insert 전에 id 를 알 수 있으므로 Hibernate 가 insert 를 JDBC batch 로 묶을 수 있다
+public class TimeOrderedIdentifierGenerator implements IdentifierGenerator {
+
+    public static final String NODE_ID_SETTING = "account.id.node-id";
+    public static final String SHARD_COUNT_SETTING = "account.sharding.shard-count";
+
+    // 샤드마다 하나 : 노드 구간 = nodeId * shardCount + shard 이므로 id 만 보고 샤드를 알 수 있다
+    private TimeOrderedIdGenerator[] timeOrderedIdGenerators;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) {
+        Map<?, ?> settings = serviceRegistry.getService(ConfigurationService.class).getSettings();
+        int nodeId = ConfigurationHelper.getInt(NODE_ID_SETTING, settings, 0);
+        int shardCount = ConfigurationHelper.getInt(SHARD_COUNT_SETTING, settings, 1);
+        if ((nodeId + 1) * shardCount > TimeOrderedIdGenerator.MAX_NODE_ID + 1) {
+            throw new IllegalArgumentException("nodeId must be less than "
+                    + (TimeOrderedIdGenerator.MAX_NODE_ID + 1) / shardCount + " with " + shardCount + " shards");
+        }
+        timeOrderedIdGenerators = new TimeOrderedIdGenerator[shardCount];
+        for (int shard = 0; shard < shardCount; shard++) {
+            timeOrderedIdGenerators[shard] = TimeOrderedIdGenerator.forNode(nodeId * shardCount + shard);
+        }
+    }
+
+    // 지금 쓰고 있는 connection 의 샤드 (row 가 실제로 저장되는 샤드)
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) {
+        if (object instanceof Transaction && ((Transaction) object).getReservedId() != null) {
+            return ((Transaction) object).getReservedId();
+        }
+        return timeOrderedIdGenerators[ShardContext.getShard()].nextId();
+    }
+
+}
@@ -6,6 +6,7 @@ import lombok.*;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import javax.persistence.*;
+import java.time.LocalDateTime;
 
 
 @Builder
@@ -14,12 +15,19 @@ import javax.persistence.*;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Table(indexes = {
+        // 계좌별 거래 내역 keyset 페이지 조회 (createdAt desc, id desc), columnList 는 논리 컬럼명
+        @Index(name = "idx_transaction_account_created", columnList = "account_id, createdAt, id"),
+        @Index(name = "idx_transaction_account_status_created",
+                columnList = "account_id, transactionStatus, transactionResultStatus, createdAt, id")
+})
 @ToString
 @EntityListeners(AuditingEntityListener.class)
 public class Transaction extends BaseEntity {
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "account_id")
+    @ToString.Exclude
     private Account account;
     @Enumerated(EnumType.STRING)
     private TransactionStatus transactionStatus;
@@ -27,6 +35,21 @@ public class Transaction extends BaseEntity {
     private TransactionResultStatus transactionResultStatus;
     private Long transactionAmount;
     private String accountNumber;
+    // journal 모드 : 저장 전에 미리 발급해서 응답에 돌려준 id (TimeOrderedIdentifierGenerator 가 이 값을 쓴다)
+    @Transient
+    @ToString.Exclude
+    private Long reservedId;
+    // Redis 원장 : 차감한 시각을 거래 시각으로 저장한다 (auditing 이 채운 값을 entity callback 에서 덮어쓴다)
+    @Transient
+    @ToString.Exclude
+    private LocalDateTime reservedCreatedAt;
+
+    @PrePersist
+    void applyReservedCreatedAt() {
+        if (reservedCreatedAt != null) {
+            setCreatedAt(reservedCreatedAt);
+        }
+    }
 
 }
 
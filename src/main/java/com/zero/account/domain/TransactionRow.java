@@ -0,0 +1,38 @@
+package com.zero.account.domain;
+
+import com.zero.account.type.TransactionResultStatus;
+import com.zero.account.type.TransactionStatus;
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.domain.Persistable;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+// R2DBC 로 읽고 쓰는 transaction 테이블 (JPA 엔티티 Transaction 과 같은 테이블)
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@ToString
+@Table("transaction")
+public class TransactionRow implements Persistable<Long> {
+
+    @Id
+    private Long id;
+    private Long accountId;
+    private TransactionStatus transactionStatus;
+    private TransactionResultStatus transactionResultStatus;
+    private Long transactionAmount;
+    private String accountNumber;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    // id 는 저장 전에 생성하고 거래 내역은 저장 후 바뀌지 않으므로 save 는 항상 insert
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.zero.account.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AccountBalance {
+
+    private String accountNumber;
+    private Long balance;
+    private LocalDateTime at;
+
+}
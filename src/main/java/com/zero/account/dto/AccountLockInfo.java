@@ -0,0 +1,19 @@
+package com.zero.account.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AccountLockInfo {
+
+    private String accountNumber;
+    private String endpoint;
+    private LocalDateTime acquiredAt;
+    private Long ageMillis;
+
+}
@@ -0,0 +1,18 @@
+package com.zero.account.dto;
+
+import com.zero.account.type.TransactionStatus;
+import lombok.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@ToString
+public class FailedTransaction {
+
+    private String accountNumber;
+    private TransactionStatus transactionStatus;
+    private Long transactionAmount;
+
+}
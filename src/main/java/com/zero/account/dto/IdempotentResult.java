@@ -0,0 +1,20 @@
+package com.zero.account.dto;
+
+import com.zero.account.type.ErrorCode;
+import lombok.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@ToString
+public class IdempotentResult {
+
+    // 성공한 경우 응답 JSON, 실패한 경우 errorCode
+    private String response;
+    private ErrorCode errorCode;
+    // 같은 키로 다른 내용의 요청이 오면 저장된 결과를 돌려주지 않도록 요청 본문의 hash 를 같이 저장
+    private String requestHash;
+
+}
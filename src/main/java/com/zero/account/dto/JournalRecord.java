@@ -0,0 +1,49 @@
+package com.zero.account.dto;
+
+import com.zero.account.type.TransactionResultStatus;
+import com.zero.account.type.TransactionStatus;
+import lombok.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@ToString
+public class JournalRecord {
+
+    private static final String DELIMITER = "|";
+
+    // journal 에 기록될 때 부여되는 순번 (payload 에는 포함되지 않는다)
+    private long sequence;
+    private Long accountId;
+    private String accountNumber;
+    private TransactionStatus transactionStatus;
+    private TransactionResultStatus transactionResultStatus;
+    private Long transactionAmount;
+    // 응답에 이미 돌려준 거래 id (반영할 때 이 id 로 저장한다)
+    private Long transactionId;
+    // 기록한 뒤 DB commit 이 실패한 거래 : 같은 거래 id 의 거래 내역을 반영하지 않는다
+    private boolean aborted;
+
+    public String serialize() {
+        return accountId + DELIMITER + accountNumber + DELIMITER + transactionStatus
+                + DELIMITER + transactionResultStatus + DELIMITER + transactionAmount
+                + DELIMITER + transactionId + DELIMITER + aborted;
+    }
+
+    public static JournalRecord parse(long sequence, String value) {
+        String[] tokens = value.split("\\|");
+        return JournalRecord.builder()
+                .sequence(sequence)
+                .accountId(Long.valueOf(tokens[0]))
+                .accountNumber(tokens[1])
+                .transactionStatus(TransactionStatus.valueOf(tokens[2]))
+                .transactionResultStatus(TransactionResultStatus.valueOf(tokens[3]))
+                .transactionAmount(Long.valueOf(tokens[4]))
+                .transactionId(Long.valueOf(tokens[5]))
+                .aborted(tokens.length > 6 && Boolean.parseBoolean(tokens[6]))
+                .build();
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.zero.account.dto;
+
+import com.zero.account.type.TransactionStatus;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@ToString
+public class LedgerEntry {
+
+    private static final String DELIMITER = "|";
+
+    // 원장에 기록될 때 Redis 가 부여하는 순번 (payload 에는 포함되지 않는다)
+    private long sequence;
+    private String accountNumber;
+    private TransactionStatus transactionStatus;
+    private Long transactionAmount;
+    // 원장에 넣을 때 발급해서 응답에 돌려준 거래 id 와 거래 시각 (반영할 때 이 값으로 저장한다)
+    private Long transactionId;
+    private LocalDateTime createdAt;
+
+    public long getBalanceDelta() {
+        return transactionStatus == TransactionStatus.APPROVAL
+                ? -transactionAmount
+                : transactionAmount;
+    }
+
+    public String serialize() {
+        return accountNumber + DELIMITER + transactionStatus + DELIMITER + transactionAmount
+                + DELIMITER + transactionId + DELIMITER + createdAt;
+    }
+
+    // 원장 값은 "순번|payload" (거래 id 가 없는 이전 형식은 반영할 때 id 를 새로 발급한다)
+    public static LedgerEntry parse(String value) {
+        String[] tokens = value.split("\\|");
+        return LedgerEntry.builder()
+                .sequence(Long.parseLong(tokens[0]))
+                .accountNumber(tokens[1])
+                .transactionStatus(TransactionStatus.valueOf(tokens[2]))
+                .transactionAmount(Long.valueOf(tokens[3]))
+                .transactionId(tokens.length > 5 ? Long.valueOf(tokens[4]) : null)
+                .createdAt(tokens.length > 5 ? LocalDateTime.parse(tokens[5]) : null)
+                .build();
+    }
+
+}
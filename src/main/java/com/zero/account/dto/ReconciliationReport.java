@@ -0,0 +1,44 @@
+package com.zero.account.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReconciliationReport {
+
+    private boolean running;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long completedChunks;
+    private long checkedAccounts;
+    private long skippedAccounts;
+    private long mismatchCount;
+    private List<Mismatch> mismatches;
+    private String failure;
+
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    public static class Mismatch {
+
+        private String accountNumber;
+        private Long expectedBalance;
+        private Long balance;
+
+        public static Mismatch from(ReconciliationRow reconciliationRow) {
+            return new Mismatch(
+                    reconciliationRow.getAccountNumber(),
+                    reconciliationRow.getExpectedBalance(),
+                    reconciliationRow.getBalance() + reconciliationRow.getTailDelta());
+        }
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.zero.account.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReconciliationRow {
+
+    private String accountNumber;
+    private Long openingBalance;
+    private Long balance;
+    private Long transactionDelta;
+    // ledger 모드에서 아직 스냅샷(balance)에 접히지 않은 거래 합계 (기존 방식이면 0)
+    private Long tailDelta;
+
+    public boolean isVerifiable() {
+        return openingBalance != null;
+    }
+
+    public long getExpectedBalance() {
+        return openingBalance + transactionDelta;
+    }
+
+    public boolean isMatched() {
+        return balance != null && balance + tailDelta == getExpectedBalance();
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.zero.account.dto;
+
+import com.zero.account.exception.AccountException;
+import com.zero.account.type.ErrorCode;
+import lombok.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+public class TransactionHistory {
+
+    @Setter
+    @Getter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    public static class Response {
+
+        private List<TransactionInfo> transactions;
+        private String nextCursor;
+
+        public static Response from(List<TransactionInfo> transactions, boolean hasNext) {
+            return new Response(
+                    transactions,
+                    hasNext ? Cursor.from(transactions.get(transactions.size() - 1)).encode() : null);
+        }
+    }
+
+    // 마지막으로 내려준 거래의 (createdAt, id) 를 base64 로 감싼 값
+    @Getter
+    @AllArgsConstructor
+    public static class Cursor {
+
+        private LocalDateTime createdAt;
+        private Long transactionId;
+
+        public static Cursor from(TransactionInfo transactionInfo) {
+            return new Cursor(transactionInfo.getRegisteredAt(), transactionInfo.getTransactionId());
+        }
+
+        public static Cursor decode(String cursor) {
+            try {
+                String[] values = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                        .split("\\|");
+                return new Cursor(LocalDateTime.parse(values[0]), Long.valueOf(values[1]));
+            } catch (RuntimeException e) {
+                throw new AccountException(ErrorCode.INVALID_REQUEST);
+            }
+        }
+
+        public String encode() {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(
+                    (createdAt + "|" + transactionId).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+}
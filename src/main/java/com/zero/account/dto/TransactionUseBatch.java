@@ -0,0 +1,79 @@
+package com.zero.account.dto;
+
+import com.zero.account.type.ErrorCode;
+import com.zero.account.type.TransactionResultStatus;
+import lombok.*;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class TransactionUseBatch {
+
+    @Setter
+    @Getter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Request {
+
+        @NotEmpty
+        @Size(max = 1000)
+        @Valid
+        private List<TransactionUse.Request> transactions;
+    }
+
+    @Setter
+    @Getter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    public static class Response {
+
+        private List<Result> results;
+
+        public static Response from(List<Result> results) {
+            return new Response(results);
+        }
+    }
+
+    @Setter
+    @Getter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    public static class Result {
+
+        private Long transactionId;
+        private String accountNumber;
+        private TransactionResultStatus transactionResultStatus;
+        private Long transactionAmount;
+        private LocalDateTime createdAt;
+        private ErrorCode errorCode;
+        private String errorMessage;
+
+        public static Result from(TransactionDto transactionDto, ErrorCode errorCode) {
+            return Result.builder()
+                    .transactionId(transactionDto.getTransactionId())
+                    .accountNumber(transactionDto.getAccountNumber())
+                    .transactionResultStatus(transactionDto.getTransactionResultStatus())
+                    .transactionAmount(transactionDto.getTransactionAmount())
+                    .createdAt(transactionDto.getCreatedAt())
+                    .errorCode(errorCode)
+                    .errorMessage(errorCode == null ? null : errorCode.getDescription())
+                    .build();
+        }
+
+        public static Result failed(TransactionUse.Request request, ErrorCode errorCode) {
+            return Result.builder()
+                    .accountNumber(request.getAccountNumber())
+                    .transactionResultStatus(TransactionResultStatus.FAILED)
+                    .transactionAmount(request.getTransactionAmount())
+                    .errorCode(errorCode)
+                    .errorMessage(errorCode.getDescription())
+                    .build();
+        }
+    }
+
+}
@@ -5,6 +5,8 @@ import com.zero.account.dto.ErrorResponse;
 import static com.zero.account.type.ErrorCode.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -13,10 +15,14 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    // Idempotency-Key 재사용은 재시도해도 성공할 수 없는 요청이므로 422 로 응답 (나머지는 기존처럼 200)
     @ExceptionHandler(AccountException.class)
-    public ErrorResponse handleAccountException(AccountException e) {
+    public ResponseEntity<ErrorResponse> handleAccountException(AccountException e) {
         log.error("{} is occurred.", e.getErrorCode());
-        return new ErrorResponse(e.getErrorCode(), e.getErrorMessage());
+        HttpStatus status = e.getErrorCode() == IDEMPOTENCY_KEY_REUSED
+                ? HttpStatus.UNPROCESSABLE_ENTITY
+                : HttpStatus.OK;
+        return ResponseEntity.status(status).body(new ErrorResponse(e.getErrorCode(), e.getErrorMessage()));
     }
 
     @ExceptionHandler(DataIntegrityViolationException.class)
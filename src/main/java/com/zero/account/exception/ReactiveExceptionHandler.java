@@ -0,0 +1,45 @@
+package com.zero.account.exception;
+
+import com.zero.account.dto.ErrorResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import javax.validation.ConstraintViolationException;
+
+import static com.zero.account.type.ErrorCode.*;
+
+// WebFlux 경로의 GlobalExceptionHandler : 같은 ErrorCode 와 응답 형식 (상태 코드도 servlet 과 같이 200)
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "account.reactive.enabled", havingValue = "true")
+public class ReactiveExceptionHandler {
+
+    public Mono<ServerResponse> handle(Throwable e, ServerRequest request) {
+        return ServerResponse.ok().bodyValue(toErrorResponse(e));
+    }
+
+    private ErrorResponse toErrorResponse(Throwable e) {
+        if (e instanceof AccountException) {
+            AccountException accountException = (AccountException) e;
+            log.error("{} is occurred.", accountException.getErrorCode());
+            return new ErrorResponse(accountException.getErrorCode(), accountException.getErrorMessage());
+        }
+        if (e instanceof DataIntegrityViolationException) {
+            log.error("DataIntegrityViolationException is occurred.", e);
+            return new ErrorResponse(INVALID_REQUEST, INVALID_REQUEST.getDescription());
+        }
+        // servlet 의 @Valid 실패 (MethodArgumentNotValidException) 에 해당
+        if (e instanceof ConstraintViolationException) {
+            log.error("ConstraintViolationException is occurred.", e);
+            return new ErrorResponse(INVALID_REQUEST, INVALID_REQUEST.getDescription());
+        }
+        log.error("Exception is occurred.", e);
+        return new ErrorResponse(INTERNAL_SERVER_ERROR, INTERNAL_SERVER_ERROR.getDescription());
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.zero.account.repository;
+
+import com.zero.account.domain.AccountNumberBlock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.util.Optional;
+
+@Repository
+public interface AccountNumberBlockRepository extends JpaRepository<AccountNumberBlock, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from AccountNumberBlock b where b.name = :name")
+    Optional<AccountNumberBlock> findForUpdate(@Param("name") String name);
+
+}
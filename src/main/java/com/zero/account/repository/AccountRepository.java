@@ -2,18 +2,127 @@ package com.zero.account.repository;
 
 import com.zero.account.domain.Account;
 import com.zero.account.domain.Transaction;
+import com.zero.account.dto.AccountInfo;
+import com.zero.account.dto.ReconciliationRow;
+import com.zero.account.type.AccountStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.annotations.QueryHints.CACHEABLE;
+import static org.hibernate.annotations.QueryHints.FETCH_SIZE;
+import static org.hibernate.annotations.QueryHints.READ_ONLY;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
 
     Optional<Long> countByAccountUserId(Long accountUser_Id);
     boolean existsByAccountNumber(String accountNumber);
+    // 2 차 캐시 사용 시 쿼리 캐시 (account 테이블이 바뀌면 무효화된다)
+    @QueryHints(@QueryHint(name = CACHEABLE, value = "true"))
     Optional<Account> findByAccountNumber(String accountNumber);
+    List<Account> findAllByAccountNumberIn(Collection<String> accountNumbers);
     Optional<List<Account>> findByAccountUserId(Long Id);
 
+    // 조회 응답에 필요한 컬럼만 읽는다 (엔티티, 연관 관계 로딩 없음)
+    @Query("select new com.zero.account.dto.AccountInfo(a.accountNumber, a.balance) " +
+            "from Account a where a.accountUser.id = :accountUserId")
+    List<AccountInfo> findAccountInfosByAccountUserId(@Param("accountUserId") Long accountUserId);
+
+    // ledger 모드 조회 : 스냅샷 잔액 + 스냅샷 이후 거래
+    @Query("select new com.zero.account.dto.AccountInfo(a.accountNumber, a.balance + " +
+            "coalesce((select sum(case " +
+            "when t.transactionStatus = com.zero.account.type.TransactionStatus.APPROVAL then -t.transactionAmount " +
+            "else t.transactionAmount end) from Transaction t where t.account = a " +
+            "and t.transactionResultStatus = com.zero.account.type.TransactionResultStatus.SUCCEED " +
+            "and t.id > a.snapshotTransactionId), 0)) " +
+            "from Account a where a.accountUser.id = :accountUserId")
+    List<AccountInfo> findLedgerAccountInfosByAccountUserId(@Param("accountUserId") Long accountUserId);
+
+    // 스냅샷 잔액 + 스냅샷 이후 성공한 거래 (한 문장으로 읽으므로 compaction 과 겹쳐도 두 번 더해지지 않는다)
+    @Query("select a.balance + coalesce((select sum(case " +
+            "when t.transactionStatus = com.zero.account.type.TransactionStatus.APPROVAL then -t.transactionAmount " +
+            "else t.transactionAmount end) from Transaction t where t.account = a " +
+            "and t.transactionResultStatus = com.zero.account.type.TransactionResultStatus.SUCCEED " +
+            "and t.id > a.snapshotTransactionId), 0) " +
+            "from Account a where a.id = :accountId")
+    Long findCurrentBalance(@Param("accountId") Long accountId);
+
+    @Modifying
+    @Query("update Account a set a.snapshotTransactionId = :snapshotTransactionId " +
+            "where a.id = :accountId and a.snapshotTransactionId is null")
+    int initializeSnapshot(@Param("accountId") Long accountId,
+                           @Param("snapshotTransactionId") Long snapshotTransactionId);
+
+    // 다른 노드가 먼저 접었으면 0 (previousSnapshotTransactionId 가 달라짐)
+    @Modifying
+    @Query("update Account a set a.balance = a.balance + :balanceDelta, " +
+            "a.snapshotTransactionId = :snapshotTransactionId, a.version = a.version + 1 " +
+            "where a.id = :accountId and a.snapshotTransactionId = :previousSnapshotTransactionId")
+    int foldSnapshot(@Param("accountId") Long accountId,
+                     @Param("previousSnapshotTransactionId") Long previousSnapshotTransactionId,
+                     @Param("snapshotTransactionId") Long snapshotTransactionId,
+                     @Param("balanceDelta") Long balanceDelta);
+
+    @Query("select a.id from Account a where a.id > :afterId and a.snapshotTransactionId is not null order by a.id")
+    List<Long> findSnapshotAccountIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select a.id from Account a, Transaction t where t.account = a and a.id in :accountIds " +
+            "and t.id > a.snapshotTransactionId group by a.id having count(t) >= :minTailSize")
+    List<Long> findAccountIdsWithTail(@Param("accountIds") Collection<Long> accountIds,
+                                      @Param("minTailSize") long minTailSize);
+
+    @Query("select a.id from Account a where a.accountNumber = :accountNumber")
+    Optional<Long> findIdByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    @Modifying
+    @Query("update Account a set a.balance = a.balance - :amount, a.version = a.version + 1 " +
+            "where a.accountNumber = :accountNumber " +
+            "and a.balance >= :amount " +
+            "and a.accountStatus = :accountStatus " +
+            "and a.accountUser.id = :userId")
+    int useBalance(@Param("accountNumber") String accountNumber,
+                   @Param("userId") Long userId,
+                   @Param("amount") Long amount,
+                   @Param("accountStatus") AccountStatus accountStatus);
+
+    // 취소 : 읽고 더해서 쓰면 그 사이의 lock 없는 차감(atomic-debit)이 사라지므로 UPDATE 한 번으로 더한다
+    @Modifying
+    @Query("update Account a set a.balance = a.balance + :amount, a.version = a.version + 1 " +
+            "where a.id = :accountId")
+    int addBalance(@Param("accountId") Long accountId, @Param("amount") Long amount);
+
+    // afterId 다음부터 pageable 의 offset 번째 id (정합성 검사 구간의 끝)
+    @Query("select a.id from Account a where a.id > :afterId order by a.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // (fromId, toId] 구간 계좌의 잔액과 성공한 거래 합계 (결제는 빼고 취소는 더한다), ledger 모드면 스냅샷 이후 합계도
+    @QueryHints({
+            @QueryHint(name = FETCH_SIZE, value = "500"),
+            @QueryHint(name = READ_ONLY, value = "true")
+    })
+    @Query("select new com.zero.account.dto.ReconciliationRow(a.accountNumber, a.openingBalance, a.balance, " +
+            "coalesce(sum(case " +
+            "when t.transactionStatus = com.zero.account.type.TransactionStatus.APPROVAL then -t.transactionAmount " +
+            "when t.transactionStatus = com.zero.account.type.TransactionStatus.CANCEL then t.transactionAmount " +
+            "else 0 end), 0), " +
+            "coalesce(sum(case when t.id > a.snapshotTransactionId then (case " +
+            "when t.transactionStatus = com.zero.account.type.TransactionStatus.APPROVAL then -t.transactionAmount " +
+            "else t.transactionAmount end) else 0 end), 0)) " +
+            "from Account a left join Transaction t on t.account = a " +
+            "and t.transactionResultStatus = com.zero.account.type.TransactionResultStatus.SUCCEED " +
+            "where a.id > :fromId and a.id <= :toId " +
+            "group by a.id, a.accountNumber, a.openingBalance, a.balance")
+    Stream<ReconciliationRow> streamReconciliationRows(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
 }
@@ -0,0 +1,16 @@
+package com.zero.account.repository;
+
+import com.zero.account.domain.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, Long> {
+
+    Optional<BalanceSnapshot> findFirstByAccountIdAndSnapshotAtLessThanEqualOrderBySnapshotAtDesc(
+            Long accountId, LocalDateTime snapshotAt);
+
+}
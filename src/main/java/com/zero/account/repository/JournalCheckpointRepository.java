@@ -0,0 +1,9 @@
+package com.zero.account.repository;
+
+import com.zero.account.domain.JournalCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JournalCheckpointRepository extends JpaRepository<JournalCheckpoint, String> {
+}
@@ -0,0 +1,34 @@
+package com.zero.account.repository;
+
+import com.zero.account.domain.AccountRow;
+import com.zero.account.type.AccountStatus;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Mono;
+
+// AccountRepository 의 거래 API 용 쿼리를 R2DBC 로 (SQL 은 Hibernate 가 만든 테이블/컬럼 이름 기준)
+public interface ReactiveAccountRepository extends ReactiveCrudRepository<AccountRow, Long> {
+
+    Mono<AccountRow> findByAccountNumber(String accountNumber);
+
+    @Query("select exists(select 1 from account_user u where u.id = :userId)")
+    Mono<Boolean> existsAccountUserById(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("update account set balance = balance - :amount, version = version + 1 " +
+            "where account_number = :accountNumber " +
+            "and balance >= :amount " +
+            "and account_status = :accountStatus " +
+            "and account_user_id = :userId")
+    Mono<Integer> useBalance(@Param("accountNumber") String accountNumber,
+                             @Param("userId") Long userId,
+                             @Param("amount") Long amount,
+                             @Param("accountStatus") AccountStatus accountStatus);
+
+    @Modifying
+    @Query("update account set balance = balance + :amount, version = version + 1 where id = :accountId")
+    Mono<Integer> addBalance(@Param("accountId") Long accountId, @Param("amount") Long amount);
+
+}
@@ -0,0 +1,7 @@
+package com.zero.account.repository;
+
+import com.zero.account.domain.TransactionRow;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+public interface ReactiveTransactionRepository extends ReactiveCrudRepository<TransactionRow, Long> {
+}
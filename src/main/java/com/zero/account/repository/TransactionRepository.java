@@ -1,10 +1,107 @@
 package com.zero.account.repository;
 
 import com.zero.account.domain.Transaction;
+import com.zero.account.dto.TransactionInfo;
+import com.zero.account.type.TransactionResultStatus;
+import com.zero.account.type.TransactionStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.annotations.QueryHints.FETCH_SIZE;
+import static org.hibernate.annotations.QueryHints.READ_ONLY;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
+    @Query("select new com.zero.account.dto.TransactionInfo(t.id, t.accountNumber, t.transactionStatus, " +
+            "t.transactionResultStatus, t.transactionAmount, t.createdAt) " +
+            "from Transaction t where t.id = :transactionId")
+    Optional<TransactionInfo> findInfoById(@Param("transactionId") Long transactionId);
+
+    @Query("select t.id from Transaction t where t.id in :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select t.createdAt from Transaction t where t.id = :transactionId")
+    LocalDateTime findCreatedAtById(@Param("transactionId") Long transactionId);
+
+    @Query("select coalesce(max(t.id), 0) from Transaction t where t.account.id = :accountId")
+    Long findMaxIdByAccountId(@Param("accountId") Long accountId);
+
+    @Query("select max(t.id) from Transaction t where t.account.id = :accountId " +
+            "and t.id > :afterId and t.createdAt < :before")
+    Long findMaxIdCreatedBefore(@Param("accountId") Long accountId,
+                                @Param("afterId") Long afterId,
+                                @Param("before") LocalDateTime before);
+
+    // (afterId, toId] 구간 성공한 거래의 잔액 변화 (결제는 빼고 취소는 더한다)
+    @Query("select coalesce(sum(case " +
+            "when t.transactionStatus = com.zero.account.type.TransactionStatus.APPROVAL then -t.transactionAmount " +
+            "else t.transactionAmount end), 0) " +
+            "from Transaction t where t.account.id = :accountId " +
+            "and t.transactionResultStatus = com.zero.account.type.TransactionResultStatus.SUCCEED " +
+            "and t.id > :afterId and t.id <= :toId")
+    Long sumBalanceDelta(@Param("accountId") Long accountId,
+                         @Param("afterId") Long afterId,
+                         @Param("toId") Long toId);
+
+    @Query("select coalesce(sum(case " +
+            "when t.transactionStatus = com.zero.account.type.TransactionStatus.APPROVAL then -t.transactionAmount " +
+            "else t.transactionAmount end), 0) " +
+            "from Transaction t where t.account.id = :accountId " +
+            "and t.transactionResultStatus = com.zero.account.type.TransactionResultStatus.SUCCEED " +
+            "and t.id > :afterId and t.createdAt <= :at")
+    Long sumBalanceDeltaUntil(@Param("accountId") Long accountId,
+                              @Param("afterId") Long afterId,
+                              @Param("at") LocalDateTime at);
+
+    // 정산 export 용 : DTO 로 바로 읽어서 영속성 컨텍스트에 쌓이지 않고, fetch size 단위로 커서를 넘긴다
+    @QueryHints({
+            @QueryHint(name = FETCH_SIZE, value = "500"),
+            @QueryHint(name = READ_ONLY, value = "true")
+    })
+    @Query("select new com.zero.account.dto.TransactionInfo(t.id, t.accountNumber, t.transactionStatus, " +
+            "t.transactionResultStatus, t.transactionAmount, t.createdAt) " +
+            "from Transaction t where t.createdAt >= :from and t.createdAt < :to " +
+            "order by t.createdAt, t.id")
+    Stream<TransactionInfo> streamInfosByCreatedAt(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    @Query("select new com.zero.account.dto.TransactionInfo(t.id, t.accountNumber, t.transactionStatus, " +
+            "t.transactionResultStatus, t.transactionAmount, t.createdAt) " +
+            "from Transaction t where t.account.id = :accountId " +
+            "and (:transactionStatus is null or t.transactionStatus = :transactionStatus) " +
+            "and (:transactionResultStatus is null or t.transactionResultStatus = :transactionResultStatus) " +
+            "order by t.createdAt desc, t.id desc")
+    List<TransactionInfo> findHistory(
+            @Param("accountId") Long accountId,
+            @Param("transactionStatus") TransactionStatus transactionStatus,
+            @Param("transactionResultStatus") TransactionResultStatus transactionResultStatus,
+            Pageable pageable);
 
+    // 이전 페이지의 마지막 (createdAt, id) 다음부터 조회 (offset 없이 인덱스에서 바로 이어서 읽는다)
+    @Query("select new com.zero.account.dto.TransactionInfo(t.id, t.accountNumber, t.transactionStatus, " +
+            "t.transactionResultStatus, t.transactionAmount, t.createdAt) " +
+            "from Transaction t where t.account.id = :accountId " +
+            "and (t.createdAt < :createdAt or (t.createdAt = :createdAt and t.id < :transactionId)) " +
+            "and (:transactionStatus is null or t.transactionStatus = :transactionStatus) " +
+            "and (:transactionResultStatus is null or t.transactionResultStatus = :transactionResultStatus) " +
+            "order by t.createdAt desc, t.id desc")
+    List<TransactionInfo> findHistoryAfter(
+            @Param("accountId") Long accountId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("transactionId") Long transactionId,
+            @Param("transactionStatus") TransactionStatus transactionStatus,
+            @Param("transactionResultStatus") TransactionResultStatus transactionResultStatus,
+            Pageable pageable);
 
 }
@@ -0,0 +1,39 @@
+package com.zero.account.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+// 계좌 번호 -> 계좌 id 는 계좌가 생긴 뒤 바뀌지 않으므로 한 번 조회한 값을 기억해서 id 조회 왕복을 없앤다
+@Component
+public class AccountIdCache {
+
+    private final Map<String, Long> accountIds;
+
+    public AccountIdCache(@Value("${account.transaction.account-id-cache.local-size:100000}") int localSize) {
+        this.accountIds = Collections.synchronizedMap(
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                        return size() > localSize;
+                    }
+                });
+    }
+
+    // 없는 계좌는 기억하지 않는다 (나중에 생길 수 있다)
+    public Optional<Long> get(String accountNumber, Supplier<Optional<Long>> loader) {
+        Long accountId = accountIds.get(accountNumber);
+        if (accountId != null) {
+            return Optional.of(accountId);
+        }
+        Optional<Long> loaded = loader.get();
+        loaded.ifPresent(id -> accountIds.put(accountNumber, id));
+        return loaded;
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.zero.account.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// lock 을 얻은 뒤의 임계 구역을 실행하는 풀 (Redisson 이벤트 루프에서 JPA 작업을 돌리지 않기 위함)
+@Component
+public class AccountLockExecutor {
+
+    private final ExecutorService executorService;
+
+    public AccountLockExecutor(
+            @Value("${account.lock.async.pool-size:${server.tomcat.threads.max:200}}") int poolSize,
+            @Value("${server.tomcat.threads.max:200}") int containerThreads) {
+        // 요청 스레드보다 작으면 lock 을 잡은 요청이 이 풀에서 줄을 서서 동기 경로보다 동시 처리량이 줄어든다
+        if (poolSize < containerThreads) {
+            throw new IllegalStateException("account.lock.async.pool-size (" + poolSize
+                    + ") must be at least server.tomcat.threads.max (" + containerThreads + ")");
+        }
+        AtomicInteger sequence = new AtomicInteger();
+        this.executorService = Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "account-lock-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public Executor getExecutor() {
+        return executorService;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executorService.shutdown();
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.zero.account.service;
+
+import com.zero.account.config.ShardContext;
+import com.zero.account.domain.AccountNumberBlock;
+import com.zero.account.exception.AccountException;
+import com.zero.account.repository.AccountNumberBlockRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.zero.account.type.ErrorCode.INTERNAL_SERVER_ERROR;
+
+// DB 에서 순번 구간을 한 번에 예약하고, 구간 안에서는 메모리에서 계좌 번호를 만든다
+@Slf4j
+@Component
+public class AccountNumberAllocator {
+
+    private static final String BLOCK_NAME = "account_number";
+    private static final long MIN_ACCOUNT_NUMBER = 1_000_000_000L;
+    private static final long ACCOUNT_NUMBER_COUNT = 9_000_000_000L;
+    // 2^34 > 9,000,000,000 이므로 17 bit 두 개로 나눠 Feistel 순열을 적용
+    private static final int HALF_BITS = 17;
+    private static final long HALF_MASK = (1L << HALF_BITS) - 1;
+    private static final int ROUNDS = 4;
+
+    private final AccountNumberBlockRepository accountNumberBlockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final int blockSize;
+    // 이미 발급된 번호가 있으면 바꾸면 안 된다 (같은 순번이 다른 번호로 바뀐다)
+    private final long permutationKey;
+
+    // 구간 예약(DB)을 기다리는 동안 가상 스레드가 carrier 를 붙잡지 않도록 synchronized 대신 사용
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long nextValue;
+    private long endValue;
+
+    public AccountNumberAllocator(
+            AccountNumberBlockRepository accountNumberBlockRepository,
+            PlatformTransactionManager transactionManager,
+            ShardRouter shardRouter,
+            @Value("${account.account-number.block-size:100}") int blockSize,
+            @Value("${account.account-number.permutation-key:20220101}") long permutationKey) {
+        this.accountNumberBlockRepository = accountNumberBlockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.shardRouter = shardRouter;
+        this.blockSize = blockSize;
+        this.permutationKey = permutationKey;
+    }
+
+    public String next() {
+        lock.lock();
+        try {
+            if (nextValue == endValue) {
+                nextValue = reserveBlock();
+                endValue = nextValue + blockSize;
+            }
+            if (nextValue >= ACCOUNT_NUMBER_COUNT) {
+                throw new AccountException(INTERNAL_SERVER_ERROR);
+            }
+            return String.valueOf(MIN_ACCOUNT_NUMBER + permute(nextValue++, permutationKey));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 계좌 생성 트랜잭션과 분리해서 예약하므로 row lock 은 예약하는 동안만 잡힌다
+    // 샤딩 모드에서도 구간은 0 번 샤드 한 곳에서만 예약한다 (샤드마다 예약하면 번호가 겹친다)
+    private long reserveBlock() {
+        return shardRouter.execute(ShardContext.GLOBAL_SHARD, () -> {
+            try {
+                return transactionTemplate.execute(status -> reserve());
+            } catch (DataIntegrityViolationException e) {
+                // 처음 예약할 때 다른 노드가 먼저 row 를 만든 경우
+                return transactionTemplate.execute(status -> reserve());
+            }
+        });
+    }
+
+    private long reserve() {
+        AccountNumberBlock accountNumberBlock = accountNumberBlockRepository.findForUpdate(BLOCK_NAME)
+                .orElseGet(() -> accountNumberBlockRepository.saveAndFlush(
+                        new AccountNumberBlock(BLOCK_NAME, 0L)));
+        long start = accountNumberBlock.getNextValue();
+        accountNumberBlock.setNextValue(start + blockSize);
+        log.debug("Reserved account number block [{}, {})", start, start + blockSize);
+        return start;
+    }
+
+    // [0, 2^34) 위의 Feistel 순열을 범위 안에 들어올 때까지 반복 적용 (cycle walking) 하면 [0, count) 위의 순열이 된다
+    static long permute(long value, long key) {
+        do {
+            value = feistel(value, key);
+        } while (value >= ACCOUNT_NUMBER_COUNT);
+        return value;
+    }
+
+    private static long feistel(long value, long key) {
+        long left = value >>> HALF_BITS;
+        long right = value & HALF_MASK;
+        for (int round = 0; round < ROUNDS; round++) {
+            long mixed = left ^ (mix(right, key, round) & HALF_MASK);
+            left = right;
+            right = mixed;
+        }
+        return (left << HALF_BITS) | right;
+    }
+
+    private static long mix(long value, long key, int round) {
+        long hash = (value + key * 31 + round) * 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 32;
+        hash *= 0xBF58476D1CE4E5B9L;
+        return hash ^ (hash >>> 29);
+    }
+
+}
@@ -1,20 +1,25 @@
 package com.zero.account.service;
 
+import com.zero.account.aop.ReplicaRead;
+import com.zero.account.aop.ShardKey;
 import com.zero.account.domain.Account;
 import com.zero.account.domain.AccountUser;
+import com.zero.account.dto.AccountBalance;
 import com.zero.account.dto.AccountDto;
+import com.zero.account.dto.AccountInfo;
 import com.zero.account.exception.AccountException;
 import com.zero.account.repository.AccountRepository;
 import com.zero.account.repository.AccountUserRepository;
 import com.zero.account.type.AccountStatus;
+import com.zero.account.type.ConsistencyKey;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 import static com.zero.account.type.AccountStatus.IN_USE;
 import static com.zero.account.type.ErrorCode.*;
@@ -25,35 +30,44 @@ public class AccountService {
 
     private final AccountRepository accountRepository;
     private final AccountUserRepository accountUserRepository;
-
-    @Transactional
-    public AccountDto createAccount(Long userId, Long initialBalance) {
-        long createAccountNumber;
+    private final RedisBalanceEngine redisBalanceEngine;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final AccountSummaryCache accountSummaryCache;
+    private final BalanceLedger balanceLedger;
+    private final ShardRouter shardRouter;
+    private final RecentWriteTracker recentWriteTracker;
+
+    // 샤딩 모드에서는 계좌 번호로 샤드가 정해지므로 트랜잭션을 열기 전에 번호를 먼저 발급한다
+    // (보유 계좌 수를 먼저 확인해서 만들 수 없는 계좌에는 번호를 쓰지 않는다)
+    public String reserveAccountNumber(Long userId) {
         AccountUser accountUser = getAccountUser(userId);
-        Long accountCnt = accountRepository.countByAccountUserId(accountUser.getId())
-                .orElse(0L);
+        Long accountCnt = shardRouter.executeOnEachShard(() ->
+                        accountRepository.countByAccountUserId(accountUser.getId()).orElse(0L))
+                .stream()
+                .mapToLong(Long::longValue)
+                .sum();
 
         extracted(accountCnt);
 
-        while (true) {
-            Long accountMaxNumber = 9999999999L;
-            Long accountMinNumber = 1000000000L;
-            createAccountNumber =
-                    (long) Math.floor(Math.random() * (accountMaxNumber - accountMinNumber)) + 1000000000L;
-            if (accountRepository.existsByAccountNumber(String.valueOf(createAccountNumber))) {
-                continue;
-            }
-            break;
-        }
+        return accountNumberAllocator.next();
+    }
 
-        return AccountDto.fromEntity(accountRepository.save(
-                Account.builder()
-                        .accountUser(accountUser)
-                        .accountNumber(String.valueOf(createAccountNumber))
-                        .balance(initialBalance)
-                        .accountStatus(IN_USE)
-                        .registeredAt(LocalDateTime.now())
-                        .build()));
+    @Transactional
+    public AccountDto createAccount(Long userId, @ShardKey String accountNumber, Long initialBalance) {
+        AccountUser accountUser = getAccountUser(userId);
+
+        Account account = accountRepository.save(Account.builder()
+                .accountUser(accountUser)
+                .accountNumber(accountNumber)
+                .balance(initialBalance)
+                .openingBalance(initialBalance)
+                .snapshotTransactionId(balanceLedger.isEnabled() ? 0L : null)
+                .accountStatus(IN_USE)
+                .registeredAt(LocalDateTime.now())
+                .build());
+        accountSummaryCache.evictAfterCommit(accountUser.getId());
+        recentWriteTracker.mark(accountUser.getId(), accountNumber);
+        return AccountDto.fromEntity(account);
     }
 
     private void extracted(Long accountCnt) {
@@ -63,7 +77,7 @@ public class AccountService {
     }
 
     @Transactional
-    public AccountDto updateAccountStatus(Long userId, String accountNumber) {
+    public AccountDto updateAccountStatus(Long userId, @ShardKey String accountNumber) {
         AccountUser accountUser = getAccountUser(userId);
 
         Account account = accountRepository.findByAccountNumber(accountNumber)
@@ -72,21 +86,57 @@ public class AccountService {
         if (!Objects.equals(accountUser.getId(), account.getAccountUser().getId())) {
             throw new AccountException(USER_MIS_MATCH);
         }
-        if (account.getBalance() != 0) {
+        long balance = balanceLedger.isEnabled()
+                ? balanceLedger.getCurrentBalance(account)
+                : account.getBalance();
+        if (balance != 0) {
             throw new AccountException(EXIST_BALANCE);
         }
         account.setAccountStatus(AccountStatus.UNREGISTERED);
         account.setUnRegisteredAt(LocalDateTime.now());
+        redisBalanceEngine.updateStatus(accountNumber, AccountStatus.UNREGISTERED);
+        recentWriteTracker.mark(accountUser.getId(), accountNumber);
         return AccountDto.fromEntity(accountRepository.save(account));
     }
 
-    @Transactional
-    public List<AccountDto> selectAccounts(Long userId) {
+    // 캐시에 있으면 DB 를 거치지 않도록 트랜잭션 없이 조회
+    @ReplicaRead(key = ConsistencyKey.USER)
+    public List<AccountInfo> selectAccounts(Long userId) {
+        if (accountSummaryCache.isEnabled()) {
+            return accountSummaryCache.get(userId, () -> loadAccountInfos(userId));
+        }
+        return loadAccountInfos(userId);
+    }
+
+    // 샤딩 모드에서는 사용자의 계좌가 여러 샤드에 있으므로 모든 샤드에서 읽어서 합친다
+    private List<AccountInfo> loadAccountInfos(Long userId) {
         AccountUser accountUser = getAccountUser(userId);
-        List<Account> accounts = accountRepository.findByAccountUserId(accountUser.getId()).orElseThrow(() ->
-                new AccountException(NOT_HAVE_ACCOUNT));
+        List<AccountInfo> accountInfos = new ArrayList<>();
+        shardRouter.executeOnEachShard(() -> balanceLedger.isEnabled()
+                        ? accountRepository.findLedgerAccountInfosByAccountUserId(accountUser.getId())
+                        : accountRepository.findAccountInfosByAccountUserId(accountUser.getId()))
+                .forEach(accountInfos::addAll);
+        if (accountInfos.isEmpty()) {
+            throw new AccountException(NOT_HAVE_ACCOUNT);
+        }
+        return accountInfos;
+    }
 
-        return accounts.stream().map(AccountDto::fromEntity).collect(Collectors.toList());
+    // at 이 없으면 현재 잔액, 있으면 그 시점의 잔액 (스냅샷 + 이후 거래)
+    @ReplicaRead(key = ConsistencyKey.ACCOUNT)
+    @Transactional(readOnly = true)
+    public AccountBalance selectBalance(@ShardKey String accountNumber, LocalDateTime at) {
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+        if (at == null) {
+            return new AccountBalance(accountNumber, balanceLedger.isEnabled()
+                    ? accountRepository.findCurrentBalance(account.getId())
+                    : account.getBalance(), LocalDateTime.now());
+        }
+        if (account.getOpeningBalance() == null) {
+            throw new AccountException(BALANCE_HISTORY_NOT_AVAILABLE);
+        }
+        return new AccountBalance(accountNumber, balanceLedger.getBalanceAt(account, at), at);
     }
 
     private AccountUser getAccountUser(Long userId) {
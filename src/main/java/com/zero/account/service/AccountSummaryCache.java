@@ -0,0 +1,198 @@
+package com.zero.account.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zero.account.dto.AccountInfo;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RScript;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// 사용자별 계좌 목록(번호, 잔액) 캐시 : JVM 안의 near cache + Redis, 무효화는 pub/sub 으로 모든 노드에 전달
+// pub/sub 메시지는 유실될 수 있으므로 near cache 는 local-ttl-millis 가 지나면 Redis 에서 다시 읽는다
+@Slf4j
+@Component
+public class AccountSummaryCache {
+
+    private static final String INVALIDATION_TOPIC = "ACSM : invalidation";
+    private static final TypeReference<List<AccountInfo>> ACCOUNT_INFOS = new TypeReference<>() {
+    };
+
+    // 무효화 이후에 읽기 시작한 요청만 저장할 수 있도록 generation 이 같을 때만 저장
+    private static final String PUT_SCRIPT =
+            "if (redis.call('HGET', KEYS[1], 'generation') or '0') ~= ARGV[1] then return 0 end " +
+            "redis.call('HSET', KEYS[1], 'value', ARGV[2]) " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[3]) " +
+            "return 1";
+
+    private static final String EVICT_SCRIPT =
+            "redis.call('HDEL', KEYS[1], 'value') " +
+            "redis.call('HINCRBY', KEYS[1], 'generation', 1) " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[1]) " +
+            "return 1";
+
+    private final RedissonClient redissonClient;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final long ttlSeconds;
+    private final long localTtlNanos;
+    private final Map<Long, LocalEntry> localAccountInfos;
+    private final AtomicLong localGeneration = new AtomicLong();
+
+    private RTopic invalidationTopic;
+
+    public AccountSummaryCache(
+            RedissonClient redissonClient,
+            ObjectMapper objectMapper,
+            @Value("${account.account-cache.enabled:false}") boolean enabled,
+            @Value("${account.account-cache.local-size:10000}") int localSize,
+            @Value("${account.account-cache.ttl-seconds:60}") long ttlSeconds,
+            @Value("${account.account-cache.local-ttl-millis:5000}") long localTtlMillis) {
+        this.redissonClient = redissonClient;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.ttlSeconds = ttlSeconds;
+        this.localTtlNanos = TimeUnit.MILLISECONDS.toNanos(localTtlMillis);
+        this.localAccountInfos = Collections.synchronizedMap(
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Long, LocalEntry> eldest) {
+                        return size() > localSize;
+                    }
+                });
+        if (!enabled) {
+            return;
+        }
+        invalidationTopic = redissonClient.getTopic(INVALIDATION_TOPIC, StringCodec.INSTANCE);
+        invalidationTopic.addListener(String.class, (channel, userId) -> evictLocal(Long.valueOf(userId)));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<AccountInfo> get(Long userId, Supplier<List<AccountInfo>> loader) {
+        LocalEntry localEntry = localAccountInfos.get(userId);
+        if (localEntry != null && System.nanoTime() - localEntry.getCreatedAt() < localTtlNanos) {
+            return localEntry.getAccountInfos();
+        }
+
+        long generation = localGeneration.get();
+        Map<String, String> fields;
+        try {
+            fields = redissonClient.<String, String>getMap(getKey(userId), StringCodec.INSTANCE)
+                    .getAll(Set.of("value", "generation"));
+        } catch (Exception e) {
+            // Redis 장애 시에는 무효화도 전달되지 않으므로 캐시 없이 DB 에서 읽는다
+            log.warn("Failed to read account cache for userId : {}", userId, e);
+            return loader.get();
+        }
+        if (fields.get("value") != null) {
+            List<AccountInfo> accountInfos = readValue(fields.get("value"));
+            putLocal(userId, accountInfos, generation);
+            return accountInfos;
+        }
+
+        List<AccountInfo> accountInfos = loader.get();
+        try {
+            redissonClient.getScript(StringCodec.INSTANCE).eval(
+                    RScript.Mode.READ_WRITE,
+                    PUT_SCRIPT,
+                    RScript.ReturnType.INTEGER,
+                    Collections.singletonList(getKey(userId)),
+                    fields.getOrDefault("generation", "0"),
+                    writeValue(accountInfos),
+                    String.valueOf(ttlSeconds));
+        } catch (Exception e) {
+            log.warn("Failed to store account cache for userId : {}", userId, e);
+            return accountInfos;
+        }
+        putLocal(userId, accountInfos, generation);
+        return accountInfos;
+    }
+
+    // 잔액을 바꾼 트랜잭션이 커밋된 뒤에 무효화 (롤백되면 그대로 둔다)
+    public void evictAfterCommit(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(userId);
+            }
+        });
+    }
+
+    public void evict(Long userId) {
+        evictLocal(userId);
+        try {
+            redissonClient.getScript(StringCodec.INSTANCE).eval(
+                    RScript.Mode.READ_WRITE,
+                    EVICT_SCRIPT,
+                    RScript.ReturnType.INTEGER,
+                    Collections.singletonList(getKey(userId)),
+                    String.valueOf(ttlSeconds));
+            invalidationTopic.publish(String.valueOf(userId));
+        } catch (Exception e) {
+            log.error("Failed to invalidate account cache for userId : {}", userId, e);
+        }
+    }
+
+    private void evictLocal(Long userId) {
+        localGeneration.incrementAndGet();
+        localAccountInfos.remove(userId);
+    }
+
+    private void putLocal(Long userId, List<AccountInfo> accountInfos, long generation) {
+        synchronized (localAccountInfos) {
+            if (localGeneration.get() == generation) {
+                localAccountInfos.put(userId, new LocalEntry(accountInfos, System.nanoTime()));
+            }
+        }
+    }
+
+    private List<AccountInfo> readValue(String value) {
+        try {
+            return objectMapper.readValue(value, ACCOUNT_INFOS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String writeValue(List<AccountInfo> accountInfos) {
+        try {
+            return objectMapper.writeValueAsString(accountInfos);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String getKey(Long userId) {
+        return "ACSM : " + userId;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class LocalEntry {
+        private final List<AccountInfo> accountInfos;
+        private final long createdAt;
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.zero.account.service;
+
+import com.zero.account.domain.Account;
+import com.zero.account.domain.BalanceSnapshot;
+import com.zero.account.repository.AccountRepository;
+import com.zero.account.repository.BalanceSnapshotRepository;
+import com.zero.account.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+
+// ledger 모드 : 거래 내역이 원본이고 Account.balance 는 snapshotTransactionId 까지 반영한 스냅샷
+// 결제/취소는 거래 내역 insert 만 하므로 account row 를 갱신하지 않는다 (잔액 확인은 계좌 lock 안에서)
+@Slf4j
+@Service
+public class BalanceLedger {
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
+    private final boolean enabled;
+
+    public BalanceLedger(
+            AccountRepository accountRepository,
+            TransactionRepository transactionRepository,
+            BalanceSnapshotRepository balanceSnapshotRepository,
+            @Value("${account.balance-ledger.enabled:false}") boolean enabled,
+            @Value("${account.transaction.atomic-debit:false}") boolean atomicDebit,
+            @Value("${account.transaction.journal.enabled:false}") boolean journalEnabled,
+            @Value("${account.lock.optimistic.endpoints:}") Set<String> optimisticEndpoints,
+            @Value("${account.transaction.sequencer.enabled:false}") boolean sequencerEnabled) {
+        // atomic-debit 은 lock 없이 account row 를 갱신하고, journal 은 거래 내역 저장을 미루므로 같이 쓸 수 없다
+        if (enabled && (atomicDebit || journalEnabled)) {
+            throw new IllegalStateException(
+                    "account.balance-ledger cannot be combined with atomic-debit or the transaction journal");
+        }
+        // ledger 모드는 account row(@Version) 를 갱신하지 않으므로 잔액 확인과 insert 사이를 계좌 lock 으로만 지킬 수 있다
+        // (optimistic 은 충돌을 감지하지 못하고, sequencer 는 JVM 안에서만 직렬화한다)
+        if (enabled && (!optimisticEndpoints.isEmpty() || sequencerEnabled)) {
+            throw new IllegalStateException(
+                    "account.balance-ledger cannot be combined with optimistic endpoints or the transaction sequencer");
+        }
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.balanceSnapshotRepository = balanceSnapshotRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // 기존 방식으로 쌓인 잔액은 지금까지의 거래를 모두 반영한 값이므로 첫 거래 전에 스냅샷 위치를 정한다
+    // (계좌 lock 안에서 잔액을 바꾸는 거래 내역을 쓰기 전에 호출)
+    public void ensureSnapshot(Account account) {
+        if (account.getSnapshotTransactionId() != null) {
+            return;
+        }
+        Long snapshotTransactionId = transactionRepository.findMaxIdByAccountId(account.getId());
+        accountRepository.initializeSnapshot(account.getId(), snapshotTransactionId);
+    }
+
+    // 거래 전 잔액 확인용 (조회만 할 때는 AccountRepository.findCurrentBalance)
+    public long getCurrentBalance(Account account) {
+        ensureSnapshot(account);
+        return accountRepository.findCurrentBalance(account.getId());
+    }
+
+    // 과거 시점 잔액 : 그 시점 이전의 마지막 스냅샷(없으면 개설 잔액) + 이후 거래
+    public long getBalanceAt(Account account, LocalDateTime at) {
+        Optional<BalanceSnapshot> balanceSnapshot = balanceSnapshotRepository
+                .findFirstByAccountIdAndSnapshotAtLessThanEqualOrderBySnapshotAtDesc(account.getId(), at);
+        long balance = balanceSnapshot.map(BalanceSnapshot::getBalance)
+                .orElse(account.getOpeningBalance());
+        long afterId = balanceSnapshot.map(BalanceSnapshot::getLastTransactionId)
+                .orElse(0L);
+        return balance + transactionRepository.sumBalanceDeltaUntil(account.getId(), afterId, at);
+    }
+
+    // before 이전에 만들어진 거래까지 스냅샷에 접는다 (아직 커밋되지 않은 거래를 건너뛰지 않도록 최근 거래는 남긴다)
+    @Transactional
+    public boolean compact(Long accountId, LocalDateTime before) {
+        Account account = accountRepository.findById(accountId).orElse(null);
+        if (account == null || account.getSnapshotTransactionId() == null) {
+            return false;
+        }
+        Long previousSnapshotTransactionId = account.getSnapshotTransactionId();
+        Long snapshotTransactionId = transactionRepository.findMaxIdCreatedBefore(
+                accountId, previousSnapshotTransactionId, before);
+        if (snapshotTransactionId == null) {
+            return false;
+        }
+        Long balanceDelta = transactionRepository.sumBalanceDelta(
+                accountId, previousSnapshotTransactionId, snapshotTransactionId);
+        if (accountRepository.foldSnapshot(accountId, previousSnapshotTransactionId,
+                snapshotTransactionId, balanceDelta) == 0) {
+            return false;
+        }
+        balanceSnapshotRepository.save(BalanceSnapshot.builder()
+                .accountId(accountId)
+                .balance(account.getBalance() + balanceDelta)
+                .lastTransactionId(snapshotTransactionId)
+                .snapshotAt(transactionRepository.findCreatedAtById(snapshotTransactionId))
+                .build());
+        log.debug("Compacted accountId : {} up to transactionId : {}", accountId, snapshotTransactionId);
+        return true;
+    }
+
+}
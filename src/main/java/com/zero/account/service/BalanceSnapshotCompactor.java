@@ -0,0 +1,111 @@
+package com.zero.account.service;
+
+import com.zero.account.repository.AccountRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// ledger 모드에서 스냅샷 이후 거래가 쌓인 계좌를 id 순서로 돌면서 스냅샷에 접는다
+@Slf4j
+@Component
+public class BalanceSnapshotCompactor {
+
+    private final BalanceLedger balanceLedger;
+    private final AccountRepository accountRepository;
+    private final ShardRouter shardRouter;
+    private final int batchSize;
+    private final long minTailSize;
+    private final long lagSeconds;
+    private final long intervalMillis;
+
+    // 샤드마다 이어서 볼 위치
+    private final Long[] afterIds;
+
+    private ScheduledExecutorService scheduler;
+
+    public BalanceSnapshotCompactor(
+            BalanceLedger balanceLedger,
+            AccountRepository accountRepository,
+            ShardRouter shardRouter,
+            @Value("${account.balance-ledger.compaction.batch-size:1000}") int batchSize,
+            @Value("${account.balance-ledger.compaction.min-tail-size:100}") long minTailSize,
+            @Value("${account.balance-ledger.compaction.lag-seconds:10}") long lagSeconds,
+            @Value("${account.balance-ledger.compaction.interval-millis:60000}") long intervalMillis) {
+        this.balanceLedger = balanceLedger;
+        this.accountRepository = accountRepository;
+        this.shardRouter = shardRouter;
+        this.afterIds = new Long[shardRouter.getShardCount()];
+        Arrays.fill(afterIds, Long.MIN_VALUE);
+        this.batchSize = batchSize;
+        this.minTailSize = minTailSize;
+        this.lagSeconds = lagSeconds;
+        this.intervalMillis = intervalMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!balanceLedger.isEnabled()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "balance-snapshot-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::compact, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // 샤드마다 한 번에 batchSize 개 계좌만 확인하고 다음 실행은 이어서 (끝까지 가면 처음부터)
+    public synchronized int compact() {
+        int compacted = 0;
+        for (int shard = 0; shard < afterIds.length; shard++) {
+            int compactShard = shard;
+            compacted += shardRouter.execute(shard, () -> compact(compactShard));
+        }
+        return compacted;
+    }
+
+    private int compact(int shard) {
+        try {
+            List<Long> accountIds = accountRepository.findSnapshotAccountIdsAfter(
+                    afterIds[shard], PageRequest.of(0, batchSize));
+            afterIds[shard] = accountIds.size() < batchSize
+                    ? Long.MIN_VALUE
+                    : accountIds.get(accountIds.size() - 1);
+            if (accountIds.isEmpty()) {
+                return 0;
+            }
+            LocalDateTime before = LocalDateTime.now().minusSeconds(lagSeconds);
+            int compacted = 0;
+            for (Long accountId : accountRepository.findAccountIdsWithTail(accountIds, minTailSize)) {
+                if (balanceLedger.compact(accountId, before)) {
+                    compacted++;
+                }
+            }
+            log.debug("Compacted {} of {} accounts", compacted, accountIds.size());
+            return compacted;
+        } catch (Exception e) {
+            log.error("Balance snapshot compaction failed", e);
+            return 0;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+}
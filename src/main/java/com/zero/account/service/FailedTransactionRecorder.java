@@ -0,0 +1,122 @@
+package com.zero.account.service;
+
+import com.zero.account.dto.FailedTransaction;
+import com.zero.account.type.OverflowPolicy;
+import com.zero.account.type.TransactionStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+// 실패 거래 기록을 요청 스레드(lock 을 잡고 있는)에서 분리해서 모아서 저장
+@Slf4j
+@Component
+public class FailedTransactionRecorder {
+
+    private final TransactionService transactionService;
+    private final ShardRouter shardRouter;
+    private final boolean enabled;
+    private final OverflowPolicy overflowPolicy;
+    private final int batchSize;
+    private final BlockingQueue<FailedTransaction> queue;
+    private final Counter droppedCounter;
+
+    private ScheduledExecutorService scheduler;
+
+    public FailedTransactionRecorder(
+            TransactionService transactionService,
+            ShardRouter shardRouter,
+            MeterRegistry meterRegistry,
+            @Value("${account.transaction.failure-recorder.enabled:false}") boolean enabled,
+            @Value("${account.transaction.failure-recorder.queue-capacity:10000}") int queueCapacity,
+            @Value("${account.transaction.failure-recorder.overflow-policy:CALLER_RUNS}") OverflowPolicy overflowPolicy,
+            @Value("${account.transaction.failure-recorder.batch-size:500}") int batchSize,
+            @Value("${account.transaction.failure-recorder.interval-millis:200}") long intervalMillis) {
+        this.transactionService = transactionService;
+        this.shardRouter = shardRouter;
+        this.enabled = enabled;
+        this.overflowPolicy = overflowPolicy;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.droppedCounter = meterRegistry.counter("account.transaction.failures.dropped");
+        meterRegistry.gaugeCollectionSize("account.transaction.failures.queued", Tags.empty(), queue);
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "failed-transaction-recorder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void record(String accountNumber, Long transactionAmount, TransactionStatus transactionStatus) {
+        if (!enabled) {
+            transactionService.createFailedTransaction(accountNumber, transactionAmount, transactionStatus);
+            return;
+        }
+        if (queue.offer(new FailedTransaction(accountNumber, transactionStatus, transactionAmount))) {
+            return;
+        }
+        // 큐가 가득 찼을 때 : 요청 스레드에서 바로 저장하거나 버린다
+        if (overflowPolicy == OverflowPolicy.CALLER_RUNS) {
+            transactionService.createFailedTransaction(accountNumber, transactionAmount, transactionStatus);
+            return;
+        }
+        droppedCounter.increment();
+        log.warn("Failed transaction queue is full, dropped accountNumber : {}", accountNumber);
+    }
+
+    public synchronized void flush() {
+        List<FailedTransaction> failedTransactions = new ArrayList<>(batchSize);
+        while (queue.drainTo(failedTransactions, batchSize) > 0) {
+            // 샤딩 모드에서는 샤드마다 따로 저장한다
+            shardRouter.groupByShard(failedTransactions, FailedTransaction::getAccountNumber)
+                    .forEach((shard, shardTransactions) -> {
+                        try {
+                            shardRouter.execute(shard,
+                                    () -> transactionService.createFailedTransactions(shardTransactions));
+                            log.debug("Recorded {} failed transactions", shardTransactions.size());
+                        } catch (Exception e) {
+                            log.error("Failed to record {} failed transactions, retrying one by one",
+                                    shardTransactions.size(), e);
+                            recordOneByOne(shard, shardTransactions);
+                        }
+                    });
+            failedTransactions = new ArrayList<>(batchSize);
+        }
+    }
+
+    // 한 건 때문에 batch 전체가 롤백된 경우 : 나머지는 저장하고 저장할 수 없는 건만 버린다
+    private void recordOneByOne(int shard, List<FailedTransaction> failedTransactions) {
+        for (FailedTransaction failedTransaction : failedTransactions) {
+            try {
+                shardRouter.execute(shard, () -> transactionService.createFailedTransaction(
+                        failedTransaction.getAccountNumber(),
+                        failedTransaction.getTransactionAmount(),
+                        failedTransaction.getTransactionStatus()));
+            } catch (Exception e) {
+                droppedCounter.increment();
+                log.error("Failed to record failed transaction : {}", failedTransaction, e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        flush();
+    }
+
+}
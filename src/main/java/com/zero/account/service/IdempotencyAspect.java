@@ -0,0 +1,211 @@
+package com.zero.account.service;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zero.account.aop.AccountLockIdInterface;
+import com.zero.account.aop.Idempotent;
+import com.zero.account.dto.IdempotentResult;
+import com.zero.account.exception.AccountException;
+import com.zero.account.type.ErrorCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static com.zero.account.type.ErrorCode.*;
+
+// @AccountLock 보다 먼저 실행되어 재요청은 lock 과 DB 를 거치지 않는다
+@Aspect
+@Component
+@Slf4j
+@Order(0)
+@RequiredArgsConstructor
+public class IdempotencyAspect {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    // 다시 시도하면 결과가 달라질 수 있는 실패는 저장하지 않는다
+    private static final Set<ErrorCode> RETRYABLE_ERRORS = EnumSet.of(
+            ACCOUNT_TRANSACTION_LOCK, INTERNAL_SERVER_ERROR, IDEMPOTENT_REQUEST_IN_PROGRESS);
+
+    private final IdempotencyCache idempotencyCache;
+    private final ObjectMapper objectMapper;
+
+    private final ConcurrentMap<String, InFlight> inFlights = new ConcurrentHashMap<>();
+
+    @Around("@annotation(idempotent) && args(request)")
+    public Object aroundMethod(
+            ProceedingJoinPoint pjp,
+            Idempotent idempotent,
+            AccountLockIdInterface request
+    ) throws Throwable {
+        String idempotencyKey = getIdempotencyKey();
+        if (idempotencyKey == null) {
+            return pjp.proceed();
+        }
+
+        MethodSignature signature = (MethodSignature) pjp.getSignature();
+        String key = signature.getName() + " : " + request.getAccountNumber() + " : " + idempotencyKey;
+        boolean async = CompletionStage.class.isAssignableFrom(signature.getReturnType());
+        String requestHash = hash(request);
+
+        Optional<IdempotentResult> cachedResult = idempotencyCache.get(key);
+        if (cachedResult.isPresent()) {
+            return toReturnValue(toFuture(cachedResult.get(), requestHash, signature.getMethod()), async);
+        }
+
+        // 같은 키로 동시에 들어온 요청은 먼저 들어온 요청의 결과를 같이 받는다
+        CompletableFuture<Object> execution = new CompletableFuture<>();
+        InFlight inFlight = inFlights.putIfAbsent(key, new InFlight(requestHash, execution));
+        if (inFlight != null) {
+            if (!inFlight.getRequestHash().equals(requestHash)) {
+                return toReturnValue(CompletableFuture.failedFuture(
+                        new AccountException(IDEMPOTENCY_KEY_REUSED)), async);
+            }
+            return toReturnValue(inFlight.getExecution(), async);
+        }
+
+        if (!idempotencyCache.markInProgress(key)) {
+            CompletableFuture<Object> storedResult = idempotencyCache.get(key)
+                    .map(result -> toFuture(result, requestHash, signature.getMethod()))
+                    .orElseGet(() -> CompletableFuture.failedFuture(
+                            new AccountException(IDEMPOTENT_REQUEST_IN_PROGRESS)));
+            storedResult.whenComplete((value, e) -> complete(key, execution, value, e));
+            return toReturnValue(storedResult, async);
+        }
+
+        Object result;
+        try {
+            result = pjp.proceed();
+        } catch (Throwable e) {
+            finish(key, requestHash, execution, null, e);
+            throw e;
+        }
+        if (result instanceof CompletionStage) {
+            ((CompletionStage<?>) result).whenComplete(
+                    (value, e) -> finish(key, requestHash, execution, value, unwrap(e)));
+        } else {
+            finish(key, requestHash, execution, result, null);
+        }
+        return result;
+    }
+
+    private void finish(
+            String key, String requestHash, CompletableFuture<Object> execution, Object value, Throwable error) {
+        try {
+            if (error == null) {
+                idempotencyCache.put(key, new IdempotentResult(
+                        objectMapper.writeValueAsString(value), null, requestHash));
+            } else if (error instanceof AccountException
+                    && !RETRYABLE_ERRORS.contains(((AccountException) error).getErrorCode())) {
+                idempotencyCache.put(key, new IdempotentResult(
+                        null, ((AccountException) error).getErrorCode(), requestHash));
+            } else {
+                idempotencyCache.remove(key);
+            }
+        } catch (Exception e) {
+            log.error("Failed to store idempotent result : {}", key, e);
+        } finally {
+            complete(key, execution, value, error);
+        }
+    }
+
+    private void complete(String key, CompletableFuture<Object> execution, Object value, Throwable error) {
+        inFlights.computeIfPresent(key, (k, inFlight) -> inFlight.getExecution() == execution ? null : inFlight);
+        if (error == null) {
+            execution.complete(value);
+        } else {
+            execution.completeExceptionally(unwrap(error));
+        }
+    }
+
+    // hash 가 없는 결과는 hash 를 저장하기 전에 만들어진 것이므로 그대로 응답한다
+    private CompletableFuture<Object> toFuture(IdempotentResult result, String requestHash, Method method) {
+        if (result.getRequestHash() != null && !result.getRequestHash().equals(requestHash)) {
+            return CompletableFuture.failedFuture(new AccountException(IDEMPOTENCY_KEY_REUSED));
+        }
+        if (result.getErrorCode() != null) {
+            return CompletableFuture.failedFuture(new AccountException(result.getErrorCode()));
+        }
+        try {
+            return CompletableFuture.completedFuture(
+                    objectMapper.readValue(result.getResponse(), getResponseType(method)));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private Object toReturnValue(CompletableFuture<Object> future, boolean async) throws Throwable {
+        if (async) {
+            return future;
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause();
+        }
+    }
+
+    private JavaType getResponseType(Method method) {
+        ResolvableType returnType = ResolvableType.forMethodReturnType(method);
+        if (CompletionStage.class.isAssignableFrom(returnType.toClass())) {
+            returnType = returnType.as(CompletionStage.class).getGeneric(0);
+        }
+        return objectMapper.constructType(returnType.toClass());
+    }
+
+    private Throwable unwrap(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            return error.getCause();
+        }
+        return error;
+    }
+
+    private String hash(AccountLockIdInterface request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String getIdempotencyKey() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes)) {
+            return null;
+        }
+        String idempotencyKey = ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes())
+                .getRequest()
+                .getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return null;
+        }
+        return idempotencyKey;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class InFlight {
+        private final String requestHash;
+        private final CompletableFuture<Object> execution;
+    }
+
+}
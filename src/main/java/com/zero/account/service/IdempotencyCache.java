@@ -0,0 +1,104 @@
+package com.zero.account.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zero.account.dto.IdempotentResult;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// JVM 안의 LRU 를 먼저 보고, 없으면 다른 노드가 저장했을 수 있는 Redis 를 본다
+@Slf4j
+@Component
+public class IdempotencyCache {
+
+    private static final String IN_PROGRESS = "IN_PROGRESS";
+
+    private final RedissonClient redissonClient;
+    private final ObjectMapper objectMapper;
+    private final long ttlSeconds;
+    private final long inProgressTtlSeconds;
+    private final Map<String, IdempotentResult> localResults;
+
+    public IdempotencyCache(
+            RedissonClient redissonClient,
+            ObjectMapper objectMapper,
+            @Value("${account.idempotency.local-size:10000}") int localSize,
+            @Value("${account.idempotency.ttl-seconds:86400}") long ttlSeconds,
+            @Value("${account.idempotency.in-progress-ttl-seconds:30}") long inProgressTtlSeconds) {
+        this.redissonClient = redissonClient;
+        this.objectMapper = objectMapper;
+        this.ttlSeconds = ttlSeconds;
+        this.inProgressTtlSeconds = inProgressTtlSeconds;
+        this.localResults = Collections.synchronizedMap(
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, IdempotentResult> eldest) {
+                        return size() > localSize;
+                    }
+                });
+    }
+
+    public Optional<IdempotentResult> get(String key) {
+        IdempotentResult localResult = localResults.get(key);
+        if (localResult != null) {
+            return Optional.of(localResult);
+        }
+        try {
+            String value = getBucket(key).get();
+            if (value == null || IN_PROGRESS.equals(value)) {
+                return Optional.empty();
+            }
+            IdempotentResult result = objectMapper.readValue(value, IdempotentResult.class);
+            localResults.put(key, result);
+            return Optional.of(result);
+        } catch (Exception e) {
+            log.warn("Failed to read idempotent result : {}", key, e);
+            return Optional.empty();
+        }
+    }
+
+    // 다른 노드에서 같은 키를 처리 중이면 false (Redis 장애 시에는 JVM 안에서만 중복을 막는다)
+    public boolean markInProgress(String key) {
+        try {
+            return getBucket(key).trySet(IN_PROGRESS, inProgressTtlSeconds, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.warn("Failed to mark idempotency key : {}", key, e);
+            return true;
+        }
+    }
+
+    public void put(String key, IdempotentResult result) {
+        localResults.put(key, result);
+        try {
+            getBucket(key).set(objectMapper.writeValueAsString(result), ttlSeconds, TimeUnit.SECONDS);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        } catch (Exception e) {
+            log.warn("Failed to store idempotent result : {}", key, e);
+        }
+    }
+
+    public void remove(String key) {
+        localResults.remove(key);
+        try {
+            getBucket(key).delete();
+        } catch (Exception e) {
+            log.warn("Failed to remove idempotency key : {}", key, e);
+        }
+    }
+
+    private RBucket<String> getBucket(String key) {
+        return redissonClient.getBucket("ACID : " + key, StringCodec.INSTANCE);
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.zero.account.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+@RequiredArgsConstructor
+public class LocalAccountLock {
+
+    // Redis lock 의 owner 로 사용하는 값 (스레드가 바뀌어도 같은 owner 로 해제 가능)
+    @Getter
+    private final long ownerId;
+    private final ReentrantLock lock = new ReentrantLock(true);
+
+    private int referenceCount;
+    private volatile boolean redisHeld;
+    private volatile long redisAcquiredAt;
+    private volatile long redisLeaseMillis;
+    private volatile int handOffCount;
+
+    public boolean tryLock(long waitTime, TimeUnit unit) throws InterruptedException {
+        return lock.tryLock(waitTime, unit);
+    }
+
+    public void unlock() {
+        lock.unlock();
+    }
+
+    public boolean isHeldByCurrentThread() {
+        return lock.isHeldByCurrentThread();
+    }
+
+    public boolean hasWaiters() {
+        return lock.hasQueuedThreads();
+    }
+
+    public boolean isRedisHeld() {
+        return redisHeld;
+    }
+
+    public void markRedisAcquired(long leaseMillis) {
+        this.redisHeld = true;
+        this.redisAcquiredAt = System.currentTimeMillis();
+        this.redisLeaseMillis = leaseMillis;
+        this.handOffCount = 0;
+    }
+
+    public void markRedisReleased() {
+        this.redisHeld = false;
+    }
+
+    // lease 만료 전에 다음 대기자가 끝낼 수 있을 때만 Redis lock 을 넘겨준다 (lease 의 1/3 이내)
+    public boolean canHandOff(int maxHandOffCount) {
+        return redisHeld
+                && hasWaiters()
+                && handOffCount < maxHandOffCount
+                && System.currentTimeMillis() - redisAcquiredAt < redisLeaseMillis / 3;
+    }
+
+    public void handOff() {
+        handOffCount++;
+    }
+
+    // referenceCount 는 LockService 의 ConcurrentHashMap.compute 안에서만 변경된다
+    LocalAccountLock retain() {
+        referenceCount++;
+        return this;
+    }
+
+    int release() {
+        return --referenceCount;
+    }
+
+}
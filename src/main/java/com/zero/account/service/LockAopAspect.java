@@ -1,13 +1,24 @@
 package com.zero.account.service;
 
+import com.zero.account.aop.AccountLock;
 import com.zero.account.aop.AccountLockIdInterface;
+import com.zero.account.type.LockMode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
 @Aspect
 @Component
 @Slf4j
@@ -15,14 +26,56 @@ import org.springframework.stereotype.Component;
 public class LockAopAspect {
 
     private final LockService lockService;
+    private final TransactionSequencer transactionSequencer;
+    private final RedisBalanceEngine redisBalanceEngine;
+    private final AccountLockExecutor accountLockExecutor;
+    private final LockMetrics lockMetrics;
+
+    @Value("${account.transaction.atomic-debit:false}")
+    private boolean atomicDebit;
+
+    @Value("${account.lock.async.enabled:false}")
+    private boolean asyncLock;
+
+    @Value("${account.balance-ledger.enabled:false}")
+    private boolean balanceLedger;
 
-    @Around("@annotation(com.zero.account.aop.AccountLock) && args(request)")
+    // 이 endpoint 들은 @AccountLock 의 mode 와 관계없이 OPTIMISTIC 으로 실행
+    @Value("${account.lock.optimistic.endpoints:}")
+    private Set<String> optimisticEndpoints = Collections.emptySet();
+
+    @Around("@annotation(accountLock) && args(request)")
     public Object aroundMethod(
             ProceedingJoinPoint pjp,
+            AccountLock accountLock,
             AccountLockIdInterface request
     ) throws Throwable {
+        // 계좌별로 노드가 고정되어 있으면 파티션 워커가 계좌별로 직렬 실행하므로 lock 이 필요 없다
+        if (transactionSequencer.isLockFree()) {
+            return pjp.proceed();
+        }
+        if (atomicDebit && accountLock.lockFreeOnAtomicDebit()) {
+            return pjp.proceed();
+        }
+        // 핫 계좌는 Lua 스크립트가 Redis 안에서 원자적으로 잔액을 바꾼다
+        if (redisBalanceEngine.isHotAccount(request.getAccountNumber())) {
+            return pjp.proceed();
+        }
+        // Redis lock 없이 실행하고, @Version 충돌은 @OptimisticRetry 가 서비스 호출만 다시 실행한다
+        if (getMode(accountLock) == LockMode.OPTIMISTIC) {
+            return pjp.proceed();
+        }
+
+        // sequencer 는 파티션 작업의 future 를 돌려주므로 그 future 가 끝날 때 lock 을 푼다
+        if ((asyncLock || transactionSequencer.isEnabled()) && returnsCompletionStage(pjp)) {
+            return aroundAsync(pjp, accountLock, request.getAccountNumber());
+        }
+
         // lock 취득 시도
-        lockService.lock(request.getAccountNumber());
+        lockService.lock(
+                request.getAccountNumber(),
+                accountLock.tryLockTime(),
+                accountLock.leaseTime());
         try {
             return pjp.proceed();
         } finally {
@@ -31,4 +84,49 @@ public class LockAopAspect {
         }
     }
 
+    // lock 대기와 해제 모두 Redisson 비동기 API 로 처리해서 요청 스레드가 대기하지 않는다
+    private CompletableFuture<Object> aroundAsync(
+            ProceedingJoinPoint pjp, AccountLock accountLock, String accountNumber) {
+        // 요청 범위 값은 executor 스레드에서 읽을 수 없으므로 넘기기 전에 읽어 둔다
+        String endpoint = lockMetrics.currentEndpoint();
+        return lockService.lockAsync(accountNumber, endpoint, accountLock.tryLockTime(), accountLock.leaseTime())
+                .thenComposeAsync(ownerId -> proceedAsync(pjp)
+                                .handle((result, e) -> lockService.unlockAsync(accountNumber, endpoint, ownerId)
+                                        .thenApply(ignored -> {
+                                            if (e != null) {
+                                                throw e instanceof CompletionException
+                                                        ? (CompletionException) e
+                                                        : new CompletionException(e);
+                                            }
+                                            return result;
+                                        }))
+                                .thenCompose(Function.identity()),
+                        accountLockExecutor.getExecutor());
+    }
+
+    @SuppressWarnings("unchecked")
+    private CompletableFuture<Object> proceedAsync(ProceedingJoinPoint pjp) {
+        try {
+            return ((CompletionStage<Object>) pjp.proceed()).toCompletableFuture();
+        } catch (Throwable e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // ledger 모드는 @Version 을 올리지 않아 충돌을 감지할 수 없으므로 항상 lock 을 잡는다
+    private LockMode getMode(AccountLock accountLock) {
+        if (balanceLedger) {
+            return LockMode.PESSIMISTIC;
+        }
+        return optimisticEndpoints.contains(lockMetrics.currentEndpoint())
+                ? LockMode.OPTIMISTIC
+                : accountLock.mode();
+    }
+
+    private boolean returnsCompletionStage(ProceedingJoinPoint pjp) {
+        return pjp.getSignature() instanceof MethodSignature
+                && CompletionStage.class.isAssignableFrom(
+                ((MethodSignature) pjp.getSignature()).getReturnType());
+    }
+
 }
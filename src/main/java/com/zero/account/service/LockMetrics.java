@@ -0,0 +1,112 @@
+package com.zero.account.service;
+
+import com.zero.account.dto.AccountLockInfo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class LockMetrics {
+
+    private static final String NO_ENDPOINT = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, HeldLock> heldLocks = new ConcurrentHashMap<>();
+
+    public void recordAcquired(String accountNumber, String endpoint, long waitNanos) {
+        waitTimer(endpoint, "acquired").record(waitNanos, TimeUnit.NANOSECONDS);
+        heldLocks.put(accountNumber, new HeldLock(endpoint, System.currentTimeMillis(), System.nanoTime()));
+    }
+
+    public void recordLockFailure(String endpoint, long waitNanos) {
+        waitTimer(endpoint, "failed").record(waitNanos, TimeUnit.NANOSECONDS);
+        counter("account.lock.failures", endpoint).increment();
+    }
+
+    // Redis 오류 시 요청은 lock 없이 진행되므로 따로 집계한다
+    public void recordRedisError(String endpoint) {
+        counter("account.lock.redis.errors", endpoint).increment();
+    }
+
+    public void recordUnlockFailure(String endpoint) {
+        counter("account.lock.unlock.failures", endpoint).increment();
+    }
+
+    public void recordReleased(String accountNumber) {
+        HeldLock heldLock = heldLocks.remove(accountNumber);
+        if (heldLock == null) {
+            return;
+        }
+        Timer.builder("account.lock.hold")
+                .tag("endpoint", heldLock.endpoint)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - heldLock.acquiredNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public List<AccountLockInfo> getHeldLocks() {
+        long now = System.currentTimeMillis();
+        return heldLocks.entrySet().stream()
+                .map(entry -> AccountLockInfo.builder()
+                        .accountNumber(entry.getKey())
+                        .endpoint(entry.getValue().endpoint)
+                        .acquiredAt(LocalDateTime.ofInstant(
+                                Instant.ofEpochMilli(entry.getValue().acquiredAt), ZoneId.systemDefault()))
+                        .ageMillis(now - entry.getValue().acquiredAt)
+                        .build())
+                .sorted(Comparator.comparing(AccountLockInfo::getAgeMillis).reversed())
+                .collect(Collectors.toList());
+    }
+
+    private Timer waitTimer(String endpoint, String outcome) {
+        return Timer.builder("account.lock.wait")
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Counter counter(String name, String endpoint) {
+        return Counter.builder(name)
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+    }
+
+    // 비동기 콜백은 요청 스레드 밖에서 실행되므로 호출하는 쪽에서 미리 구해 둔다
+    public String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return NO_ENDPOINT;
+        }
+        HttpServletRequest request = ((ServletRequestAttributes) attributes).getRequest();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : request.getRequestURI();
+    }
+
+    @RequiredArgsConstructor
+    private static class HeldLock {
+        private final String endpoint;
+        private final long acquiredAt;
+        private final long acquiredNanos;
+    }
+
+}
@@ -6,40 +6,240 @@ import com.zero.account.type.ErrorCode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RLock;
+import org.redisson.api.RLockReactive;
 import org.redisson.api.RedissonClient;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class LockService {
 
+    private static final long LOCK_WAIT_MILLIS = 1000L;
+    private static final long LOCK_LEASE_MILLIS = 15000L;
+    private static final int MAX_HAND_OFF_COUNT = 32;
+
     private final RedissonClient redissonClient;
+    private final LockMetrics lockMetrics;
+
+    // 같은 노드의 요청은 메모리에서 먼저 줄을 세우고, Redis lock 은 대표 한 명만 잡는다
+    private final ConcurrentMap<String, LocalAccountLock> localLocks = new ConcurrentHashMap<>();
+    private final AtomicLong ownerSequence = new AtomicLong();
 
     public void lock(String accountNumber) {
+        lock(accountNumber, LOCK_WAIT_MILLIS, LOCK_LEASE_MILLIS);
+    }
+
+    public void lock(String accountNumber, long waitMillis, long leaseMillis) {
+        String endpoint = lockMetrics.currentEndpoint();
+        LocalAccountLock localLock = retainLocalLock(accountNumber);
+        long startedAt = System.nanoTime();
+        log.debug("Trying local lock for accountNumber : {}", accountNumber);
+        try {
+            if (!localLock.tryLock(waitMillis, TimeUnit.MILLISECONDS)) {
+                releaseLocalLock(accountNumber, localLock);
+                lockMetrics.recordLockFailure(endpoint, System.nanoTime() - startedAt);
+                log.error("Local lock acquisition failed");
+                throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            releaseLocalLock(accountNumber, localLock);
+            lockMetrics.recordLockFailure(endpoint, System.nanoTime() - startedAt);
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        }
+
+        if (localLock.isRedisHeld()) {
+            log.debug("Redis lock handed off for accountNumber : {}", accountNumber);
+            lockMetrics.recordAcquired(accountNumber, endpoint, System.nanoTime() - startedAt);
+            return;
+        }
+
         RLock lock = redissonClient.getLock(getLockKey(accountNumber));
         log.debug("Trying lock for accountNumber : {}", accountNumber);
         try {
-            boolean isLock = lock.tryLock(1, 15, TimeUnit.SECONDS);
+            long waitTime = Math.max(0L,
+                    waitMillis - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+            boolean isLock = lock.tryLockAsync(
+                    waitTime, leaseMillis, TimeUnit.MILLISECONDS, localLock.getOwnerId()).get();
             if (!isLock) {
+                localLock.unlock();
+                releaseLocalLock(accountNumber, localLock);
+                lockMetrics.recordLockFailure(endpoint, System.nanoTime() - startedAt);
                 log.error("Lock acquisition failed");
                 throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
             }
+            localLock.markRedisAcquired(leaseMillis);
         } catch (AccountException e) {
             throw e;
+        } catch (InterruptedException e) {
+            // 인터럽트 상태를 되돌리고 lock 없이 진행하지 않는다
+            Thread.currentThread().interrupt();
+            localLock.unlock();
+            releaseLocalLock(accountNumber, localLock);
+            lockMetrics.recordLockFailure(endpoint, System.nanoTime() - startedAt);
+            log.error("Lock acquisition interrupted");
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
         } catch (Exception e) {
-
+            lockMetrics.recordRedisError(endpoint);
             log.error("Redis lock failed", e);
         }
+        lockMetrics.recordAcquired(accountNumber, endpoint, System.nanoTime() - startedAt);
+    }
+
+    // 요청 스레드를 붙잡지 않는 경로: 요청마다 owner id 를 새로 발급해서 Redis lock 만 사용한다
+    // (콜백은 요청 스레드가 아닌 곳에서 실행되므로 endpoint 는 호출하는 쪽에서 미리 넘긴다)
+    public CompletableFuture<Long> lockAsync(
+            String accountNumber, String endpoint, long waitMillis, long leaseMillis) {
+        long ownerId = ownerSequence.decrementAndGet();
+        long startedAt = System.nanoTime();
+        log.debug("Trying async lock for accountNumber : {}", accountNumber);
+        return redissonClient.getLock(getLockKey(accountNumber))
+                .tryLockAsync(waitMillis, leaseMillis, TimeUnit.MILLISECONDS, ownerId)
+                .toCompletableFuture()
+                .handle((isLock, e) -> {
+                    if (e != null) {
+                        lockMetrics.recordRedisError(endpoint);
+                        log.error("Redis lock failed", e);
+                        lockMetrics.recordAcquired(accountNumber, endpoint, System.nanoTime() - startedAt);
+                        return null;
+                    }
+                    if (!isLock) {
+                        lockMetrics.recordLockFailure(endpoint, System.nanoTime() - startedAt);
+                        log.error("Lock acquisition failed");
+                        throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+                    }
+                    lockMetrics.recordAcquired(accountNumber, endpoint, System.nanoTime() - startedAt);
+                    return ownerId;
+                });
+    }
+
+    // WebFlux 경로 : RLockReactive 로 대기한다 (Redis 오류면 lockAsync 처럼 lock 없이 진행, owner id 는 비어 있음)
+    public Mono<Optional<Long>> lockReactive(
+            String accountNumber, String endpoint, long waitMillis, long leaseMillis) {
+        long ownerId = ownerSequence.decrementAndGet();
+        long startedAt = System.nanoTime();
+        log.debug("Trying reactive lock for accountNumber : {}", accountNumber);
+        return Mono.defer(() -> getReactiveLock(accountNumber)
+                        .tryLock(waitMillis, leaseMillis, TimeUnit.MILLISECONDS, ownerId))
+                .map(isLock -> {
+                    if (!isLock) {
+                        lockMetrics.recordLockFailure(endpoint, System.nanoTime() - startedAt);
+                        log.error("Lock acquisition failed");
+                        throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+                    }
+                    lockMetrics.recordAcquired(accountNumber, endpoint, System.nanoTime() - startedAt);
+                    return Optional.of(ownerId);
+                })
+                .onErrorResume(e -> !(e instanceof AccountException), e -> {
+                    lockMetrics.recordRedisError(endpoint);
+                    log.error("Redis lock failed", e);
+                    lockMetrics.recordAcquired(accountNumber, endpoint, System.nanoTime() - startedAt);
+                    return Mono.just(Optional.empty());
+                });
     }
 
+    public Mono<Void> unlockReactive(String accountNumber, String endpoint, Optional<Long> ownerId) {
+        log.debug("Reactive unlock for accountNumber : {} ", accountNumber);
+        lockMetrics.recordReleased(accountNumber);
+        if (ownerId.isEmpty()) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> getReactiveLock(accountNumber).unlock(ownerId.get()))
+                .onErrorResume(e -> {
+                    lockMetrics.recordUnlockFailure(endpoint);
+                    log.error("Redis unlock failed", e);
+                    return Mono.empty();
+                });
+    }
 
+    public CompletableFuture<Void> unlockAsync(String accountNumber, String endpoint, Long ownerId) {
+        log.debug("Async unlock for accountNumber : {} ", accountNumber);
+        lockMetrics.recordReleased(accountNumber);
+        if (ownerId == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return redissonClient.getLock(getLockKey(accountNumber))
+                .unlockAsync(ownerId)
+                .toCompletableFuture()
+                .exceptionally(e -> {
+                    lockMetrics.recordUnlockFailure(endpoint);
+                    log.error("Redis unlock failed", e);
+                    return null;
+                });
+    }
 
     public void unlock(String accountNumber) {
         log.debug("Unlock for accountNumber : {} ", accountNumber);
-        redissonClient.getLock(getLockKey(accountNumber)).unlock();
+        LocalAccountLock localLock = localLocks.get(accountNumber);
+        if (localLock == null || !localLock.isHeldByCurrentThread()) {
+            log.warn("Unlock requested without holding lock : {}", accountNumber);
+            return;
+        }
+
+        lockMetrics.recordReleased(accountNumber);
+        try {
+            if (localLock.canHandOff(MAX_HAND_OFF_COUNT)) {
+                // Redis lock 은 유지한 채로 다음 대기자에게 넘긴다
+                localLock.handOff();
+            } else if (localLock.isRedisHeld()) {
+                localLock.markRedisReleased();
+                unlockRedis(accountNumber, localLock.getOwnerId());
+            }
+        } finally {
+            localLock.unlock();
+            releaseLocalLock(accountNumber, localLock);
+        }
+    }
+
+    private LocalAccountLock retainLocalLock(String accountNumber) {
+        return localLocks.compute(accountNumber, (key, localLock) ->
+                (localLock == null
+                        ? new LocalAccountLock(ownerSequence.decrementAndGet())
+                        : localLock).retain());
+    }
+
+    private void releaseLocalLock(String accountNumber, LocalAccountLock localLock) {
+        boolean[] removed = {false};
+        localLocks.computeIfPresent(accountNumber, (key, current) -> {
+            if (current != localLock || current.release() > 0) {
+                return current;
+            }
+            removed[0] = true;
+            return null;
+        });
+
+        // 넘겨받을 대기자가 타임아웃으로 빠져나간 경우 Redis lock 이 남지 않도록 정리
+        if (removed[0] && localLock.isRedisHeld()) {
+            localLock.markRedisReleased();
+            unlockRedis(accountNumber, localLock.getOwnerId());
+        }
+    }
+
+    private void unlockRedis(String accountNumber, long ownerId) {
+        try {
+            redissonClient.getLock(getLockKey(accountNumber)).unlockAsync(ownerId).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            lockMetrics.recordUnlockFailure(lockMetrics.currentEndpoint());
+            log.error("Redis unlock interrupted", e);
+        } catch (Exception e) {
+            lockMetrics.recordUnlockFailure(lockMetrics.currentEndpoint());
+            log.error("Redis unlock failed", e);
+        }
+    }
+
+    // servlet 경로와 같은 key 를 쓰므로 두 경로의 요청이 서로 배제된다
+    private RLockReactive getReactiveLock(String accountNumber) {
+        return redissonClient.reactive().getLock(getLockKey(accountNumber));
     }
 
     private String getLockKey(String accountNumber) {
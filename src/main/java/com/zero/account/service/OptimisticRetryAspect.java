@@ -0,0 +1,29 @@
+package com.zero.account.service;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// @Transactional 보다 먼저 실행되어 충돌한 트랜잭션을 롤백한 뒤 새 트랜잭션으로 다시 실행한다
+@Aspect
+@Component
+@Order(1)
+@RequiredArgsConstructor
+public class OptimisticRetryAspect {
+
+    private final OptimisticRetryExecutor optimisticRetryExecutor;
+
+    @Around("@annotation(com.zero.account.aop.OptimisticRetry)")
+    public Object aroundMethod(ProceedingJoinPoint pjp) throws Throwable {
+        // 바깥 트랜잭션 안에서는 다시 실행해도 같은 (rollback-only) 트랜잭션이므로 바깥에 맡긴다
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return pjp.proceed();
+        }
+        return optimisticRetryExecutor.execute(pjp::proceed);
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.zero.account.service;
+
+import com.zero.account.exception.AccountException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.zero.account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+
+@Slf4j
+@Component
+public class OptimisticRetryExecutor {
+
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final long maxBackoffMillis;
+
+    public OptimisticRetryExecutor(
+            @Value("${account.lock.optimistic.max-attempts:5}") int maxAttempts,
+            @Value("${account.lock.optimistic.backoff-millis:20}") long backoffMillis,
+            @Value("${account.lock.optimistic.max-backoff-millis:500}") long maxBackoffMillis) {
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    public Object execute(RetryableCall call) throws Throwable {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return call.call();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.error("Optimistic lock retry exhausted after {} attempts", attempt);
+                    throw new AccountException(ACCOUNT_TRANSACTION_LOCK);
+                }
+                log.debug("Optimistic lock conflict, retry attempt : {}", attempt);
+                Thread.sleep(getBackoff(attempt));
+            }
+        }
+    }
+
+    // 지수 백오프에 지터를 섞어 동시에 실패한 요청들이 다시 부딪히지 않게 한다
+    private long getBackoff(int attempt) {
+        long backoff = Math.min(maxBackoffMillis, backoffMillis << Math.min(attempt - 1, 16));
+        return ThreadLocalRandom.current().nextLong(backoff / 2, backoff + 1);
+    }
+
+    @FunctionalInterface
+    public interface RetryableCall {
+        Object call() throws Throwable;
+    }
+
+}
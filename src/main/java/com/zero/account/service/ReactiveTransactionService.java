@@ -0,0 +1,200 @@
+package com.zero.account.service;
+
+import com.zero.account.domain.Account;
+import com.zero.account.domain.AccountRow;
+import com.zero.account.domain.TimeOrderedIdGenerator;
+import com.zero.account.domain.TransactionRow;
+import com.zero.account.dto.TransactionDto;
+import com.zero.account.dto.TransactionInfo;
+import com.zero.account.exception.AccountException;
+import com.zero.account.repository.ReactiveAccountRepository;
+import com.zero.account.repository.ReactiveTransactionRepository;
+import com.zero.account.type.AccountStatus;
+import com.zero.account.type.ErrorCode;
+import com.zero.account.type.TransactionResultStatus;
+import com.zero.account.type.TransactionStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import static com.zero.account.type.ErrorCode.*;
+
+// TransactionService 의 결제/취소/조회를 R2DBC 로 (lock 은 RLockReactive, 잔액 차감은 atomic-debit 과 같은 조건부 UPDATE)
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "account.reactive.enabled", havingValue = "true")
+public class ReactiveTransactionService {
+
+    // @AccountLock 기본값과 같다
+    private static final long LOCK_WAIT_MILLIS = 5000L;
+    private static final long LOCK_LEASE_MILLIS = 15000L;
+
+    private final ReactiveAccountRepository reactiveAccountRepository;
+    private final ReactiveTransactionRepository reactiveTransactionRepository;
+    private final LockService lockService;
+    private final TransactionalOperator transactionalOperator;
+    // JPA 의 TimeOrderedIdentifierGenerator 와 같은 인스턴스 (샤딩은 같이 쓸 수 없으므로 노드 구간 = node-id)
+    private final TimeOrderedIdGenerator timeOrderedIdGenerator;
+
+    public ReactiveTransactionService(
+            ReactiveAccountRepository reactiveAccountRepository,
+            ReactiveTransactionRepository reactiveTransactionRepository,
+            LockService lockService,
+            TransactionalOperator reactiveTransactionalOperator,
+            @Value("${account.id.node-id:0}") int nodeId) {
+        this.reactiveAccountRepository = reactiveAccountRepository;
+        this.reactiveTransactionRepository = reactiveTransactionRepository;
+        this.lockService = lockService;
+        this.transactionalOperator = reactiveTransactionalOperator;
+        this.timeOrderedIdGenerator = TimeOrderedIdGenerator.forNode(nodeId);
+    }
+
+    public Mono<TransactionDto> transactionUse(Long userId, String accountNumber, Long paymentAmount) {
+        return withLock(accountNumber, "/transaction/use.do", () ->
+                transactionalOperator.transactional(useBalance(userId, accountNumber, paymentAmount))
+                        .onErrorResume(AccountException.class, e -> {
+                            log.error("Failed TransactionUse");
+                            return createFailedTransaction(
+                                    accountNumber, paymentAmount, TransactionStatus.APPROVAL)
+                                    .then(Mono.error(e));
+                        }));
+    }
+
+    public Mono<TransactionDto> transactionCancel(Long transactionId, String accountNumber,
+                                                  Long cancellationAmount) {
+        return withLock(accountNumber, "/transaction/cancel.do", () ->
+                transactionalOperator.transactional(
+                                cancelBalance(transactionId, accountNumber, cancellationAmount))
+                        .onErrorResume(AccountException.class, e -> {
+                            log.error("Failed TransactionCancel");
+                            return createFailedTransaction(
+                                    accountNumber, cancellationAmount, TransactionStatus.CANCEL)
+                                    .then(Mono.error(e));
+                        }));
+    }
+
+    public Mono<TransactionInfo> selectTransaction(Long transactionId) {
+        return getTransaction(transactionId)
+                .map(transaction -> TransactionInfo.builder()
+                        .transactionId(transaction.getId())
+                        .accountNumber(transaction.getAccountNumber())
+                        .transactionStatus(transaction.getTransactionStatus())
+                        .transactionResultStatus(transaction.getTransactionResultStatus())
+                        .transactionAmount(transaction.getTransactionAmount())
+                        .registeredAt(transaction.getCreatedAt())
+                        .build());
+    }
+
+    // lock 은 트랜잭션 밖에서 잡고 커밋(또는 롤백)과 실패 기록 후에 푼다 (lock 실패는 기록하지 않는다)
+    private <T> Mono<T> withLock(String accountNumber, String endpoint, Supplier<Mono<T>> action) {
+        return Mono.usingWhen(
+                lockService.lockReactive(accountNumber, endpoint, LOCK_WAIT_MILLIS, LOCK_LEASE_MILLIS),
+                ownerId -> Mono.defer(action),
+                ownerId -> lockService.unlockReactive(accountNumber, endpoint, ownerId),
+                (ownerId, e) -> lockService.unlockReactive(accountNumber, endpoint, ownerId),
+                ownerId -> lockService.unlockReactive(accountNumber, endpoint, ownerId));
+    }
+
+    private Mono<TransactionDto> useBalance(Long userId, String accountNumber, Long paymentAmount) {
+        return Mono.defer(() -> {
+                    Account.validatePaymentAmount(paymentAmount);
+                    return reactiveAccountRepository.useBalance(
+                            accountNumber, userId, paymentAmount, AccountStatus.IN_USE);
+                })
+                .flatMap(updated -> updated == 0
+                        ? getUseBalanceFailure(userId, accountNumber)
+                        .flatMap(errorCode -> Mono.<AccountRow>error(new AccountException(errorCode)))
+                        : getAccount(accountNumber))
+                .flatMap(account -> saveGetTransaction(
+                        account, paymentAmount, TransactionResultStatus.SUCCEED, TransactionStatus.APPROVAL));
+    }
+
+    private Mono<TransactionDto> cancelBalance(Long transactionId, String accountNumber, Long cancellationAmount) {
+        return getTransaction(transactionId).flatMap(transaction -> {
+            if (!Long.valueOf(transaction.getAccountNumber()).equals(Long.valueOf(accountNumber))) {
+                return Mono.error(new AccountException(TRANSACTION_ACCOUNT_NUMBER_MIS_MATCH));
+            }
+            if (!Objects.equals(transaction.getTransactionAmount(), cancellationAmount)) {
+                return Mono.error(new AccountException(TRANSACTION_AMOUNT_MIS_MATCH));
+            }
+            return reactiveAccountRepository.addBalance(transaction.getAccountId(), cancellationAmount)
+                    .then(reactiveAccountRepository.findById(transaction.getAccountId()))
+                    .flatMap(account -> saveGetTransaction(
+                            account, cancellationAmount, TransactionResultStatus.SUCCEED, TransactionStatus.CANCEL));
+        });
+    }
+
+    // 실패한 경우에만 다시 조회해서 servlet 경로와 같은 ErrorCode 로 돌려준다
+    private Mono<ErrorCode> getUseBalanceFailure(Long userId, String accountNumber) {
+        return reactiveAccountRepository.existsAccountUserById(userId)
+                .flatMap(exists -> exists
+                        ? getAccount(accountNumber)
+                        : Mono.error(new AccountException(USER_NOT_FOUND)))
+                .map(account -> {
+                    if (!Objects.equals(userId, account.getAccountUserId())) {
+                        return USER_MIS_MATCH;
+                    }
+                    if (account.getAccountStatus() == AccountStatus.UNREGISTERED) {
+                        return CANCEL_ACCOUNT;
+                    }
+                    return INSUFFICIENT_BALANCE;
+                });
+    }
+
+    // 기록 실패는 원래 오류를 가리지 않도록 로그만 남긴다 (없는 계좌의 실패는 기존에도 기록되지 않았다)
+    private Mono<Void> createFailedTransaction(
+            String accountNumber, Long paymentAmount, TransactionStatus transactionStatus) {
+        return transactionalOperator.transactional(
+                        reactiveAccountRepository.findByAccountNumber(accountNumber)
+                                .flatMap(account -> saveGetTransaction(
+                                        account, paymentAmount, TransactionResultStatus.FAILED, transactionStatus)))
+                .onErrorResume(e -> {
+                    log.error("Failed to record failed transaction", e);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private Mono<TransactionDto> saveGetTransaction(AccountRow account,
+                                                    Long paymentAmount,
+                                                    TransactionResultStatus transactionResultStatus,
+                                                    TransactionStatus transactionStatus) {
+        LocalDateTime now = LocalDateTime.now();
+        return reactiveTransactionRepository.save(TransactionRow.builder()
+                        .id(timeOrderedIdGenerator.nextId())
+                        .accountId(account.getId())
+                        .transactionResultStatus(transactionResultStatus)
+                        .transactionStatus(transactionStatus)
+                        .transactionAmount(paymentAmount)
+                        .accountNumber(account.getAccountNumber())
+                        .createdAt(now)
+                        .updatedAt(now)
+                        .build())
+                .map(transaction -> TransactionDto.builder()
+                        .transactionId(transaction.getId())
+                        .transactionStatus(transaction.getTransactionStatus())
+                        .transactionResultStatus(transaction.getTransactionResultStatus())
+                        .transactionAmount(transaction.getTransactionAmount())
+                        .accountNumber(transaction.getAccountNumber())
+                        .createdAt(transaction.getCreatedAt())
+                        .build());
+    }
+
+    private Mono<AccountRow> getAccount(String accountNumber) {
+        return reactiveAccountRepository.findByAccountNumber(accountNumber)
+                .switchIfEmpty(Mono.error(() -> new AccountException(ACCOUNT_NOT_FOUND)));
+    }
+
+    private Mono<TransactionRow> getTransaction(Long transactionId) {
+        return reactiveTransactionRepository.findById(transactionId)
+                .switchIfEmpty(Mono.error(() -> new AccountException(TRANSACTION_NOT_FOUND)));
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.zero.account.service;
+
+import com.zero.account.type.ConsistencyKey;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBatch;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+
+// 쓰기 후 N 초 동안은 같은 사용자/계좌의 조회를 primary 로 보내기 위한 Redis 표시 (read-your-writes)
+// N 은 replica 의 최대 복제 지연보다 길어야 한다
+@Slf4j
+@Component
+public class RecentWriteTracker {
+
+    private final RedissonClient redissonClient;
+    private final boolean enabled;
+    private final long readYourWritesSeconds;
+
+    public RecentWriteTracker(
+            RedissonClient redissonClient,
+            @Value("${account.replica.enabled:false}") boolean enabled,
+            @Value("${account.replica.read-your-writes-seconds:5}") long readYourWritesSeconds) {
+        this.redissonClient = redissonClient;
+        this.enabled = enabled;
+        this.readYourWritesSeconds = readYourWritesSeconds;
+    }
+
+    // 커밋 직전에 표시 (커밋 후에 표시하면 그 사이의 조회가 replica 로 갈 수 있다)
+    public void mark(Long userId, String accountNumber) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(userId, accountNumber);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                write(userId, accountNumber);
+            }
+        });
+    }
+
+    public boolean isRecent(ConsistencyKey consistencyKey, Object key) {
+        if (!enabled || consistencyKey == ConsistencyKey.NONE || key == null) {
+            return false;
+        }
+        try {
+            return redissonClient.getBucket(getKey(consistencyKey, key), StringCodec.INSTANCE).isExists();
+        } catch (Exception e) {
+            // 확인할 수 없으면 primary 에서 조회
+            log.error("Failed to read recent write marker : {}", key, e);
+            return true;
+        }
+    }
+
+    private void write(Long userId, String accountNumber) {
+        try {
+            RBatch batch = redissonClient.createBatch();
+            batch.getBucket(getKey(ConsistencyKey.USER, userId), StringCodec.INSTANCE)
+                    .setAsync("1", readYourWritesSeconds, TimeUnit.SECONDS);
+            batch.getBucket(getKey(ConsistencyKey.ACCOUNT, accountNumber), StringCodec.INSTANCE)
+                    .setAsync("1", readYourWritesSeconds, TimeUnit.SECONDS);
+            batch.execute();
+        } catch (Exception e) {
+            log.error("Failed to mark recent write : {}, {}", userId, accountNumber, e);
+        }
+    }
+
+    private String getKey(ConsistencyKey consistencyKey, Object key) {
+        return "ARW : " + consistencyKey.name().toLowerCase() + " : " + key;
+    }
+
+}
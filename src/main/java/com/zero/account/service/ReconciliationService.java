@@ -0,0 +1,218 @@
+package com.zero.account.service;
+
+import com.zero.account.dto.ReconciliationReport;
+import com.zero.account.dto.ReconciliationRow;
+import com.zero.account.repository.AccountRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// 계좌 잔액 = 개설 잔액 - 성공한 결제 + 성공한 취소 인지 id 구간별로 나눠서 병렬로 검사
+@Slf4j
+@Component
+public class ReconciliationService {
+
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final int chunkSize;
+    // 온라인 거래가 쓸 DB 커넥션을 남겨두기 위해 동시에 검사하는 구간 수를 제한
+    private final int parallelism;
+    private final int maxReportedMismatches;
+    private final CronExpression cronExpression;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Counter checkedCounter;
+    private final Counter mismatchCounter;
+    private final Counter chunkCounter;
+    private final ExecutorService launcher;
+
+    private volatile ReconciliationReport lastReport;
+    private ScheduledExecutorService scheduler;
+
+    public ReconciliationService(
+            AccountRepository accountRepository,
+            PlatformTransactionManager transactionManager,
+            ShardRouter shardRouter,
+            MeterRegistry meterRegistry,
+            @Value("${account.reconciliation.chunk-size:1000}") int chunkSize,
+            @Value("${account.reconciliation.parallelism:2}") int parallelism,
+            @Value("${account.reconciliation.max-reported-mismatches:1000}") int maxReportedMismatches,
+            @Value("${account.reconciliation.cron:}") String cron) {
+        this.accountRepository = accountRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.shardRouter = shardRouter;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.maxReportedMismatches = maxReportedMismatches;
+        this.cronExpression = cron.isEmpty() ? null : CronExpression.parse(cron);
+        this.checkedCounter = meterRegistry.counter("account.reconciliation.accounts.checked");
+        this.mismatchCounter = meterRegistry.counter("account.reconciliation.mismatches");
+        this.chunkCounter = meterRegistry.counter("account.reconciliation.chunks.completed");
+        meterRegistry.gauge("account.reconciliation.running", running, value -> value.get() ? 1 : 0);
+        this.launcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reconciliation-launcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (cronExpression == null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reconciliation-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduleNext();
+    }
+
+    public ReconciliationReport getLastReport() {
+        return lastReport;
+    }
+
+    // 이미 실행 중이면 false
+    public boolean start() {
+        if (running.get()) {
+            return false;
+        }
+        launcher.execute(this::run);
+        return true;
+    }
+
+    public ReconciliationReport run() {
+        if (!running.compareAndSet(false, true)) {
+            return lastReport;
+        }
+        Progress progress = new Progress(LocalDateTime.now());
+        lastReport = progress.toReport(true, null);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>();
+            // 샤딩 모드에서는 샤드마다 id 구간을 나눈다 (구간은 샤드 구분 없이 같은 pool 에서 검사)
+            for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+                int chunkShard = shard;
+                Long fromId = Long.MIN_VALUE;
+                boolean lastChunk = false;
+                // 구간 경계는 id 순서로 chunkSize 번째 id (time-ordered id 처럼 값이 듬성듬성해도 구간 크기가 같다)
+                while (!lastChunk) {
+                    Long afterId = fromId;
+                    List<Long> ids = shardRouter.execute(chunkShard, () ->
+                            accountRepository.findIdsAfter(afterId, PageRequest.of(chunkSize - 1, 1)));
+                    lastChunk = ids.isEmpty();
+                    Long toId = lastChunk ? Long.MAX_VALUE : ids.get(0);
+                    tasks.add(pool.submit(() ->
+                            shardRouter.execute(chunkShard, () -> reconcileChunk(afterId, toId, progress))));
+                    fromId = toId;
+                }
+            }
+            for (ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+            lastReport = progress.toReport(false, null);
+            log.info("Reconciliation finished, checked : {}, mismatches : {}",
+                    progress.checked.get(), progress.mismatchCount.get());
+        } catch (Exception e) {
+            log.error("Reconciliation failed", e);
+            lastReport = progress.toReport(false, e.getMessage());
+        } finally {
+            pool.shutdownNow();
+            running.set(false);
+        }
+        return lastReport;
+    }
+
+    private void reconcileChunk(Long fromId, Long toId, Progress progress) {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<ReconciliationRow> rows = accountRepository.streamReconciliationRows(fromId, toId)) {
+                rows.forEach(row -> check(row, progress));
+            }
+        });
+        progress.completedChunks.incrementAndGet();
+        chunkCounter.increment();
+        lastReport = progress.toReport(true, null);
+    }
+
+    private void check(ReconciliationRow row, Progress progress) {
+        if (!row.isVerifiable()) {
+            progress.skipped.incrementAndGet();
+            return;
+        }
+        progress.checked.incrementAndGet();
+        checkedCounter.increment();
+        if (row.isMatched()) {
+            return;
+        }
+        progress.mismatchCount.incrementAndGet();
+        mismatchCounter.increment();
+        log.warn("Balance mismatch accountNumber : {}, expected : {}, balance : {}",
+                row.getAccountNumber(), row.getExpectedBalance(), row.getBalance());
+        if (progress.mismatches.size() < maxReportedMismatches) {
+            progress.mismatches.add(ReconciliationReport.Mismatch.from(row));
+        }
+    }
+
+    private void scheduleNext() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime next = cronExpression.next(now);
+        if (next == null) {
+            return;
+        }
+        scheduler.schedule(() -> {
+            run();
+            scheduleNext();
+        }, Duration.between(now, next).toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        launcher.shutdownNow();
+    }
+
+    private static class Progress {
+
+        private final LocalDateTime startedAt;
+        private final AtomicLong completedChunks = new AtomicLong();
+        private final AtomicLong checked = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private final AtomicLong mismatchCount = new AtomicLong();
+        private final List<ReconciliationReport.Mismatch> mismatches = new CopyOnWriteArrayList<>();
+
+        private Progress(LocalDateTime startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        private ReconciliationReport toReport(boolean running, String failure) {
+            return ReconciliationReport.builder()
+                    .running(running)
+                    .startedAt(startedAt)
+                    .finishedAt(running ? null : LocalDateTime.now())
+                    .completedChunks(completedChunks.get())
+                    .checkedAccounts(checked.get())
+                    .skippedAccounts(skipped.get())
+                    .mismatchCount(mismatchCount.get())
+                    .mismatches(new ArrayList<>(mismatches))
+                    .failure(failure)
+                    .build();
+        }
+    }
+
+}
@@ -0,0 +1,289 @@
+package com.zero.account.service;
+
+import com.zero.account.domain.Account;
+import com.zero.account.domain.TimeOrderedIdGenerator;
+import com.zero.account.dto.LedgerEntry;
+import com.zero.account.dto.TransactionDto;
+import com.zero.account.exception.AccountException;
+import com.zero.account.repository.AccountRepository;
+import com.zero.account.type.AccountStatus;
+import com.zero.account.type.ErrorCode;
+import com.zero.account.type.TransactionResultStatus;
+import com.zero.account.type.TransactionStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.zero.account.type.ErrorCode.*;
+
+@Slf4j
+@Service
+public class RedisBalanceEngine {
+
+    public static final String LEDGER_KEY = "ACLG";
+    private static final String LEDGER_SEQUENCE_KEY = "ACLG : sequence";
+
+    private static final long NOT_LOADED = -1L;
+
+    // 상태 확인, 잔액 확인, 차감, 원장 기록을 한 번의 스크립트로 처리
+    private static final String USE_SCRIPT =
+            "local status = redis.call('HGET', KEYS[1], 'status') " +
+            "if not status then return -1 end " +
+            "if redis.call('HGET', KEYS[1], 'userId') ~= ARGV[1] then return -2 end " +
+            "if status ~= 'IN_USE' then return -3 end " +
+            "local balance = tonumber(redis.call('HGET', KEYS[1], 'balance')) " +
+            "if balance < tonumber(ARGV[2]) then return -4 end " +
+            "redis.call('RPUSH', KEYS[2], redis.call('INCR', KEYS[3]) .. '|' .. ARGV[3]) " +
+            "return redis.call('HINCRBY', KEYS[1], 'balance', -tonumber(ARGV[2]))";
+
+    private static final String CANCEL_SCRIPT =
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end " +
+            "redis.call('RPUSH', KEYS[2], redis.call('INCR', KEYS[3]) .. '|' .. ARGV[2]) " +
+            "return redis.call('HINCRBY', KEYS[1], 'balance', tonumber(ARGV[1]))";
+
+    // Redis 잔액에서 아직 DB 에 반영되지 않은 원장을 되돌린 값 (= DB 에 있어야 할 잔액)
+    private static final String SETTLED_BALANCE_SCRIPT =
+            "local balance = redis.call('HGET', KEYS[1], 'balance') " +
+            "if not balance then return nil end " +
+            "local pending = 0 " +
+            "for _, entry in ipairs(redis.call('LRANGE', KEYS[2], 0, -1)) do " +
+            "  local _, account, status, amount = string.match(entry, '^([^|]+)|([^|]+)|([^|]+)|([^|]+)') " +
+            "  if account == ARGV[1] then " +
+            "    if status == 'APPROVAL' then pending = pending - tonumber(amount) " +
+            "    else pending = pending + tonumber(amount) end " +
+            "  end " +
+            "end " +
+            "return tonumber(balance) - pending";
+
+    // 원장 값 "순번|계좌|상태|금액|거래 id|시각" 에서 거래 id 가 같은 원장
+    private static final String FIND_ENTRY_SCRIPT =
+            "for _, entry in ipairs(redis.call('LRANGE', KEYS[1], 0, -1)) do " +
+            "  local transactionId = select(5, string.match(entry, '^([^|]+)|([^|]+)|([^|]+)|([^|]+)|([^|]+)')) " +
+            "  if transactionId == ARGV[1] then return entry end " +
+            "end " +
+            "return nil";
+
+    // Redis 데이터가 사라져 순번이 처음부터 다시 시작되면 새 원장이 이미 반영된 것으로 보이므로 반영 위치 아래로 내려가지 않게 한다
+    private static final String SEQUENCE_FLOOR_SCRIPT =
+            "if tonumber(redis.call('GET', KEYS[1]) or '0') < tonumber(ARGV[1]) then " +
+            "  redis.call('SET', KEYS[1], ARGV[1]) " +
+            "end " +
+            "return 0";
+
+    private static final String LOAD_SCRIPT =
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end " +
+            "redis.call('HMSET', KEYS[1], 'balance', ARGV[1], 'status', ARGV[2], 'userId', ARGV[3]) " +
+            "return 1";
+
+    private final RedissonClient redissonClient;
+    private final AccountRepository accountRepository;
+    private final ShardRouter shardRouter;
+    private final boolean enabled;
+    private final Set<String> hotAccounts;
+    private final int nodeId;
+
+    public RedisBalanceEngine(
+            RedissonClient redissonClient,
+            AccountRepository accountRepository,
+            ShardRouter shardRouter,
+            @Value("${account.transaction.redis-balance.enabled:false}") boolean enabled,
+            @Value("${account.transaction.redis-balance.hot-accounts:}") String hotAccounts,
+            @Value("${account.id.time-ordered.enabled:false}") boolean timeOrderedId,
+            @Value("${account.id.node-id:0}") int nodeId) {
+        // 거래 내역은 나중에 저장하지만 응답에 돌려줄 거래 id 는 원장에 넣을 때 정해야 한다
+        if (enabled && !timeOrderedId) {
+            throw new IllegalStateException(
+                    "account.transaction.redis-balance requires account.id.time-ordered.enabled");
+        }
+        this.redissonClient = redissonClient;
+        this.accountRepository = accountRepository;
+        this.shardRouter = shardRouter;
+        this.enabled = enabled;
+        this.nodeId = nodeId;
+        this.hotAccounts = Arrays.stream(hotAccounts.split(","))
+                .map(String::trim)
+                .filter(accountNumber -> !accountNumber.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isHotAccount(String accountNumber) {
+        return enabled && hotAccounts.contains(accountNumber);
+    }
+
+    public Set<String> getHotAccounts() {
+        return Collections.unmodifiableSet(hotAccounts);
+    }
+
+    public TransactionDto use(Long userId, String accountNumber, Long paymentAmount) {
+        Account.validatePaymentAmount(paymentAmount);
+        LedgerEntry ledgerEntry = newLedgerEntry(accountNumber, TransactionStatus.APPROVAL, paymentAmount);
+
+        long result = evalUse(userId, accountNumber, ledgerEntry);
+        if (result == NOT_LOADED) {
+            load(accountNumber);
+            result = evalUse(userId, accountNumber, ledgerEntry);
+        }
+        if (result < 0) {
+            throw new AccountException(getUseFailure(result));
+        }
+        return toTransactionDto(ledgerEntry);
+    }
+
+    public TransactionDto cancel(String accountNumber, Long cancellationAmount) {
+        LedgerEntry ledgerEntry = newLedgerEntry(accountNumber, TransactionStatus.CANCEL, cancellationAmount);
+
+        long result = evalCancel(accountNumber, ledgerEntry);
+        if (result == NOT_LOADED) {
+            load(accountNumber);
+            result = evalCancel(accountNumber, ledgerEntry);
+        }
+        if (result < 0) {
+            throw new AccountException(ACCOUNT_NOT_FOUND);
+        }
+        return toTransactionDto(ledgerEntry);
+    }
+
+    public Long getSettledBalance(String accountNumber) {
+        return redissonClient.getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_ONLY,
+                SETTLED_BALANCE_SCRIPT,
+                RScript.ReturnType.INTEGER,
+                Arrays.asList(getBalanceKey(accountNumber), LEDGER_KEY),
+                accountNumber);
+    }
+
+    public void updateStatus(String accountNumber, AccountStatus accountStatus) {
+        if (!isHotAccount(accountNumber)) {
+            return;
+        }
+        redissonClient.<String, String>getMap(getBalanceKey(accountNumber), StringCodec.INSTANCE)
+                .fastPutIfExists("status", accountStatus.name());
+    }
+
+    public List<LedgerEntry> readLedger(int limit) {
+        return redissonClient.<String>getList(LEDGER_KEY, StringCodec.INSTANCE)
+                .range(0, limit - 1)
+                .stream()
+                .map(LedgerEntry::parse)
+                .collect(Collectors.toList());
+    }
+
+    // 반영은 DB commit 뒤에 원장을 지우므로 원장에 없으면 DB 에 있다
+    public Optional<LedgerEntry> findPendingEntry(Long transactionId) {
+        String entry = redissonClient.getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_ONLY,
+                FIND_ENTRY_SCRIPT,
+                RScript.ReturnType.VALUE,
+                Collections.singletonList(LEDGER_KEY),
+                String.valueOf(transactionId));
+        return Optional.ofNullable(entry).map(LedgerEntry::parse);
+    }
+
+    public void ensureLedgerSequence(long appliedSequence) {
+        redissonClient.getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE,
+                SEQUENCE_FLOOR_SCRIPT,
+                RScript.ReturnType.INTEGER,
+                Collections.singletonList(LEDGER_SEQUENCE_KEY),
+                String.valueOf(appliedSequence));
+    }
+
+    public void trimLedger(int appliedCount) {
+        redissonClient.<String>getList(LEDGER_KEY, StringCodec.INSTANCE)
+                .trim(appliedCount, -1);
+    }
+
+    // 키가 없을 때만 DB 잔액으로 채운다 (키가 없으면 아직 반영 안 된 원장도 없다, ledger 모드면 스냅샷 + 이후 거래)
+    public void load(String accountNumber) {
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+        redissonClient.getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE,
+                LOAD_SCRIPT,
+                RScript.ReturnType.INTEGER,
+                Collections.singletonList(getBalanceKey(accountNumber)),
+                String.valueOf(accountRepository.findCurrentBalance(account.getId())),
+                account.getAccountStatus().name(),
+                String.valueOf(account.getAccountUser().getId()));
+        log.debug("Loaded redis balance for accountNumber : {}", accountNumber);
+    }
+
+    private long evalUse(Long userId, String accountNumber, LedgerEntry ledgerEntry) {
+        Long result = redissonClient.getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE,
+                USE_SCRIPT,
+                RScript.ReturnType.INTEGER,
+                Arrays.asList(getBalanceKey(accountNumber), LEDGER_KEY, LEDGER_SEQUENCE_KEY),
+                String.valueOf(userId),
+                String.valueOf(ledgerEntry.getTransactionAmount()),
+                ledgerEntry.serialize());
+        return result;
+    }
+
+    private long evalCancel(String accountNumber, LedgerEntry ledgerEntry) {
+        Long result = redissonClient.getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE,
+                CANCEL_SCRIPT,
+                RScript.ReturnType.INTEGER,
+                Arrays.asList(getBalanceKey(accountNumber), LEDGER_KEY, LEDGER_SEQUENCE_KEY),
+                String.valueOf(ledgerEntry.getTransactionAmount()),
+                ledgerEntry.serialize());
+        return result;
+    }
+
+    private ErrorCode getUseFailure(long result) {
+        if (result == -2L) {
+            return USER_MIS_MATCH;
+        }
+        if (result == -3L) {
+            return CANCEL_ACCOUNT;
+        }
+        if (result == -4L) {
+            return INSUFFICIENT_BALANCE;
+        }
+        return ACCOUNT_NOT_FOUND;
+    }
+
+    // 샤드를 나눈 경우 id 만 보고 계좌의 샤드를 찾을 수 있도록 계좌 샤드의 노드 구간에서 발급한다
+    private LedgerEntry newLedgerEntry(String accountNumber, TransactionStatus transactionStatus, Long amount) {
+        int node = nodeId * shardRouter.getShardCount() + shardRouter.shardOf(accountNumber);
+        return LedgerEntry.builder()
+                .accountNumber(accountNumber)
+                .transactionStatus(transactionStatus)
+                .transactionAmount(amount)
+                .transactionId(TimeOrderedIdGenerator.forNode(node).nextId())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private TransactionDto toTransactionDto(LedgerEntry ledgerEntry) {
+        return TransactionDto.builder()
+                .transactionId(ledgerEntry.getTransactionId())
+                .accountNumber(ledgerEntry.getAccountNumber())
+                .transactionStatus(ledgerEntry.getTransactionStatus())
+                .transactionResultStatus(TransactionResultStatus.SUCCEED)
+                .transactionAmount(ledgerEntry.getTransactionAmount())
+                .createdAt(ledgerEntry.getCreatedAt())
+                .build();
+    }
+
+    private String getBalanceKey(String accountNumber) {
+        return "ACBL : " + accountNumber;
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.zero.account.service;
+
+import com.zero.account.domain.Account;
+import com.zero.account.domain.JournalCheckpoint;
+import com.zero.account.dto.LedgerEntry;
+import com.zero.account.repository.AccountRepository;
+import com.zero.account.repository.JournalCheckpointRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+public class RedisLedgerWriter {
+
+    private static final String WRITER_LOCK_KEY = "ACLG : writer";
+
+    private final RedisBalanceEngine redisBalanceEngine;
+    private final TransactionService transactionService;
+    private final AccountRepository accountRepository;
+    private final BalanceLedger balanceLedger;
+    private final JournalCheckpointRepository journalCheckpointRepository;
+    private final RedissonClient redissonClient;
+    private final int batchSize;
+    private final long intervalMillis;
+
+    private ScheduledExecutorService scheduler;
+
+    public RedisLedgerWriter(
+            RedisBalanceEngine redisBalanceEngine,
+            TransactionService transactionService,
+            AccountRepository accountRepository,
+            BalanceLedger balanceLedger,
+            JournalCheckpointRepository journalCheckpointRepository,
+            RedissonClient redissonClient,
+            @Value("${account.transaction.redis-balance.batch-size:500}") int batchSize,
+            @Value("${account.transaction.redis-balance.interval-millis:200}") long intervalMillis) {
+        this.redisBalanceEngine = redisBalanceEngine;
+        this.transactionService = transactionService;
+        this.accountRepository = accountRepository;
+        this.balanceLedger = balanceLedger;
+        this.journalCheckpointRepository = journalCheckpointRepository;
+        this.redissonClient = redissonClient;
+        this.batchSize = batchSize;
+        this.intervalMillis = intervalMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!redisBalanceEngine.isEnabled()) {
+            return;
+        }
+        redisBalanceEngine.ensureLedgerSequence(journalCheckpointRepository.findById(RedisBalanceEngine.LEDGER_KEY)
+                .map(JournalCheckpoint::getAppliedSequence)
+                .orElse(0L));
+        reconcile();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "redis-ledger-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::drain, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // 여러 노드가 동시에 같은 원장을 반영하지 않도록 writer lock 을 잡은 노드만 반영
+    public void drain() {
+        RLock writerLock = redissonClient.getLock(WRITER_LOCK_KEY);
+        if (!writerLock.tryLock()) {
+            return;
+        }
+        try {
+            List<LedgerEntry> ledgerEntries;
+            do {
+                ledgerEntries = redisBalanceEngine.readLedger(batchSize);
+                if (ledgerEntries.isEmpty()) {
+                    return;
+                }
+                transactionService.applyLedgerEntries(RedisBalanceEngine.LEDGER_KEY, ledgerEntries);
+                redisBalanceEngine.trimLedger(ledgerEntries.size());
+                log.debug("Applied {} ledger entries", ledgerEntries.size());
+            } while (ledgerEntries.size() == batchSize);
+        } catch (Exception e) {
+            log.error("Ledger drain failed", e);
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    // 기동 시 Redis 잔액 - 미반영 원장 = DB 잔액 인지 확인
+    public void reconcile() {
+        RLock writerLock = redissonClient.getLock(WRITER_LOCK_KEY);
+        writerLock.lock();
+        try {
+            for (String accountNumber : redisBalanceEngine.getHotAccounts()) {
+                Long settledBalance = redisBalanceEngine.getSettledBalance(accountNumber);
+                // 아직 적재되지 않은 계좌는 첫 거래 때 DB 잔액으로 채워진다
+                if (settledBalance == null) {
+                    continue;
+                }
+                Long dbBalance = accountRepository.findByAccountNumber(accountNumber)
+                        .map(this::getDbBalance)
+                        .orElse(null);
+                if (!Objects.equals(settledBalance, dbBalance)) {
+                    log.error("Balance mismatch for accountNumber : {} (redis : {}, db : {})",
+                            accountNumber, settledBalance, dbBalance);
+                }
+            }
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    // 원장 모드에서 account.balance 는 스냅샷일 뿐이므로 이후 거래까지 더한 잔액과 비교한다
+    private Long getDbBalance(Account account) {
+        if (balanceLedger.isEnabled()) {
+            return accountRepository.findCurrentBalance(account.getId());
+        }
+        return account.getBalance();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        drain();
+    }
+
+}
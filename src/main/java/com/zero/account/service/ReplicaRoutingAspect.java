@@ -0,0 +1,78 @@
+package com.zero.account.service;
+
+import com.zero.account.aop.ReplicaRead;
+import com.zero.account.config.ReplicaContext;
+import com.zero.account.exception.AccountException;
+import com.zero.account.type.ErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
+
+import static com.zero.account.type.ErrorCode.*;
+
+// @Transactional 보다 먼저 실행되어 트랜잭션의 connection 을 replica 에서 얻는다
+@Slf4j
+@Aspect
+@Component
+@Order(0)
+public class ReplicaRoutingAspect {
+
+    // replica 에 아직 복제되지 않았을 수 있으므로 primary 에서 다시 조회
+    private static final Set<ErrorCode> NOT_REPLICATED = Set.of(
+            USER_NOT_FOUND, NOT_HAVE_ACCOUNT, ACCOUNT_NOT_FOUND, TRANSACTION_NOT_FOUND);
+
+    private final RecentWriteTracker recentWriteTracker;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+
+    public ReplicaRoutingAspect(
+            RecentWriteTracker recentWriteTracker,
+            MeterRegistry meterRegistry,
+            @Value("${account.replica.enabled:false}") boolean enabled) {
+        this.recentWriteTracker = recentWriteTracker;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+    }
+
+    @Around("@annotation(replicaRead)")
+    public Object aroundMethod(ProceedingJoinPoint pjp, ReplicaRead replicaRead) throws Throwable {
+        // 이미 시작한 트랜잭션은 connection 을 바꿀 수 없다
+        if (!enabled || ReplicaContext.isReplica()
+                || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return pjp.proceed();
+        }
+        Object[] args = pjp.getArgs();
+        if (recentWriteTracker.isRecent(replicaRead.key(), args.length == 0 ? null : args[0])) {
+            count("primary");
+            return pjp.proceed();
+        }
+
+        ReplicaContext.set(true);
+        try {
+            count("replica");
+            return pjp.proceed();
+        } catch (AccountException e) {
+            if (!NOT_REPLICATED.contains(e.getErrorCode())) {
+                throw e;
+            }
+            log.debug("Not found on replica, retry on primary : {}", pjp.getSignature());
+        } finally {
+            ReplicaContext.set(false);
+        }
+        count("fallback");
+        return pjp.proceed();
+    }
+
+    private void count(String route) {
+        meterRegistry.counter("account.replica.reads", "route", route).increment();
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.zero.account.service;
+
+import com.zero.account.config.ShardContext;
+import com.zero.account.domain.TimeOrderedIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// 계좌 번호 hash 로 샤드를 정하고 그 샤드에서 실행 (계좌의 거래 내역도 같은 샤드에 저장된다)
+@Component
+public class ShardRouter {
+
+    private final boolean enabled;
+    // 바꾸면 기존 계좌의 샤드가 달라지므로 데이터를 옮기기 전에는 바꾸면 안 된다
+    private final int shardCount;
+
+    public ShardRouter(
+            @Value("${account.sharding.enabled:false}") boolean enabled,
+            @Value("${account.sharding.urls:}") List<String> urls) {
+        this.enabled = enabled;
+        this.shardCount = enabled ? urls.size() : 1;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int shardOf(String accountNumber) {
+        return Math.floorMod(accountNumber.hashCode(), shardCount);
+    }
+
+    // time-ordered id 의 노드 구간에 저장한 샤드를 꺼낸다 (TimeOrderedIdentifierGenerator)
+    public int shardOfId(Long id) {
+        return Math.floorMod(TimeOrderedIdGenerator.getNodeId(id), shardCount);
+    }
+
+    public <T> T execute(String accountNumber, Supplier<T> action) {
+        return execute(enabled ? shardOf(accountNumber) : ShardContext.GLOBAL_SHARD, action);
+    }
+
+    public <T> T execute(int shard, Supplier<T> action) {
+        if (!enabled) {
+            return action.get();
+        }
+        Integer previous = enter(shard);
+        try {
+            return action.get();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    public void execute(int shard, Runnable action) {
+        execute(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    // 이전 샤드를 돌려주므로 exit 으로 되돌린다
+    public Integer enter(int shard) {
+        Integer previous = ShardContext.get();
+        // 트랜잭션 안에서는 이미 얻은 connection 이 계속 쓰이므로 다른 샤드로 바꿀 수 없다
+        if (ShardContext.getShard() != shard && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException(
+                    "Cannot switch from shard " + ShardContext.getShard() + " to " + shard + " inside a transaction");
+        }
+        ShardContext.set(shard);
+        return previous;
+    }
+
+    public void exit(Integer previous) {
+        ShardContext.set(previous);
+    }
+
+    // 샤드마다 실행한 결과 (샤드 순서)
+    public <T> List<T> executeOnEachShard(Supplier<T> action) {
+        List<T> results = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            results.add(execute(shard, action));
+        }
+        return results;
+    }
+
+    public <T> Map<Integer, List<T>> groupByShard(Collection<T> values, Function<T, String> accountNumber) {
+        Map<Integer, List<T>> valuesByShard = new TreeMap<>();
+        for (T value : values) {
+            valuesByShard.computeIfAbsent(shardOf(accountNumber.apply(value)), key -> new ArrayList<>())
+                    .add(value);
+        }
+        return valuesByShard;
+    }
+
+}
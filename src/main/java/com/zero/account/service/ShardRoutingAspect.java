@@ -0,0 +1,61 @@
+package com.zero.account.service;
+
+import com.zero.account.aop.ShardKey;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.annotation.Annotation;
+
+// @Transactional 보다 먼저 실행되어 트랜잭션의 connection 을 @ShardKey 파라미터의 샤드에서 얻는다
+@Aspect
+@Component
+@Order(0)
+@RequiredArgsConstructor
+public class ShardRoutingAspect {
+
+    private final ShardRouter shardRouter;
+
+    @Around("execution(* com.zero.account.service..*(.., @com.zero.account.aop.ShardKey (*), ..))")
+    public Object aroundMethod(ProceedingJoinPoint pjp) throws Throwable {
+        if (!shardRouter.isEnabled()) {
+            return pjp.proceed();
+        }
+        Integer previous = shardRouter.enter(getShard(pjp));
+        try {
+            return pjp.proceed();
+        } finally {
+            shardRouter.exit(previous);
+        }
+    }
+
+    private int getShard(ProceedingJoinPoint pjp) {
+        Annotation[][] parameterAnnotations =
+                ((MethodSignature) pjp.getSignature()).getMethod().getParameterAnnotations();
+        Object[] args = pjp.getArgs();
+        for (int i = 0; i < parameterAnnotations.length; i++) {
+            for (Annotation annotation : parameterAnnotations[i]) {
+                if (annotation instanceof ShardKey) {
+                    return toShard(args[i]);
+                }
+            }
+        }
+        throw new IllegalStateException("No @ShardKey parameter on " + pjp.getSignature());
+    }
+
+    // 계좌 번호는 hash, 거래/계좌 id 는 id 에 들어 있는 샤드
+    private int toShard(Object shardKey) {
+        if (shardKey instanceof String) {
+            return shardRouter.shardOf((String) shardKey);
+        }
+        if (shardKey instanceof Long) {
+            return shardRouter.shardOfId((Long) shardKey);
+        }
+        throw new IllegalArgumentException("Unsupported @ShardKey : " + shardKey);
+    }
+
+}
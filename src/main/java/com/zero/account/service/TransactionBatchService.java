@@ -0,0 +1,94 @@
+package com.zero.account.service;
+
+import com.zero.account.dto.TransactionUse;
+import com.zero.account.dto.TransactionUseBatch;
+import com.zero.account.exception.AccountException;
+import com.zero.account.type.ErrorCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionBatchService {
+
+    private final LockService lockService;
+    private final TransactionService transactionService;
+    private final TransactionSequencer transactionSequencer;
+    private final RedisBalanceEngine redisBalanceEngine;
+    private final LockMetrics lockMetrics;
+
+    @Value("${account.transaction.atomic-debit:false}")
+    private boolean atomicDebit;
+
+    // 단건 결제와 같이 이 endpoint 가 목록에 있으면 lock 없이 @Version 충돌 재시도로 실행
+    @Value("${account.lock.optimistic.endpoints:}")
+    private Set<String> optimisticEndpoints = Collections.emptySet();
+
+    public List<TransactionUseBatch.Result> transactionUseBatch(List<TransactionUse.Request> requests) {
+        // 계좌 번호 순으로 묶어서 한 번에 하나의 계좌 lock 만 잡는다 (교착 상태 없음)
+        Map<String, List<Integer>> indexesByAccount = new TreeMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            indexesByAccount.computeIfAbsent(requests.get(i).getAccountNumber(), key -> new ArrayList<>())
+                    .add(i);
+        }
+
+        TransactionUseBatch.Result[] results = new TransactionUseBatch.Result[requests.size()];
+        indexesByAccount.forEach((accountNumber, indexes) -> {
+            List<TransactionUse.Request> accountRequests = indexes.stream()
+                    .map(requests::get)
+                    .collect(Collectors.toList());
+            List<TransactionUseBatch.Result> accountResults = useAccountOrFail(accountNumber, accountRequests);
+            for (int i = 0; i < indexes.size(); i++) {
+                results[indexes.get(i)] = accountResults.get(i);
+            }
+        });
+        return Arrays.asList(results);
+    }
+
+    // 계좌별 트랜잭션이므로 한 계좌가 실패해도 이미 처리된 다른 계좌는 그대로 두고 그 계좌의 건만 실패로 돌려준다
+    private List<TransactionUseBatch.Result> useAccountOrFail(
+            String accountNumber, List<TransactionUse.Request> requests) {
+        try {
+            return useAccount(accountNumber, requests);
+        } catch (AccountException e) {
+            log.error("Failed TransactionUseBatch : {}", accountNumber);
+            return failAll(requests, e.getErrorCode());
+        } catch (RuntimeException e) {
+            log.error("Failed TransactionUseBatch : {}", accountNumber, e);
+            return failAll(requests, ErrorCode.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private List<TransactionUseBatch.Result> useAccount(
+            String accountNumber, List<TransactionUse.Request> requests) {
+        // 단건 결제와 같이 계좌별 노드 고정, 조건부 UPDATE, Lua 스크립트, @Version 재시도로 처리하는 경우는 lock 이 필요 없다
+        if (transactionSequencer.isLockFree()
+                || atomicDebit
+                || redisBalanceEngine.isHotAccount(accountNumber)
+                || optimisticEndpoints.contains(lockMetrics.currentEndpoint())) {
+            return transactionSequencer.execute(accountNumber, () ->
+                    transactionService.transactionUseBatch(accountNumber, requests));
+        }
+
+        lockService.lock(accountNumber);
+        try {
+            return transactionSequencer.execute(accountNumber, () ->
+                    transactionService.transactionUseBatch(accountNumber, requests));
+        } finally {
+            lockService.unlock(accountNumber);
+        }
+    }
+
+    private List<TransactionUseBatch.Result> failAll(List<TransactionUse.Request> requests, ErrorCode errorCode) {
+        return requests.stream()
+                .map(request -> TransactionUseBatch.Result.failed(request, errorCode))
+                .collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.zero.account.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zero.account.dto.TransactionInfo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// 거래 내역은 저장 후 바뀌지 않으므로 id 별 ETag 를 기억해두고 If-None-Match 를 DB 조회 없이 처리
+@Component
+public class TransactionETagCache {
+
+    private final ObjectMapper objectMapper;
+    private final String cacheControl;
+    private final Map<Long, String> eTags;
+
+    public TransactionETagCache(
+            ObjectMapper objectMapper,
+            @Value("${account.transaction.etag.local-size:10000}") int localSize,
+            @Value("${account.transaction.etag.max-age-seconds:31536000}") long maxAgeSeconds) {
+        this.objectMapper = objectMapper;
+        // Spring 5 의 CacheControl 에는 immutable 이 없어서 직접 붙인다
+        this.cacheControl = CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS)
+                .cachePublic()
+                .getHeaderValue() + ", immutable";
+        this.eTags = Collections.synchronizedMap(
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+                        return size() > localSize;
+                    }
+                });
+    }
+
+    public String getCacheControl() {
+        return cacheControl;
+    }
+
+    public String get(Long transactionId) {
+        return eTags.get(transactionId);
+    }
+
+    // id 와 응답 내용의 hash 로 만든 strong ETag (DB 가 초기화되어 같은 id 가 재사용돼도 값이 달라진다)
+    public String put(TransactionInfo transactionInfo) {
+        String eTag = "\"" + transactionInfo.getTransactionId() + "-" + hash(transactionInfo) + "\"";
+        eTags.put(transactionInfo.getTransactionId(), eTag);
+        return eTag;
+    }
+
+    private String hash(TransactionInfo transactionInfo) {
+        try {
+            return DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(transactionInfo));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.zero.account.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zero.account.dto.TransactionInfo;
+import com.zero.account.repository.TransactionRepository;
+import com.zero.account.type.ExportFormat;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+@Slf4j
+@Service
+public class TransactionExportService {
+
+    private static final String CSV_HEADER =
+            "transactionId,accountNumber,transactionStatus,transactionResultStatus,transactionAmount,registeredAt";
+
+    private final TransactionRepository transactionRepository;
+    private final ObjectMapper objectMapper;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+
+    public TransactionExportService(
+            TransactionRepository transactionRepository,
+            ObjectMapper objectMapper,
+            ShardRouter shardRouter,
+            PlatformTransactionManager transactionManager) {
+        this.transactionRepository = transactionRepository;
+        this.objectMapper = objectMapper;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    // 한 건씩 읽어서 바로 응답으로 쓰므로 기간이 길어도 메모리 사용량은 일정하다
+    // (StreamingResponseBody 스레드에서 호출되므로 Stream 을 다 읽을 때까지 트랜잭션을 유지한다)
+    // 샤딩 모드에서는 샤드 순서대로 이어서 쓰므로 createdAt 순서는 샤드 안에서만 보장된다
+    public long export(LocalDateTime from, LocalDateTime to, ExportFormat exportFormat,
+                       boolean gzip, OutputStream outputStream) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(outputStream, 8192) : outputStream;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 8192);
+        if (exportFormat == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        long count = 0;
+        try {
+            for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+                count += shardRouter.execute(shard, () -> transactionTemplate.execute(
+                        status -> writeLines(writer, exportFormat, from, to)));
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        if (gzip) {
+            ((GZIPOutputStream) target).finish();
+        }
+        log.info("Exported {} transactions from {} to {}", count, from, to);
+        return count;
+    }
+
+    private long writeLines(Writer writer, ExportFormat exportFormat, LocalDateTime from, LocalDateTime to) {
+        long count = 0;
+        try (Stream<TransactionInfo> transactionInfos =
+                     transactionRepository.streamInfosByCreatedAt(from, to)) {
+            Iterator<TransactionInfo> iterator = transactionInfos.iterator();
+            while (iterator.hasNext()) {
+                writeLine(writer, exportFormat, iterator.next());
+                count++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+
+    private void writeLine(Writer writer, ExportFormat exportFormat, TransactionInfo transactionInfo)
+            throws IOException {
+        if (exportFormat == ExportFormat.NDJSON) {
+            writer.write(objectMapper.writeValueAsString(transactionInfo));
+        } else {
+            writer.write(String.valueOf(transactionInfo.getTransactionId()));
+            writer.write(',');
+            writer.write(transactionInfo.getAccountNumber());
+            writer.write(',');
+            writer.write(String.valueOf(transactionInfo.getTransactionStatus()));
+            writer.write(',');
+            writer.write(String.valueOf(transactionInfo.getTransactionResultStatus()));
+            writer.write(',');
+            writer.write(String.valueOf(transactionInfo.getTransactionAmount()));
+            writer.write(',');
+            writer.write(String.valueOf(transactionInfo.getRegisteredAt()));
+        }
+        writer.write('\n');
+    }
+
+}
@@ -0,0 +1,308 @@
+package com.zero.account.service;
+
+import com.zero.account.domain.TimeOrderedIdGenerator;
+import com.zero.account.dto.JournalRecord;
+import com.zero.account.exception.AccountException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import static com.zero.account.type.ErrorCode.INTERNAL_SERVER_ERROR;
+
+@Slf4j
+@Component
+public class TransactionJournal {
+
+    // 파일 헤더 : 파일을 처음부터 다시 쓰기 시작할 때의 sequence
+    private static final int HEADER_SIZE = 8;
+    // 레코드 헤더 : payload 길이(4) + sequence(8) + crc(8)
+    private static final int RECORD_HEADER_SIZE = 20;
+
+    private final boolean enabled;
+    private final Path path;
+    // 거래 내역보다 응답이 먼저 나가므로 거래 id 를 미리 발급한다 (JPA 의 TimeOrderedIdentifierGenerator 와 같은 인스턴스)
+    private final TimeOrderedIdGenerator timeOrderedIdGenerator;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushed = lock.newCondition();
+
+    private FileChannel fileChannel;
+    private MappedByteBuffer buffer;
+    private long nextSequence;
+    private int writeOffset;
+    private int durableOffset;
+    private int readOffset;
+    private boolean flushing;
+    // force 에 실패하면 디스크에 남았는지 알 수 없으므로 이후 기록은 받지 않는다 (재시작 전까지)
+    private boolean failed;
+    // DB 에 반영된 sequence 를 확인하기 전에는 기록을 받지 않는다 (ensureSequence)
+    private boolean ready;
+
+    public TransactionJournal(
+            @Value("${account.transaction.journal.enabled:false}") boolean enabled,
+            @Value("${account.transaction.journal.path:./journal/transaction.journal}") String path,
+            @Value("${account.transaction.journal.capacity-bytes:67108864}") int capacityBytes,
+            @Value("${account.id.time-ordered.enabled:false}") boolean timeOrderedId,
+            @Value("${account.id.node-id:0}") int nodeId) {
+        this.enabled = enabled;
+        this.path = Paths.get(path).toAbsolutePath();
+        this.timeOrderedIdGenerator = TimeOrderedIdGenerator.forNode(nodeId);
+        if (!enabled) {
+            return;
+        }
+        // IDENTITY 는 insert 전에 id 를 알 수 없다
+        if (!timeOrderedId) {
+            throw new IllegalStateException("account.transaction.journal requires account.id.time-ordered.enabled");
+        }
+        open(capacityBytes);
+        log.info("Transaction journal opened at {} (next sequence : {})", this.path, nextSequence);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getName() {
+        return path.toString();
+    }
+
+    public long nextTransactionId() {
+        return timeOrderedIdGenerator.nextId();
+    }
+
+    // 파일을 잃어버렸거나 새로 만든 경우 sequence 가 1 부터 다시 시작하면 applier 가 반영된 것으로 보고 버리므로
+    // DB 에 반영된 sequence 보다 큰 값부터 쓴다 (남아있는 기록은 모두 반영된 것이므로 처음부터 다시 쓴다)
+    public void ensureSequence(long appliedSequence) {
+        lock.lock();
+        try {
+            if (nextSequence <= appliedSequence) {
+                log.warn("Transaction journal sequence {} is behind applied sequence {}, rewinding",
+                        nextSequence, appliedSequence);
+                nextSequence = appliedSequence + 1;
+                rewind();
+            }
+            ready = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 기록이 디스크에 반영될 때까지 기다린다. sequence 확인 전이거나 파일이 가득 찼거나 이전 force 가 실패했으면 false
+    // force 에 실패하면 예외를 던지고 그 기록은 반영되지 않는다
+    public boolean append(JournalRecord record) {
+        byte[] payload = record.serialize().getBytes(StandardCharsets.UTF_8);
+        int endOffset;
+        lock.lock();
+        try {
+            if (!ready || failed || writeOffset + RECORD_HEADER_SIZE + payload.length > buffer.capacity()) {
+                return false;
+            }
+            long sequence = nextSequence++;
+            buffer.putLong(writeOffset + 4, sequence);
+            buffer.putLong(writeOffset + 12, checksum(sequence, payload));
+            buffer.put(writeOffset + RECORD_HEADER_SIZE, payload);
+            buffer.putInt(writeOffset, payload.length);
+            record.setSequence(sequence);
+            writeOffset += RECORD_HEADER_SIZE + payload.length;
+            endOffset = writeOffset;
+            awaitDurable(endOffset);
+        } finally {
+            lock.unlock();
+        }
+        return true;
+    }
+
+    // 먼저 도착한 요청이 그때까지 쌓인 기록을 한 번에 force 하고, 나머지는 그 결과를 기다린다 (group commit)
+    private void awaitDurable(int endOffset) {
+        try {
+            while (durableOffset < endOffset) {
+                if (failed) {
+                    throw new AccountException(INTERNAL_SERVER_ERROR);
+                }
+                if (flushing) {
+                    flushed.await();
+                    continue;
+                }
+                flushing = true;
+                int from = durableOffset;
+                int to = writeOffset;
+                boolean forced = false;
+                lock.unlock();
+                try {
+                    force(from, to - from);
+                    forced = true;
+                } finally {
+                    lock.lock();
+                    flushing = false;
+                    if (forced) {
+                        durableOffset = Math.max(durableOffset, to);
+                    } else {
+                        discardNotDurable();
+                    }
+                    flushed.signalAll();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AccountException(INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    void force(int offset, int length) {
+        buffer.force(offset, length);
+    }
+
+    // 디스크에 반영됐다고 확인되지 않은 기록은 길이를 지워서 다시 열 때 여기서 멈추게 하고, 읽지도 않는다
+    private void discardNotDurable() {
+        failed = true;
+        buffer.putInt(durableOffset, 0);
+        writeOffset = durableOffset;
+        try {
+            force(durableOffset, 4);
+        } catch (RuntimeException e) {
+            log.error("Transaction journal invalidation failed", e);
+        }
+        log.error("Transaction journal force failed, records after offset {} are discarded", durableOffset);
+    }
+
+    // 아직 반영되지 않은 기록 중 디스크에 반영된 것만 읽는다
+    public List<JournalRecord> read(int limit) {
+        int offset;
+        int endOffset;
+        lock.lock();
+        try {
+            offset = readOffset;
+            endOffset = durableOffset;
+        } finally {
+            lock.unlock();
+        }
+
+        List<JournalRecord> records = new ArrayList<>();
+        while (offset < endOffset && records.size() < limit) {
+            records.add(readRecord(offset));
+            offset += recordSize(offset);
+        }
+        return records;
+    }
+
+    public void markApplied(long sequence) {
+        lock.lock();
+        try {
+            while (readOffset < durableOffset) {
+                long readSequence = buffer.getLong(readOffset + 4);
+                readOffset += recordSize(readOffset);
+                if (readSequence == sequence) {
+                    break;
+                }
+            }
+            // 모두 반영됐고 절반 이상 찼으면 처음부터 다시 쓴다
+            if (readOffset == writeOffset && !flushing && writeOffset > buffer.capacity() / 2) {
+                rewind();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 헤더에 다음 sequence 를 남겨두면 남아있는 이전 기록은 sequence 가 맞지 않아 무시된다
+    private void rewind() {
+        buffer.putLong(0, nextSequence);
+        buffer.force(0, HEADER_SIZE);
+        writeOffset = HEADER_SIZE;
+        durableOffset = HEADER_SIZE;
+        readOffset = HEADER_SIZE;
+        log.debug("Transaction journal rewound at sequence : {}", nextSequence);
+    }
+
+    private void open(int capacityBytes) {
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            fileChannel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            buffer = fileChannel.map(FileChannel.MapMode.READ_WRITE, 0, capacityBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        nextSequence = buffer.getLong(0);
+        if (nextSequence == 0) {
+            nextSequence = 1;
+            buffer.putLong(0, nextSequence);
+            buffer.force(0, HEADER_SIZE);
+        }
+        // 길이, crc, sequence 가 모두 맞는 곳까지가 유효한 기록 (마지막에 잘린 기록은 버린다)
+        int offset = HEADER_SIZE;
+        while (isValidRecord(offset, nextSequence)) {
+            offset += recordSize(offset);
+            nextSequence++;
+        }
+        writeOffset = offset;
+        durableOffset = offset;
+        readOffset = HEADER_SIZE;
+    }
+
+    private boolean isValidRecord(int offset, long expectedSequence) {
+        if (offset + RECORD_HEADER_SIZE > buffer.capacity()) {
+            return false;
+        }
+        int length = buffer.getInt(offset);
+        if (length <= 0 || offset + RECORD_HEADER_SIZE + length > buffer.capacity()) {
+            return false;
+        }
+        long sequence = buffer.getLong(offset + 4);
+        return sequence == expectedSequence
+                && buffer.getLong(offset + 12) == checksum(sequence, readPayload(offset));
+    }
+
+    private JournalRecord readRecord(int offset) {
+        return JournalRecord.parse(
+                buffer.getLong(offset + 4),
+                new String(readPayload(offset), StandardCharsets.UTF_8));
+    }
+
+    private byte[] readPayload(int offset) {
+        byte[] payload = new byte[buffer.getInt(offset)];
+        buffer.get(offset + RECORD_HEADER_SIZE, payload);
+        return payload;
+    }
+
+    private int recordSize(int offset) {
+        return RECORD_HEADER_SIZE + buffer.getInt(offset);
+    }
+
+    private long checksum(long sequence, byte[] payload) {
+        CRC32 crc32 = new CRC32();
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            crc32.update((int) (sequence >>> shift));
+        }
+        crc32.update(payload);
+        return crc32.getValue();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (fileChannel == null) {
+            return;
+        }
+        buffer.force();
+        fileChannel.close();
+    }
+
+}
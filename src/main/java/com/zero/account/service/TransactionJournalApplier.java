@@ -0,0 +1,98 @@
+package com.zero.account.service;
+
+import com.zero.account.domain.JournalCheckpoint;
+import com.zero.account.dto.JournalRecord;
+import com.zero.account.repository.JournalCheckpointRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class TransactionJournalApplier {
+
+    private final TransactionJournal transactionJournal;
+    private final TransactionService transactionService;
+    private final JournalCheckpointRepository journalCheckpointRepository;
+    private final int batchSize;
+    private final long intervalMillis;
+
+    private ScheduledExecutorService scheduler;
+    private long appliedSequence;
+
+    public TransactionJournalApplier(
+            TransactionJournal transactionJournal,
+            TransactionService transactionService,
+            JournalCheckpointRepository journalCheckpointRepository,
+            @Value("${account.transaction.journal.batch-size:500}") int batchSize,
+            @Value("${account.transaction.journal.interval-millis:200}") long intervalMillis) {
+        this.transactionJournal = transactionJournal;
+        this.transactionService = transactionService;
+        this.journalCheckpointRepository = journalCheckpointRepository;
+        this.batchSize = batchSize;
+        this.intervalMillis = intervalMillis;
+    }
+
+    // 기동 시 DB 에 기록된 마지막 sequence 이후의 기록부터 다시 반영
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!transactionJournal.isEnabled()) {
+            return;
+        }
+        appliedSequence = journalCheckpointRepository.findById(transactionJournal.getName())
+                .map(JournalCheckpoint::getAppliedSequence)
+                .orElse(0L);
+        transactionJournal.ensureSequence(appliedSequence);
+        log.info("Replaying transaction journal after sequence : {}", appliedSequence);
+        apply();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "transaction-journal-applier");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::apply, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void apply() {
+        try {
+            List<JournalRecord> records;
+            do {
+                records = transactionJournal.read(batchSize);
+                if (records.isEmpty()) {
+                    return;
+                }
+                long lastSequence = records.get(records.size() - 1).getSequence();
+                List<JournalRecord> pendingRecords = records.stream()
+                        .filter(record -> record.getSequence() > appliedSequence)
+                        .collect(Collectors.toList());
+                if (!pendingRecords.isEmpty()) {
+                    transactionService.applyJournalRecords(transactionJournal.getName(), pendingRecords);
+                    appliedSequence = lastSequence;
+                }
+                transactionJournal.markApplied(lastSequence);
+                log.debug("Applied {} journal records", pendingRecords.size());
+            } while (records.size() == batchSize);
+        } catch (Exception e) {
+            log.error("Journal apply failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        apply();
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.zero.account.service;
+
+import com.zero.account.exception.AccountException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+import static com.zero.account.type.ErrorCode.INTERNAL_SERVER_ERROR;
+
+@Slf4j
+@Component
+public class TransactionSequencer {
+
+    private final boolean enabled;
+    private final boolean accountAffineRouting;
+    private final List<ExecutorService> partitions = new ArrayList<>();
+
+    public TransactionSequencer(
+            @Value("${account.transaction.sequencer.enabled:false}") boolean enabled,
+            @Value("${account.transaction.sequencer.account-affine-routing:false}") boolean accountAffineRouting,
+            @Value("${account.transaction.sequencer.partitions:8}") int partitionCount,
+            @Value("${account.transaction.sequencer.queue-capacity:1024}") int queueCapacity,
+            @Value("${account.transaction.sequencer.offer-timeout-millis:5000}") long offerTimeoutMillis) {
+        this.enabled = enabled;
+        this.accountAffineRouting = accountAffineRouting;
+        if (!enabled) {
+            return;
+        }
+        for (int i = 0; i < partitionCount; i++) {
+            partitions.add(createPartition(i, queueCapacity, offerTimeoutMillis));
+        }
+        log.info("Transaction sequencer enabled with {} partitions (account lock {})",
+                partitionCount, accountAffineRouting ? "skipped" : "kept");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // 파티션은 이 JVM 안에서만 직렬화하므로, 같은 계좌 요청이 항상 이 노드로 오도록 라우팅한다고 설정한 경우에만 lock 이 필요 없다
+    public boolean isLockFree() {
+        return enabled && accountAffineRouting;
+    }
+
+    // 요청 스레드는 파티션 작업을 기다리지 않고 future 를 돌려받는다 (실패도 future 로 전달)
+    public <T> CompletableFuture<T> submit(String accountNumber, Supplier<T> task) {
+        if (!enabled) {
+            try {
+                return CompletableFuture.completedFuture(task.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+
+        try {
+            return CompletableFuture.supplyAsync(task, getPartition(accountNumber));
+        } catch (RejectedExecutionException e) {
+            log.error("Transaction partition rejected task", e);
+            return CompletableFuture.failedFuture(new AccountException(INTERNAL_SERVER_ERROR));
+        }
+    }
+
+    // 같은 계좌의 잔액 변경은 항상 같은 파티션 스레드에서 순서대로 실행된다
+    public <T> T execute(String accountNumber, Supplier<T> task) {
+        if (!enabled) {
+            return task.get();
+        }
+
+        Future<T> future;
+        try {
+            future = getPartition(accountNumber).submit(task::get);
+        } catch (RejectedExecutionException e) {
+            log.error("Transaction partition rejected task", e);
+            throw new AccountException(INTERNAL_SERVER_ERROR);
+        }
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AccountException(INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private ExecutorService getPartition(String accountNumber) {
+        return partitions.get(Math.floorMod(accountNumber.hashCode(), partitions.size()));
+    }
+
+    private ExecutorService createPartition(int index, int queueCapacity, long offerTimeoutMillis) {
+        return new ThreadPoolExecutor(
+                1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "transaction-partition-" + index);
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // 큐가 가득 차면 offer-timeout 동안 자리가 날 때까지 요청 스레드를 대기시킨다
+                // 종료된 파티션은 큐를 비우는 스레드가 없으므로 대기하지 않고 거절한다
+                (runnable, executor) -> {
+                    if (executor.isShutdown()) {
+                        throw new RejectedExecutionException("Transaction partition " + index + " is shut down");
+                    }
+                    try {
+                        if (!executor.getQueue().offer(runnable, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                            throw new RejectedExecutionException("Transaction partition " + index + " is full");
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException(e);
+                    }
+                    // 넣는 사이에 종료됐으면 실행되지 않으므로 꺼내고 거절한다
+                    if (executor.isShutdown() && executor.getQueue().remove(runnable)) {
+                        throw new RejectedExecutionException("Transaction partition " + index + " is shut down");
+                    }
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        partitions.forEach(ExecutorService::shutdown);
+    }
+
+}
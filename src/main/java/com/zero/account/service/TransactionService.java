@@ -1,25 +1,47 @@
 package com.zero.account.service;
 
+import com.zero.account.aop.OptimisticRetry;
+import com.zero.account.aop.ReplicaRead;
+import com.zero.account.aop.ShardKey;
 import com.zero.account.domain.Account;
 import com.zero.account.domain.AccountUser;
+import com.zero.account.domain.JournalCheckpoint;
 import com.zero.account.domain.Transaction;
+import com.zero.account.dto.FailedTransaction;
+import com.zero.account.dto.JournalRecord;
+import com.zero.account.dto.LedgerEntry;
 import com.zero.account.dto.TransactionDto;
+import com.zero.account.dto.TransactionHistory;
 import com.zero.account.dto.TransactionInfo;
+import com.zero.account.dto.TransactionUse;
+import com.zero.account.dto.TransactionUseBatch;
 import com.zero.account.exception.AccountException;
 import com.zero.account.repository.AccountRepository;
 import com.zero.account.repository.AccountUserRepository;
+import com.zero.account.repository.JournalCheckpointRepository;
 import com.zero.account.repository.TransactionRepository;
 import com.zero.account.type.AccountStatus;
+import com.zero.account.type.ConsistencyKey;
+import com.zero.account.type.ErrorCode;
 import com.zero.account.type.TransactionResultStatus;
 import com.zero.account.type.TransactionStatus;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import javax.transaction.Transactional;
-import java.util.Objects;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static com.zero.account.type.ErrorCode.*;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class TransactionService {
@@ -27,11 +49,23 @@ public class TransactionService {
     private final AccountUserRepository accountUserRepository;
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
+    private final RedisBalanceEngine redisBalanceEngine;
+    private final TransactionJournal transactionJournal;
+    private final JournalCheckpointRepository journalCheckpointRepository;
+    private final AccountSummaryCache accountSummaryCache;
+    private final BalanceLedger balanceLedger;
+    private final RecentWriteTracker recentWriteTracker;
+    private final AccountIdCache accountIdCache;
 
+    @Value("${account.transaction.atomic-debit:false}")
+    private boolean atomicDebit;
+
+    @Value("${account.transaction.history.max-page-size:100}")
+    private int maxHistoryPageSize;
 
     @Transactional
     public void createFailedTransaction(
-            String accountNumber, Long paymentAmount, TransactionStatus transactionStatus) {
+            @ShardKey String accountNumber, Long paymentAmount, TransactionStatus transactionStatus) {
         Account account = getAccount(accountNumber);
 
         Transaction transaction = saveGetTransaction(
@@ -42,16 +76,58 @@ public class TransactionService {
                 transactionStatus);
     }
 
+    // 실패 거래를 모아서 계좌 조회 한 번, 저장 한 번으로 기록
+    @Transactional
+    public void createFailedTransactions(List<FailedTransaction> failedTransactions) {
+        Map<String, Account> accounts = accountRepository.findAllByAccountNumberIn(
+                        failedTransactions.stream()
+                                .map(FailedTransaction::getAccountNumber)
+                                .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Account::getAccountNumber, Function.identity()));
+
+        List<Transaction> transactions = new ArrayList<>();
+        for (FailedTransaction failedTransaction : failedTransactions) {
+            Account account = accounts.get(failedTransaction.getAccountNumber());
+            // 없는 계좌의 실패는 기존에도 기록되지 않았다
+            if (account == null) {
+                continue;
+            }
+            transactions.add(Transaction.builder()
+                    .account(account)
+                    .transactionResultStatus(TransactionResultStatus.FAILED)
+                    .transactionStatus(failedTransaction.getTransactionStatus())
+                    .transactionAmount(failedTransaction.getTransactionAmount())
+                    .accountNumber(failedTransaction.getAccountNumber())
+                    .build());
+        }
+        transactionRepository.saveAll(transactions);
+    }
+
+    @OptimisticRetry
     @Transactional
-    public TransactionDto transactionUse(Long userId, String accountNumber, Long paymentAmount) {
+    public TransactionDto transactionUse(Long userId, @ShardKey String accountNumber, Long paymentAmount) {
+        if (redisBalanceEngine.isHotAccount(accountNumber)) {
+            return redisBalanceEngine.use(userId, accountNumber, paymentAmount);
+        }
+        if (atomicDebit) {
+            return atomicTransactionUse(userId, accountNumber, paymentAmount);
+        }
+
         AccountUser accountUser =
                 accountUserRepository.findById(userId).orElseThrow(() ->
                         new AccountException(USER_NOT_FOUND));
         Account account = getAccount(accountNumber);
 
         validateTransactionUse(accountUser, account);
-        account.useBalance(paymentAmount);
-        accountRepository.save(account);
+        if (balanceLedger.isEnabled()) {
+            useLedgerBalance(balanceLedger.getCurrentBalance(account), paymentAmount);
+        } else {
+            account.useBalance(paymentAmount);
+            accountRepository.save(account);
+        }
+        accountSummaryCache.evictAfterCommit(account.getAccountUser().getId());
+        recentWriteTracker.mark(account.getAccountUser().getId(), account.getAccountNumber());
 
         return TransactionDto.fromEntity(
                 saveGetTransaction(
@@ -62,20 +138,63 @@ public class TransactionService {
                         TransactionStatus.APPROVAL));
     }
 
+    // 조건부 UPDATE 한 번으로 검증과 차감을 같이 처리하므로 외부 lock 이 필요 없다
+    private TransactionDto atomicTransactionUse(Long userId, String accountNumber, Long paymentAmount) {
+        atomicUseBalance(userId, accountNumber, paymentAmount);
+        accountSummaryCache.evictAfterCommit(userId);
+        recentWriteTracker.mark(userId, accountNumber);
+
+        Long accountId = getAccountId(accountNumber);
+        return TransactionDto.fromEntity(
+                saveGetTransaction(
+                        accountNumber,
+                        paymentAmount,
+                        accountRepository.getReferenceById(accountId),
+                        TransactionResultStatus.SUCCEED,
+                        TransactionStatus.APPROVAL));
+    }
+
+    private void atomicUseBalance(Long userId, String accountNumber, Long paymentAmount) {
+        Account.validatePaymentAmount(paymentAmount);
+        int updated = accountRepository.useBalance(
+                accountNumber, userId, paymentAmount, AccountStatus.IN_USE);
+        if (updated == 0) {
+            throw new AccountException(getUseBalanceFailure(userId, accountNumber));
+        }
+    }
+
+    // 실패한 경우에만 다시 조회해서 기존과 같은 ErrorCode 로 돌려준다
+    private ErrorCode getUseBalanceFailure(Long userId, String accountNumber) {
+        AccountUser accountUser = accountUserRepository.findById(userId)
+                .orElseThrow(() -> new AccountException(USER_NOT_FOUND));
+        Account account = getAccount(accountNumber);
+        validateTransactionUse(accountUser, account);
+        return INSUFFICIENT_BALANCE;
+    }
+
+    @OptimisticRetry
     @Transactional
-    public TransactionDto transactionCancel(Long transactionId, String accountNumber,
+    public TransactionDto transactionCancel(Long transactionId, @ShardKey String accountNumber,
                                             Long cancellationAmount) {
-        Transaction transaction = getTransaction(transactionId);
-        if (!Long.valueOf(transaction.getAccountNumber()).equals(Long.valueOf(accountNumber))) {
-            throw new AccountException(TRANSACTION_ACCOUNT_NUMBER_MIS_MATCH);
-        }
-        if (!Objects.equals(transaction.getTransactionAmount(), cancellationAmount)) {
-            throw new AccountException(TRANSACTION_AMOUNT_MIS_MATCH);
+        if (redisBalanceEngine.isHotAccount(accountNumber)) {
+            return redisTransactionCancel(transactionId, accountNumber, cancellationAmount);
         }
+        Transaction transaction = getTransaction(transactionId);
+        validateTransactionCancel(transaction.getAccountNumber(), transaction.getTransactionAmount(),
+                accountNumber, cancellationAmount);
 
         Account account = transaction.getAccount();
-        account.setBalance(account.getBalance() + cancellationAmount);
-        accountRepository.save(account);
+        if (balanceLedger.isEnabled()) {
+            balanceLedger.ensureSnapshot(account);
+        } else if (atomicDebit) {
+            // lock 없는 차감과 겹치므로 읽고 더해서 쓰지 않고 UPDATE 한 번으로 더한다
+            accountRepository.addBalance(account.getId(), cancellationAmount);
+        } else {
+            // 그 외에는 lock(또는 @Version) 아래에서 엔티티로 더한다 (bulk update 는 Account 2 차 캐시 region 전체를 비운다)
+            account.setBalance(account.getBalance() + cancellationAmount);
+        }
+        accountSummaryCache.evictAfterCommit(account.getAccountUser().getId());
+        recentWriteTracker.mark(account.getAccountUser().getId(), account.getAccountNumber());
         return TransactionDto.fromEntity(
                 saveGetTransaction(
                         accountNumber,
@@ -85,18 +204,210 @@ public class TransactionService {
                         TransactionStatus.CANCEL));
     }
 
+    // 핫 계좌의 결제는 아직 DB 에 반영되지 않았을 수 있으므로 Redis 원장에서 먼저 찾는다
+    private TransactionDto redisTransactionCancel(Long transactionId, String accountNumber, Long cancellationAmount) {
+        Optional<LedgerEntry> ledgerEntry = redisBalanceEngine.findPendingEntry(transactionId);
+        if (ledgerEntry.isPresent()) {
+            validateTransactionCancel(ledgerEntry.get().getAccountNumber(), ledgerEntry.get().getTransactionAmount(),
+                    accountNumber, cancellationAmount);
+        } else {
+            Transaction transaction = getTransaction(transactionId);
+            validateTransactionCancel(transaction.getAccountNumber(), transaction.getTransactionAmount(),
+                    accountNumber, cancellationAmount);
+        }
+        return redisBalanceEngine.cancel(accountNumber, cancellationAmount);
+    }
+
+    private void validateTransactionCancel(String transactionAccountNumber, Long transactionAmount,
+                                           String accountNumber, Long cancellationAmount) {
+        if (!Long.valueOf(transactionAccountNumber).equals(Long.valueOf(accountNumber))) {
+            throw new AccountException(TRANSACTION_ACCOUNT_NUMBER_MIS_MATCH);
+        }
+        if (!Objects.equals(transactionAmount, cancellationAmount)) {
+            throw new AccountException(TRANSACTION_AMOUNT_MIS_MATCH);
+        }
+    }
+
+    // 한 계좌의 결제들을 한 트랜잭션에서 처리하고 거래 내역은 한 번에 저장
+    @OptimisticRetry
     @Transactional
-    public TransactionInfo selectTransaction(Long transactionId) {
-        Transaction transaction = getTransaction(transactionId);
+    public List<TransactionUseBatch.Result> transactionUseBatch(
+            @ShardKey String accountNumber, List<TransactionUse.Request> requests) {
+        if (redisBalanceEngine.isHotAccount(accountNumber)) {
+            return requests.stream()
+                    .map(this::redisTransactionUse)
+                    .collect(Collectors.toList());
+        }
 
-        return TransactionInfo.builder()
-                .transactionId(transaction.getId())
-                .accountNumber(transaction.getAccountNumber())
-                .transactionAmount(transaction.getTransactionAmount())
-                .transactionStatus(transaction.getTransactionStatus())
-                .transactionResultStatus(transaction.getTransactionResultStatus())
-                .registeredAt(transaction.getCreatedAt())
-                .build();
+        Optional<Account> optionalAccount = accountRepository.findByAccountNumber(accountNumber);
+        if (optionalAccount.isEmpty()) {
+            return requests.stream()
+                    .map(request -> TransactionUseBatch.Result.failed(request, ACCOUNT_NOT_FOUND))
+                    .collect(Collectors.toList());
+        }
+
+        Account account = optionalAccount.get();
+        Long ledgerBalance = balanceLedger.isEnabled() ? balanceLedger.getCurrentBalance(account) : null;
+        Map<Long, Optional<AccountUser>> accountUsers = new HashMap<>();
+        List<Transaction> transactions = new ArrayList<>();
+        List<ErrorCode> errorCodes = new ArrayList<>();
+        for (TransactionUse.Request request : requests) {
+            TransactionResultStatus transactionResultStatus = TransactionResultStatus.SUCCEED;
+            ErrorCode errorCode = null;
+            try {
+                if (atomicDebit) {
+                    // 단건 결제와 같은 조건부 UPDATE 로 차감 (lock 없이 실행됨)
+                    atomicUseBalance(request.getUserId(), accountNumber, request.getTransactionAmount());
+                } else {
+                    AccountUser accountUser = accountUsers
+                            .computeIfAbsent(request.getUserId(), accountUserRepository::findById)
+                            .orElseThrow(() -> new AccountException(USER_NOT_FOUND));
+                    validateTransactionUse(accountUser, account);
+                    if (ledgerBalance == null) {
+                        account.useBalance(request.getTransactionAmount());
+                    } else {
+                        ledgerBalance = useLedgerBalance(ledgerBalance, request.getTransactionAmount());
+                    }
+                }
+            } catch (AccountException e) {
+                transactionResultStatus = TransactionResultStatus.FAILED;
+                errorCode = e.getErrorCode();
+            }
+            errorCodes.add(errorCode);
+            transactions.add(Transaction.builder()
+                    .account(account)
+                    .transactionResultStatus(transactionResultStatus)
+                    .transactionStatus(TransactionStatus.APPROVAL)
+                    .transactionAmount(request.getTransactionAmount())
+                    .accountNumber(accountNumber)
+                    .build());
+        }
+
+        List<Transaction> savedTransactions = transactionRepository.saveAll(transactions);
+        accountSummaryCache.evictAfterCommit(account.getAccountUser().getId());
+        recentWriteTracker.mark(account.getAccountUser().getId(), account.getAccountNumber());
+        List<TransactionUseBatch.Result> results = new ArrayList<>();
+        for (int i = 0; i < savedTransactions.size(); i++) {
+            results.add(TransactionUseBatch.Result.from(
+                    TransactionDto.fromEntity(savedTransactions.get(i)), errorCodes.get(i)));
+        }
+        return results;
+    }
+
+    private TransactionUseBatch.Result redisTransactionUse(TransactionUse.Request request) {
+        try {
+            return TransactionUseBatch.Result.from(
+                    redisBalanceEngine.use(
+                            request.getUserId(),
+                            request.getAccountNumber(),
+                            request.getTransactionAmount()),
+                    null);
+        } catch (AccountException e) {
+            return TransactionUseBatch.Result.failed(request, e.getErrorCode());
+        }
+    }
+
+    // Redis 원장을 모아서 한 트랜잭션으로 잔액과 거래 내역에 반영하고 같은 트랜잭션에서 반영 위치를 저장
+    // (반영 후 trim 전에 실패해서 다시 읽은 원장은 반영 위치 이하이므로 건너뛴다)
+    @Transactional
+    public void applyLedgerEntries(String ledgerName, List<LedgerEntry> ledgerEntries) {
+        long appliedSequence = journalCheckpointRepository.findById(ledgerName)
+                .map(JournalCheckpoint::getAppliedSequence)
+                .orElse(0L);
+        List<LedgerEntry> pendingEntries = ledgerEntries.stream()
+                .filter(ledgerEntry -> ledgerEntry.getSequence() > appliedSequence)
+                .collect(Collectors.toList());
+        if (pendingEntries.isEmpty()) {
+            return;
+        }
+
+        Map<String, Account> accounts = new HashMap<>();
+        List<Transaction> transactions = new ArrayList<>();
+        for (LedgerEntry ledgerEntry : pendingEntries) {
+            Account account = accounts.computeIfAbsent(ledgerEntry.getAccountNumber(), this::getAccount);
+            if (balanceLedger.isEnabled()) {
+                balanceLedger.ensureSnapshot(account);
+            } else {
+                account.setBalance(account.getBalance() + ledgerEntry.getBalanceDelta());
+            }
+            transactions.add(Transaction.builder()
+                    .reservedId(ledgerEntry.getTransactionId())
+                    .reservedCreatedAt(ledgerEntry.getCreatedAt())
+                    .account(account)
+                    .transactionResultStatus(TransactionResultStatus.SUCCEED)
+                    .transactionStatus(ledgerEntry.getTransactionStatus())
+                    .transactionAmount(ledgerEntry.getTransactionAmount())
+                    .accountNumber(ledgerEntry.getAccountNumber())
+                    .build());
+        }
+        transactionRepository.saveAll(transactions);
+        journalCheckpointRepository.save(new JournalCheckpoint(
+                ledgerName, pendingEntries.get(pendingEntries.size() - 1).getSequence()));
+        accounts.values().forEach(account -> {
+            accountSummaryCache.evictAfterCommit(account.getAccountUser().getId());
+            recentWriteTracker.mark(account.getAccountUser().getId(), account.getAccountNumber());
+        });
+    }
+
+    // journal 기록을 거래 내역에 반영하고 같은 트랜잭션에서 반영 위치를 저장
+    // 반영 위치를 잃어버려 다시 읽더라도 이미 저장된 거래 id 는 건너뛰고, 취소 기록이 있는 거래는 저장하지 않는다
+    @Transactional
+    public void applyJournalRecords(String journalName, List<JournalRecord> journalRecords) {
+        Set<Long> abortedIds = journalRecords.stream()
+                .filter(JournalRecord::isAborted)
+                .map(JournalRecord::getTransactionId)
+                .collect(Collectors.toSet());
+        Set<Long> existingIds = new HashSet<>(transactionRepository.findIdsByIdIn(journalRecords.stream()
+                .map(JournalRecord::getTransactionId)
+                .collect(Collectors.toSet())));
+        List<Transaction> transactions = journalRecords.stream()
+                .filter(record -> !record.isAborted())
+                .filter(record -> !abortedIds.contains(record.getTransactionId()))
+                .filter(record -> existingIds.add(record.getTransactionId()))
+                .map(this::toTransaction)
+                .collect(Collectors.toList());
+        List<Long> abortedExistingIds = abortedIds.stream()
+                .filter(existingIds::contains)
+                .collect(Collectors.toList());
+        if (!abortedExistingIds.isEmpty()) {
+            transactionRepository.deleteAllByIdInBatch(abortedExistingIds);
+        }
+        transactionRepository.saveAll(transactions);
+        journalCheckpointRepository.save(new JournalCheckpoint(
+                journalName, journalRecords.get(journalRecords.size() - 1).getSequence()));
+    }
+
+    @ReplicaRead
+    @Transactional(readOnly = true)
+    public TransactionInfo selectTransaction(@ShardKey Long transactionId) {
+        return transactionRepository.findInfoById(transactionId)
+                .orElseThrow(() -> new AccountException(TRANSACTION_NOT_FOUND));
+    }
+
+    // 다음 페이지가 있는지 알기 위해 size + 1 건을 읽는다 (count 쿼리 없음)
+    @ReplicaRead(key = ConsistencyKey.ACCOUNT)
+    @Transactional(readOnly = true)
+    public TransactionHistory.Response selectTransactionHistory(
+            @ShardKey String accountNumber, String cursor, int size,
+            TransactionStatus transactionStatus, TransactionResultStatus transactionResultStatus) {
+        Long accountId = getAccountId(accountNumber);
+        int pageSize = Math.max(1, Math.min(size, maxHistoryPageSize));
+        PageRequest pageRequest = PageRequest.of(0, pageSize + 1);
+
+        List<TransactionInfo> transactionInfos;
+        if (cursor == null || cursor.isEmpty()) {
+            transactionInfos = transactionRepository.findHistory(
+                    accountId, transactionStatus, transactionResultStatus, pageRequest);
+        } else {
+            TransactionHistory.Cursor decoded = TransactionHistory.Cursor.decode(cursor);
+            transactionInfos = transactionRepository.findHistoryAfter(
+                    accountId, decoded.getCreatedAt(), decoded.getTransactionId(),
+                    transactionStatus, transactionResultStatus, pageRequest);
+        }
+
+        boolean hasNext = transactionInfos.size() > pageSize;
+        return TransactionHistory.Response.from(
+                hasNext ? transactionInfos.subList(0, pageSize) : transactionInfos, hasNext);
     }
 
     private Transaction saveGetTransaction(String accountNumber,
@@ -104,14 +415,107 @@ public class TransactionService {
                                            Account account,
                                            TransactionResultStatus transactionResultStatus,
                                            TransactionStatus transactionStatus) {
-        return transactionRepository.save(
-                Transaction.builder()
-                        .account(account)
-                        .transactionResultStatus(transactionResultStatus)
-                        .transactionStatus(transactionStatus)
-                        .transactionAmount(paymentAmount)
-                        .accountNumber(String.valueOf(accountNumber))
-                        .build());
+        Transaction transaction = Transaction.builder()
+                .account(account)
+                .transactionResultStatus(transactionResultStatus)
+                .transactionStatus(transactionStatus)
+                .transactionAmount(paymentAmount)
+                .accountNumber(String.valueOf(accountNumber))
+                .build();
+        // journal 모드 : 거래 내역 저장은 applier 가 나중에 처리하므로 id 를 미리 발급해서 돌려준다
+        if (transactionJournal.isEnabled()) {
+            transaction.setId(transactionJournal.nextTransactionId());
+            transaction.setCreatedAt(LocalDateTime.now());
+            appendJournalBeforeCommit(JournalRecord.builder()
+                    .accountId(account.getId())
+                    .accountNumber(transaction.getAccountNumber())
+                    .transactionStatus(transactionStatus)
+                    .transactionResultStatus(transactionResultStatus)
+                    .transactionAmount(paymentAmount)
+                    .transactionId(transaction.getId())
+                    .build());
+            return transaction;
+        }
+        return transactionRepository.save(transaction);
+    }
+
+    // 잔액이 commit 되기 전에 journal 에 기록해서 (force 까지) commit 된 거래가 기록 없이 사라지지 않게 한다
+    // 기록하지 못하면 같은 트랜잭션에서 거래 내역을 바로 저장하므로, 저장도 실패하면 잔액 변경도 함께 롤백된다
+    private void appendJournalBeforeCommit(JournalRecord journalRecord) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            appendJournalOrSave(journalRecord);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                // SQL 오류로 롤백될 트랜잭션이면 journal 에 쓰기 전에 알 수 있도록 먼저 flush
+                transactionRepository.flush();
+                appendJournalOrSave(journalRecord);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED && journalRecord.getSequence() > 0) {
+                    appendAbortRecord(journalRecord);
+                }
+            }
+        });
+    }
+
+    // force 에 실패한 기록은 journal 이 버리므로 같은 거래가 두 번 저장되지 않는다
+    private void appendJournalOrSave(JournalRecord journalRecord) {
+        try {
+            if (transactionJournal.append(journalRecord)) {
+                return;
+            }
+        } catch (RuntimeException e) {
+            log.error("Journal append failed, saving transaction : {}", journalRecord.getTransactionId(), e);
+        }
+        transactionRepository.save(toTransaction(journalRecord));
+    }
+
+    // journal 에 기록한 뒤 commit 이 실패한 거래는 applier 가 반영하지 않도록 취소 기록을 남긴다
+    private void appendAbortRecord(JournalRecord journalRecord) {
+        JournalRecord abortRecord = JournalRecord.builder()
+                .accountId(journalRecord.getAccountId())
+                .accountNumber(journalRecord.getAccountNumber())
+                .transactionStatus(journalRecord.getTransactionStatus())
+                .transactionResultStatus(journalRecord.getTransactionResultStatus())
+                .transactionAmount(journalRecord.getTransactionAmount())
+                .transactionId(journalRecord.getTransactionId())
+                .aborted(true)
+                .build();
+        try {
+            if (transactionJournal.append(abortRecord)) {
+                return;
+            }
+            log.error("Journal abort record not appended, transaction in doubt : {}",
+                    journalRecord.getTransactionId());
+        } catch (RuntimeException e) {
+            log.error("Journal abort record failed, transaction in doubt : {}",
+                    journalRecord.getTransactionId(), e);
+        }
+    }
+
+    private Transaction toTransaction(JournalRecord journalRecord) {
+        return Transaction.builder()
+                .reservedId(journalRecord.getTransactionId())
+                .account(accountRepository.getReferenceById(journalRecord.getAccountId()))
+                .transactionResultStatus(journalRecord.getTransactionResultStatus())
+                .transactionStatus(journalRecord.getTransactionStatus())
+                .transactionAmount(journalRecord.getTransactionAmount())
+                .accountNumber(journalRecord.getAccountNumber())
+                .build();
+    }
+
+    // ledger 모드 : 잔액만 확인하고 차감은 거래 내역 insert 로 대신한다 (account row 갱신 없음)
+    private long useLedgerBalance(long balance, Long paymentAmount) {
+        Account.validatePaymentAmount(paymentAmount);
+        if (paymentAmount > balance) {
+            throw new AccountException(INSUFFICIENT_BALANCE);
+        }
+        return balance - paymentAmount;
     }
 
     private void validateTransactionUse(AccountUser accountUser, Account account) {
@@ -123,6 +527,11 @@ public class TransactionService {
         }
     }
 
+    private Long getAccountId(String accountNumber) {
+        return accountIdCache.get(accountNumber, () -> accountRepository.findIdByAccountNumber(accountNumber))
+                .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+    }
+
     private Account getAccount(String accountNumber) {
         return accountRepository.findByAccountNumber(String.valueOf(accountNumber))
                 .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
@@ -0,0 +1,11 @@
+package com.zero.account.type;
+
+// @ReplicaRead 조회가 최근 쓰기를 확인할 대상 (첫 번째 파라미터)
+public enum ConsistencyKey {
+
+    USER,
+    ACCOUNT,
+    // 최근 쓰기를 확인하지 않는다 (replica 에 아직 없으면 primary 에서 다시 조회)
+    NONE,
+
+}
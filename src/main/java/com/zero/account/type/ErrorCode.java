@@ -22,7 +22,10 @@ public enum ErrorCode {
     TRANSACTION_AMOUNT_MIS_MATCH("거래 금액이 일치하지 않습니다."),
     INVALID_REQUEST("잘못된 요청입니다."),
     INTERNAL_SERVER_ERROR("내부 서버 오류가 발생했습니다."),
-    ACCOUNT_TRANSACTION_LOCK("현재 요청한 계좌는 사용중입니다.");
+    ACCOUNT_TRANSACTION_LOCK("현재 요청한 계좌는 사용중입니다."),
+    IDEMPOTENT_REQUEST_IN_PROGRESS("같은 요청을 처리 중입니다."),
+    IDEMPOTENCY_KEY_REUSED("같은 Idempotency-Key 로 다른 요청을 보냈습니다."),
+    BALANCE_HISTORY_NOT_AVAILABLE("과거 잔액을 계산할 수 없는 계좌입니다.");
 
     private String description;
 
@@ -0,0 +1,8 @@
+package com.zero.account.type;
+
+public enum LockMode {
+
+    PESSIMISTIC,
+    OPTIMISTIC
+
+}
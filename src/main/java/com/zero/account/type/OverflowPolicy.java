@@ -0,0 +1,5 @@
+package com.zero.account.type;
+
+public enum OverflowPolicy {
+    CALLER_RUNS, DROP
+}
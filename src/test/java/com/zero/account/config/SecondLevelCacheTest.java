@@ -0,0 +1,150 @@
+package com.zero.account.config;
+
+import com.zero.account.config.InvalidatingRegionFactory.Invalidation;
+import com.zero.account.domain.Account;
+import com.zero.account.repository.AccountRepository;
+import com.zero.account.repository.AccountUserRepository;
+import com.zero.account.type.AccountStatus;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.codec.SerializationCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.redis.port=6392",
+        "account.second-level-cache.enabled=true"})
+class SecondLevelCacheTest {
+
+    // 같은 H2 메모리 DB 를 쓰는 다른 테스트의 계좌 번호와 겹치지 않도록
+    private static final AtomicLong ACCOUNT_SEQUENCE = new AtomicLong(7_000_000_000L);
+
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private RedissonClient redissonClient;
+
+    private SessionFactoryImplementor sessionFactory;
+    private Statistics statistics;
+    private RTopic topic;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class).unwrap(SessionFactoryImplementor.class);
+        statistics = sessionFactory.getStatistics();
+        topic = redissonClient.getTopic(InvalidatingRegionFactory.TOPIC, new SerializationCodec());
+    }
+
+    @DisplayName("다른 트랜잭션에서 같은 계좌를 다시 읽으면 2 차 캐시에서 읽음")
+    @Test
+    void loadAccountFromSecondLevelCache() {
+        // given
+        Long accountId = saveAccount();
+        sessionFactory.getCache().evictEntityData(Account.class, accountId);
+        findAccount(accountId);
+        long hitCount = statistics.getSecondLevelCacheHitCount();
+
+        // when
+        Account account = findAccount(accountId);
+
+        // then
+        assertThat(account.getBalance()).isEqualTo(10000L);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(hitCount + 1);
+    }
+
+    @DisplayName("다른 노드가 보낸 무효화를 받으면 로컬 캐시에서 지움")
+    @Test
+    void evictOnRemoteInvalidation() throws Exception {
+        // given
+        Long accountId = saveAccount();
+        findAccount(accountId);
+        assertThat(sessionFactory.getCache().containsEntity(Account.class, accountId)).isTrue();
+
+        // when
+        topic.publish(new Invalidation("other-node", Account.class.getName(), cacheKey(accountId)));
+
+        // then
+        assertThat(awaitEvicted(accountId)).isTrue();
+    }
+
+    @DisplayName("로컬에서 갱신한 계좌는 다른 노드에 무효화를 보냄")
+    @Test
+    void publishInvalidationOnUpdate() throws Exception {
+        // given
+        Long accountId = saveAccount();
+        findAccount(accountId);
+        BlockingQueue<Invalidation> invalidations = new LinkedBlockingQueue<>();
+        int listenerId = topic.addListener(Invalidation.class, (channel, invalidation) -> {
+            if (Account.class.getName().equals(invalidation.getRegion())) {
+                invalidations.add(invalidation);
+            }
+        });
+
+        try {
+            // when
+            transactionTemplate.executeWithoutResult(status -> {
+                Account account = accountRepository.findById(accountId).orElseThrow();
+                account.useBalance(1000L);
+            });
+
+            // then
+            Invalidation invalidation = invalidations.poll(5, TimeUnit.SECONDS);
+            assertThat(invalidation).isNotNull();
+            assertThat(invalidation.getKey()).isEqualTo(cacheKey(accountId));
+        } finally {
+            topic.removeListener(listenerId);
+        }
+    }
+
+    private Long saveAccount() {
+        return transactionTemplate.execute(status -> accountRepository.save(Account.builder()
+                .accountUser(accountUserRepository.getReferenceById(1L))
+                .accountNumber(String.valueOf(ACCOUNT_SEQUENCE.incrementAndGet()))
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .build()).getId());
+    }
+
+    private Account findAccount(Long accountId) {
+        return transactionTemplate.execute(status -> accountRepository.findById(accountId).orElseThrow());
+    }
+
+    private Object cacheKey(Long accountId) {
+        EntityPersister persister = sessionFactory.getMetamodel().entityPersister(Account.class);
+        return persister.getCacheAccessStrategy().generateCacheKey(accountId, persister, sessionFactory, null);
+    }
+
+    private boolean awaitEvicted(Long accountId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (System.currentTimeMillis() < deadline) {
+            if (!sessionFactory.getCache().containsEntity(Account.class, accountId)) {
+                return true;
+            }
+            Thread.sleep(50L);
+        }
+        return false;
+    }
+
+}
@@ -2,6 +2,7 @@ package com.zero.account.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.zero.account.dto.AccountDto;
+import com.zero.account.dto.AccountInfo;
 import com.zero.account.service.AccountService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -39,7 +40,8 @@ class AccountControllerTest {
     @Test
     void createAccount() throws Exception {
         // given
-        given(accountService.createAccount(anyLong(), any()))
+        given(accountService.reserveAccountNumber(anyLong())).willReturn("123");
+        given(accountService.createAccount(anyLong(), any(), any()))
                 .willReturn(AccountDto.builder()
                         .userId(1L)
                         .accountNumber("123")
@@ -92,11 +94,11 @@ class AccountControllerTest {
         // given
         given(accountService.selectAccounts(anyLong()))
                 .willReturn(Arrays.asList(
-                        AccountDto.builder()
+                        AccountInfo.builder()
                                 .accountNumber("123")
                                 .balance(500L)
                                 .build(),
-                        AccountDto.builder()
+                        AccountInfo.builder()
                                 .accountNumber("12345")
                                 .balance(5000L)
                                 .build()));
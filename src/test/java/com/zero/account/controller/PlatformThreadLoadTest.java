@@ -0,0 +1,172 @@
+package com.zero.account.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zero.account.domain.Account;
+import com.zero.account.domain.Transaction;
+import com.zero.account.dto.TransactionCancel;
+import com.zero.account.dto.TransactionUse;
+import com.zero.account.repository.AccountRepository;
+import com.zero.account.repository.AccountUserRepository;
+import com.zero.account.repository.TransactionRepository;
+import com.zero.account.service.LockMetrics;
+import com.zero.account.type.AccountStatus;
+import com.zero.account.type.TransactionResultStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 결제/취소 API 의 lock 구간(3 초 지연 포함)에서 요청 스레드가 멈춰 있을 때 동시에 처리할 수 있는 요청 수를 측정한다
+// 계좌마다 요청을 하나씩 보내서 lock 경합 없이 스레드 수만 제한이 되도록 한다 (동시 처리 수 = 잡혀 있는 계좌 lock 수)
+// 실행 : LOAD_TEST=true ./gradlew test --tests '*PlatformThreadLoadTest'
+@EnabledIfEnvironmentVariable(named = "LOAD_TEST", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.redis.port=6391",
+        "server.tomcat.threads.max=" + PlatformThreadLoadTest.PLATFORM_THREADS,
+        "spring.jpa.properties.hibernate.show_sql=false"})
+class PlatformThreadLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PlatformThreadLoadTest.class);
+
+    static final int PLATFORM_THREADS = 200;
+    private static final int REQUESTS = 1000;
+    private static final long TRANSACTION_AMOUNT = 1000L;
+    private static final long INITIAL_BALANCE = 10000L;
+    // 같은 H2 메모리 DB 를 쓰는 다른 테스트의 계좌 번호와 겹치지 않도록
+    private static final AtomicLong ACCOUNT_SEQUENCE = new AtomicLong(8_000_000_000L);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private LockMetrics lockMetrics;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @DisplayName("결제/취소 동시 요청 처리량")
+    @Test
+    void concurrentRequests() {
+        // given
+        List<String> accountNumbers = createAccounts();
+
+        // when
+        List<TransactionUse.Response> useResponses = run("use", accountNumbers, accountNumber ->
+                post("/transaction/use.do",
+                        new TransactionUse.Request(1L, accountNumber, TRANSACTION_AMOUNT),
+                        TransactionUse.Response.class));
+        Map<String, Long> transactionIds = transactionRepository.findAll().stream()
+                .filter(transaction -> accountNumbers.contains(transaction.getAccountNumber()))
+                .collect(Collectors.toMap(Transaction::getAccountNumber, Transaction::getId));
+        List<TransactionCancel.Response> cancelResponses = run("cancel", accountNumbers, accountNumber ->
+                post("/transaction/cancel.do",
+                        new TransactionCancel.Request(
+                                transactionIds.get(accountNumber), accountNumber, TRANSACTION_AMOUNT),
+                        TransactionCancel.Response.class));
+
+        // then
+        assertThat(useResponses).extracting(TransactionUse.Response::getTransactionResultStatus)
+                .containsOnly(TransactionResultStatus.SUCCEED);
+        assertThat(cancelResponses).extracting(TransactionCancel.Response::getTransactionResultStatus)
+                .containsOnly(TransactionResultStatus.SUCCEED);
+        assertThat(accountRepository.findAllByAccountNumberIn(accountNumbers))
+                .extracting(Account::getBalance)
+                .containsOnly(INITIAL_BALANCE);
+    }
+
+    private <T> List<T> run(String name, List<String> accountNumbers,
+                            Function<String, CompletableFuture<T>> request) {
+        AtomicInteger peakInFlight = new AtomicInteger();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> peakInFlight.accumulateAndGet(
+                lockMetrics.getHeldLocks().size(), Math::max), 0L, 50L, TimeUnit.MILLISECONDS);
+
+        long startedAt = System.nanoTime();
+        List<T> responses;
+        try {
+            List<CompletableFuture<T>> futures = accountNumbers.stream()
+                    .map(request)
+                    .collect(Collectors.toList());
+            responses = futures.stream()
+                    .map(CompletableFuture::join)
+                    .collect(Collectors.toList());
+        } finally {
+            sampler.shutdownNow();
+        }
+        long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+
+        log.info("[{}] requests={}, elapsed={}ms, throughput={}/s, peak in-flight={}",
+                name, REQUESTS, elapsedMillis, REQUESTS * 1000L / elapsedMillis,
+                peakInFlight.get());
+        assertThat(responses).hasSize(REQUESTS);
+        // Tomcat 스레드 수 이상은 동시에 처리하지 못하고 accept 큐에서 기다린다
+        assertThat(peakInFlight.get()).isLessThanOrEqualTo(PLATFORM_THREADS);
+        return responses;
+    }
+
+    private <T> CompletableFuture<T> post(String path, Object body, Class<T> responseType) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                    .build();
+            return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .thenApply(response -> {
+                        assertThat(response.statusCode()).isEqualTo(200);
+                        try {
+                            return objectMapper.readValue(response.body(), responseType);
+                        } catch (Exception e) {
+                            throw new IllegalStateException(response.body(), e);
+                        }
+                    });
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<String> createAccounts() {
+        List<String> accountNumbers = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            String accountNumber = String.valueOf(ACCOUNT_SEQUENCE.incrementAndGet());
+            accountRepository.save(Account.builder()
+                    .accountUser(accountUserRepository.getReferenceById(1L))
+                    .accountNumber(accountNumber)
+                    .accountStatus(AccountStatus.IN_USE)
+                    .balance(INITIAL_BALANCE)
+                    .openingBalance(INITIAL_BALANCE)
+                    .build());
+            accountNumbers.add(accountNumber);
+        }
+        return accountNumbers;
+    }
+
+}
@@ -2,10 +2,18 @@ package com.zero.account.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.zero.account.dto.TransactionDto;
+import com.zero.account.dto.TransactionHistory;
 import com.zero.account.dto.TransactionInfo;
 import com.zero.account.exception.AccountException;
+import com.zero.account.dto.TransactionUseBatch;
+import com.zero.account.service.FailedTransactionRecorder;
+import com.zero.account.service.TransactionBatchService;
+import com.zero.account.service.TransactionETagCache;
+import com.zero.account.service.TransactionExportService;
+import com.zero.account.service.TransactionSequencer;
 import com.zero.account.service.TransactionService;
 import com.zero.account.type.ErrorCode;
+import com.zero.account.type.ExportFormat;
 import com.zero.account.type.TransactionResultStatus;
 import com.zero.account.type.TransactionStatus;
 import org.junit.jupiter.api.DisplayName;
@@ -13,27 +21,47 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(TransactionController.class)
+@Import({TransactionSequencer.class, TransactionETagCache.class})
 class TransactionControllerTest {
 
     @MockBean
     private TransactionService transactionService;
 
+    @MockBean
+    private TransactionBatchService transactionBatchService;
+
+    @MockBean
+    private FailedTransactionRecorder failedTransactionRecorder;
+
+    @MockBean
+    private TransactionExportService transactionExportService;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -63,9 +91,12 @@ class TransactionControllerTest {
         // when
 
         // then
-        mockMvc.perform(post("/transaction/use.do")
+        MvcResult mvcResult = mockMvc.perform(post("/transaction/use.do")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(input)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andDo(print())
                 .andExpect(jsonPath("$.userId").value(1L))
                 .andExpect(jsonPath("$.transactionAmount")
@@ -77,6 +108,78 @@ class TransactionControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @DisplayName("금액 사용 거래 실패 시 실패 거래를 기록하고 에러 응답")
+    @Test
+    void failTransactionUse() throws Exception {
+        // given
+        given(transactionService.transactionUse(any(), any(), any()))
+                .willThrow(new AccountException(ErrorCode.INSUFFICIENT_BALANCE));
+        Map<String, Object> input = new HashMap<>();
+        input.put("userId", 1L);
+        input.put("accountNumber", "12345");
+        input.put("transactionAmount", 5000L);
+
+        // when
+        MvcResult mvcResult = mockMvc.perform(post("/transaction/use.do")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(input)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andDo(print())
+                .andExpect(jsonPath("$.errorCode").value("INSUFFICIENT_BALANCE"));
+        verify(failedTransactionRecorder, times(1))
+                .record("12345", 5000L, TransactionStatus.APPROVAL);
+    }
+
+    @DisplayName("금액 사용 거래 일괄 처리")
+    @Test
+    void successTransactionUseBatch() throws Exception {
+        // given
+        given(transactionBatchService.transactionUseBatch(anyList())).willReturn(
+                Arrays.asList(
+                        TransactionUseBatch.Result.builder()
+                                .transactionId(1L)
+                                .accountNumber("12345")
+                                .transactionResultStatus(TransactionResultStatus.SUCCEED)
+                                .transactionAmount(5000L)
+                                .build(),
+                        TransactionUseBatch.Result.builder()
+                                .transactionId(2L)
+                                .accountNumber("12345")
+                                .transactionResultStatus(TransactionResultStatus.FAILED)
+                                .transactionAmount(9000L)
+                                .errorCode(ErrorCode.INSUFFICIENT_BALANCE)
+                                .build()));
+        Map<String, Object> first = new HashMap<>();
+        first.put("userId", 1L);
+        first.put("accountNumber", "12345");
+        first.put("transactionAmount", 5000L);
+        Map<String, Object> second = new HashMap<>();
+        second.put("userId", 1L);
+        second.put("accountNumber", "12345");
+        second.put("transactionAmount", 9000L);
+        Map<String, Object> input = new HashMap<>();
+        input.put("transactions", List.of(first, second));
+
+        // when
+
+        // then
+        mockMvc.perform(post("/transaction/use-batch.do")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(input)))
+                .andDo(print())
+                .andExpect(jsonPath("$.results[0].transactionResultStatus")
+                        .value("SUCCEED"))
+                .andExpect(jsonPath("$.results[1].transactionResultStatus")
+                        .value("FAILED"))
+                .andExpect(jsonPath("$.results[1].errorCode")
+                        .value("INSUFFICIENT_BALANCE"))
+                .andExpect(status().isOk());
+    }
+
     @DisplayName("사용 거래 취소")
     @Test
     void successTransactionCancel() throws Exception {
@@ -99,9 +202,12 @@ class TransactionControllerTest {
         // when
 
         // then
-        mockMvc.perform(post("/transaction/cancel.do")
+        MvcResult mvcResult = mockMvc.perform(post("/transaction/cancel.do")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(input)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andDo(print())
                 .andExpect(jsonPath("$.transactionId").value(1L))
                 .andExpect(jsonPath("$.transactionAmount")
@@ -143,8 +249,96 @@ class TransactionControllerTest {
                         .value("12345"))
                 .andExpect(jsonPath("$.transactionResultStatus")
                         .value("FAILED"))
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().string("Cache-Control", containsString("immutable")))
                 .andExpect(status().isOk());
     }
 
+    @DisplayName("거래 조회 - ETag 가 같으면 DB 조회 없이 304")
+    @Test
+    void notModifiedSelectTransaction() throws Exception {
+        // given
+        given(transactionService.selectTransaction(any())).willReturn(
+                TransactionInfo.builder()
+                        .transactionId(2L)
+                        .accountNumber("12345")
+                        .transactionStatus(TransactionStatus.APPROVAL)
+                        .transactionResultStatus(TransactionResultStatus.SUCCEED)
+                        .transactionAmount(5000L)
+                        .registeredAt(LocalDateTime.now())
+                        .build()
+        );
+        String eTag = mockMvc.perform(get("/transactions/2"))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        // when
+
+        // then
+        mockMvc.perform(get("/transactions/2")
+                        .header("If-None-Match", eTag))
+                .andDo(print())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(status().isNotModified());
+        verify(transactionService, times(1)).selectTransaction(2L);
+    }
+
+    @DisplayName("거래 내역 조회")
+    @Test
+    void successSelectTransactionHistory() throws Exception {
+        // given
+        given(transactionService.selectTransactionHistory(
+                anyString(), any(), anyInt(), any(), any())).willReturn(
+                TransactionHistory.Response.builder()
+                        .transactions(List.of(TransactionInfo.builder()
+                                .transactionId(3L)
+                                .accountNumber("12345")
+                                .transactionStatus(TransactionStatus.APPROVAL)
+                                .transactionResultStatus(TransactionResultStatus.SUCCEED)
+                                .transactionAmount(1000L)
+                                .registeredAt(LocalDateTime.now())
+                                .build()))
+                        .nextCursor("next")
+                        .build());
+
+        // when
+
+        // then
+        mockMvc.perform(get("/accounts/12345/transactions")
+                        .param("size", "1")
+                        .param("transactionStatus", "APPROVAL"))
+                .andDo(print())
+                .andExpect(jsonPath("$.transactions[0].transactionId").value(3L))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(status().isOk());
+        verify(transactionService).selectTransactionHistory(
+                "12345", null, 1, TransactionStatus.APPROVAL, null);
+    }
+
+    @DisplayName("거래 내역 export - 하루 단위 기간으로 스트리밍")
+    @Test
+    void exportTransactions() throws Exception {
+        // given
+
+        // when
+        MvcResult mvcResult = mockMvc.perform(get("/transactions/export")
+                        .param("from", "2022-01-01")
+                        .param("to", "2022-01-31")
+                        .param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(header().string("Content-Type", "text/csv"))
+                .andExpect(status().isOk());
+        verify(transactionExportService).export(
+                eq(LocalDateTime.of(2022, 1, 1, 0, 0)),
+                eq(LocalDateTime.of(2022, 2, 1, 0, 0)),
+                eq(ExportFormat.CSV),
+                eq(false),
+                any());
+    }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,81 @@
+package com.zero.account.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TimeOrderedIdGeneratorTest {
+
+    @DisplayName("여러 스레드에서 생성해도 중복 없이 노드 id 를 포함")
+    @Test
+    void uniqueAcrossThreads() throws Exception {
+        // given
+        TimeOrderedIdGenerator timeOrderedIdGenerator = new TimeOrderedIdGenerator(7);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        List<Future<List<Long>>> futures = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < 8; i++) {
+            futures.add(executorService.submit(() -> {
+                List<Long> ids = new ArrayList<>();
+                for (int j = 0; j < 10000; j++) {
+                    ids.add(timeOrderedIdGenerator.nextId());
+                }
+                return ids;
+            }));
+        }
+        Set<Long> ids = new HashSet<>();
+        for (Future<List<Long>> future : futures) {
+            ids.addAll(future.get());
+        }
+        executorService.shutdown();
+
+        // then
+        assertThat(ids).hasSize(80000);
+        assertThat(ids).allMatch(id -> TimeOrderedIdGenerator.getNodeId(id) == 7);
+    }
+
+    @DisplayName("시계가 뒤로 가거나 순번을 다 써도 계속 증가")
+    @Test
+    void increaseWhenClockMovesBackward() {
+        // given
+        long[] now = {TimeOrderedIdGenerator.EPOCH + 1000L};
+        TimeOrderedIdGenerator timeOrderedIdGenerator = new TimeOrderedIdGenerator(1) {
+            @Override
+            protected long currentTimeMillis() {
+                return now[0];
+            }
+        };
+
+        // when
+        long previous = timeOrderedIdGenerator.nextId();
+        now[0] -= 500L;
+        boolean increasing = true;
+        for (int i = 0; i < 10000; i++) {
+            long id = timeOrderedIdGenerator.nextId();
+            increasing &= id > previous;
+            previous = id;
+        }
+
+        // then
+        assertThat(increasing).isTrue();
+    }
+
+    @DisplayName("노드 id 범위 검증")
+    @Test
+    void invalidNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new TimeOrderedIdGenerator(1024));
+        assertThrows(IllegalArgumentException.class, () -> new TimeOrderedIdGenerator(-1));
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.zero.account.service;
+
+import com.zero.account.domain.AccountNumberBlock;
+import com.zero.account.repository.AccountNumberBlockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AccountNumberAllocatorTest {
+
+    @Mock
+    private AccountNumberBlockRepository accountNumberBlockRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AccountNumberAllocator accountNumberAllocator;
+
+    @BeforeEach
+    void setUp() {
+        accountNumberAllocator = new AccountNumberAllocator(
+                accountNumberBlockRepository, transactionManager,
+                new ShardRouter(false, List.of()), 10, 20220101L);
+    }
+
+    @DisplayName("구간을 다 쓸 때만 DB 에서 다음 구간을 예약")
+    @Test
+    void reserveBlockOnlyWhenExhausted() {
+        // given
+        AccountNumberBlock accountNumberBlock = new AccountNumberBlock("account_number", 0L);
+        given(accountNumberBlockRepository.findForUpdate(anyString()))
+                .willReturn(Optional.of(accountNumberBlock));
+
+        // when
+        Set<String> accountNumbers = new HashSet<>();
+        for (int i = 0; i < 25; i++) {
+            accountNumbers.add(accountNumberAllocator.next());
+        }
+
+        // then
+        verify(accountNumberBlockRepository, times(3)).findForUpdate("account_number");
+        assertThat(accountNumberBlock.getNextValue()).isEqualTo(30L);
+        assertThat(accountNumbers).hasSize(25);
+        assertThat(accountNumbers).allMatch(accountNumber ->
+                accountNumber.length() == 10 && !accountNumber.startsWith("0"));
+    }
+
+    @DisplayName("순번이 다르면 계좌 번호도 다르고 범위를 벗어나지 않음")
+    @Test
+    void permuteIsInjective() {
+        // given
+        Set<Long> permuted = new HashSet<>();
+
+        // when
+        for (long value = 0; value < 1_000_000L; value++) {
+            permuted.add(AccountNumberAllocator.permute(value, 20220101L));
+        }
+
+        // then
+        assertThat(permuted).hasSize(1_000_000);
+        assertThat(permuted).allMatch(value -> value >= 0 && value < 9_000_000_000L);
+        assertThat(AccountNumberAllocator.permute(8_999_999_999L, 20220101L)).isLessThan(9_000_000_000L);
+    }
+
+}
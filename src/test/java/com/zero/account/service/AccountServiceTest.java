@@ -2,7 +2,9 @@ package com.zero.account.service;
 
 import com.zero.account.domain.Account;
 import com.zero.account.domain.AccountUser;
+import com.zero.account.dto.AccountBalance;
 import com.zero.account.dto.AccountDto;
+import com.zero.account.dto.AccountInfo;
 import com.zero.account.exception.AccountException;
 import com.zero.account.repository.AccountRepository;
 import com.zero.account.repository.AccountUserRepository;
@@ -13,6 +15,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
@@ -24,6 +27,8 @@ import static com.zero.account.type.ErrorCode.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class AccountServiceTest {
@@ -32,6 +37,19 @@ class AccountServiceTest {
     private AccountRepository accountRepository;
     @Mock
     private AccountUserRepository accountUserRepository;
+    @Mock
+    private RedisBalanceEngine redisBalanceEngine;
+    @Mock
+    private AccountNumberAllocator accountNumberAllocator;
+    @Mock
+    private AccountSummaryCache accountSummaryCache;
+    @Mock
+    private BalanceLedger balanceLedger;
+    @Mock
+    private RecentWriteTracker recentWriteTracker;
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(false, List.of());
+
     @InjectMocks
     private AccountService accountService;
 
@@ -51,12 +69,16 @@ class AccountServiceTest {
         account.setId(1L);
         given(accountUserRepository.findById(any())).willReturn(Optional.of(accountUser));
         given(accountRepository.countByAccountUserId(any())).willReturn(Optional.of(0L));
+        given(accountNumberAllocator.next()).willReturn("1234");
         given(accountRepository.save(any())).willReturn(account);
 
         // when
-        AccountDto getAccount = accountService.createAccount(1L, 1000L);
+        String accountNumber = accountService.reserveAccountNumber(1L);
+        AccountDto getAccount = accountService.createAccount(1L, accountNumber, 1000L);
 
         // then
+        verify(accountRepository, never()).existsByAccountNumber(anyString());
+        assertThat(accountNumber).isEqualTo("1234");
         assertThat(getAccount.getUserId()).isEqualTo(1L);
         assertThat(getAccount.getBalance()).isEqualTo(1000L);
         assertThat(getAccount.getAccountStatus()).isEqualTo(AccountStatus.IN_USE);
@@ -71,7 +93,7 @@ class AccountServiceTest {
 
         // when
         AccountException exception = Assertions.assertThrows(AccountException.class,
-                () -> accountService.createAccount(1L, 100L));
+                () -> accountService.reserveAccountNumber(1L));
 
         // then
         assertThat(exception.getErrorMessage()).isEqualTo(USER_NOT_FOUND.getDescription());
@@ -110,10 +132,11 @@ class AccountServiceTest {
 
         // when
         AccountException exception = Assertions.assertThrows(AccountException.class, () ->
-                accountService.createAccount(1L, 100L));
+                accountService.reserveAccountNumber(1L));
 
         // then
         assertThat(exception.getErrorMessage()).isEqualTo(TO_MANY_ACCOUNT.getDescription());
+        verify(accountNumberAllocator, never()).next();
 
     }
 
@@ -344,4 +367,63 @@ class AccountServiceTest {
         assertThat(accounts.get(2).getAccountUser().getId()).isEqualTo(1L);
     }
 
-}
\ No newline at end of file
+    @DisplayName("계좌 조회 - 캐시에 있으면 DB 조회 안함")
+    @Test
+    void selectAccountFromCache() {
+        // given
+        List<AccountInfo> accountInfos = List.of(new AccountInfo("1000000012", 1000L));
+        given(accountSummaryCache.isEnabled()).willReturn(true);
+        given(accountSummaryCache.get(anyLong(), any())).willReturn(accountInfos);
+
+        // when
+        List<AccountInfo> getAccountInfos = accountService.selectAccounts(1L);
+
+        // then
+        assertThat(getAccountInfos).isEqualTo(accountInfos);
+        verify(accountUserRepository, never()).findById(anyLong());
+        verify(accountRepository, never()).findAccountInfosByAccountUserId(anyLong());
+    }
+
+    @DisplayName("잔액 조회 - 시점 지정, ledger 모드")
+    @Test
+    void selectBalanceAt() {
+        // given
+        Account account = Account.builder()
+                .accountNumber("1000000012")
+                .balance(5000L)
+                .openingBalance(10000L)
+                .snapshotTransactionId(3L)
+                .build();
+        account.setId(1L);
+        LocalDateTime at = LocalDateTime.of(2022, 1, 1, 0, 0);
+        given(accountRepository.findByAccountNumber(anyString())).willReturn(Optional.of(account));
+        given(balanceLedger.getBalanceAt(account, at)).willReturn(7000L);
+
+        // when
+        AccountBalance accountBalance = accountService.selectBalance("1000000012", at);
+
+        // then
+        assertThat(accountBalance.getBalance()).isEqualTo(7000L);
+        assertThat(accountBalance.getAt()).isEqualTo(at);
+    }
+
+    @DisplayName("잔액 조회 실패 - 개설 잔액이 없는 계좌는 과거 시점 조회 불가")
+    @Test
+    void failedSelectBalanceAtWithoutOpeningBalance() {
+        // given
+        Account account = Account.builder()
+                .accountNumber("1000000012")
+                .balance(5000L)
+                .build();
+        account.setId(1L);
+        given(accountRepository.findByAccountNumber(anyString())).willReturn(Optional.of(account));
+
+        // when
+        AccountException exception = Assertions.assertThrows(AccountException.class,
+                () -> accountService.selectBalance("1000000012", LocalDateTime.now()));
+
+        // then
+        assertThat(exception.getErrorCode()).isEqualTo(BALANCE_HISTORY_NOT_AVAILABLE);
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.zero.account.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zero.account.dto.AccountInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RMap;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisConnectionException;
+import org.redisson.client.codec.Codec;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AccountSummaryCacheTest {
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RMap<String, String> rMap;
+
+    @Mock
+    private RScript rScript;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @DisplayName("Redis 장애 시 DB 에서 읽어서 응답")
+    @Test
+    void loadWhenRedisIsDown() {
+        // given
+        AccountSummaryCache accountSummaryCache = createCache(5000L);
+        given(redissonClient.<String, String>getMap(anyString(), any(Codec.class))).willReturn(rMap);
+        given(rMap.getAll(any())).willThrow(new RedisConnectionException("redis down"));
+
+        // when
+        List<AccountInfo> accountInfos = accountSummaryCache.get(1L, () -> accountInfos(1000L));
+
+        // then
+        assertThat(accountInfos).extracting(AccountInfo::getBalance).containsExactly(1000L);
+    }
+
+    @DisplayName("near cache 는 local-ttl-millis 가 지나면 Redis 에서 다시 읽음")
+    @Test
+    void expireLocalEntry() throws Exception {
+        // given
+        AccountSummaryCache accountSummaryCache = createCache(0L);
+        given(redissonClient.<String, String>getMap(anyString(), any(Codec.class))).willReturn(rMap);
+        given(rMap.getAll(any())).willReturn(Map.of(
+                "value", objectMapper.writeValueAsString(accountInfos(1000L)), "generation", "1"));
+
+        // when
+        accountSummaryCache.get(1L, () -> accountInfos(0L));
+        List<AccountInfo> accountInfos = accountSummaryCache.get(1L, () -> accountInfos(0L));
+
+        // then
+        verify(rMap, times(2)).getAll(any());
+        assertThat(accountInfos).extracting(AccountInfo::getBalance).containsExactly(1000L);
+    }
+
+    @DisplayName("만료 전에는 near cache 에서 응답")
+    @Test
+    void returnLocalEntryBeforeExpiry() {
+        // given
+        AccountSummaryCache accountSummaryCache = createCache(60000L);
+        given(redissonClient.<String, String>getMap(anyString(), any(Codec.class))).willReturn(rMap);
+        given(redissonClient.getScript(any(Codec.class))).willReturn(rScript);
+        given(rMap.getAll(any())).willReturn(Map.of());
+
+        // when
+        accountSummaryCache.get(1L, () -> accountInfos(1000L));
+        List<AccountInfo> accountInfos = accountSummaryCache.get(1L, () -> accountInfos(0L));
+
+        // then
+        verify(rMap, times(1)).getAll(any());
+        assertThat(accountInfos).extracting(AccountInfo::getBalance).containsExactly(1000L);
+    }
+
+    private AccountSummaryCache createCache(long localTtlMillis) {
+        return new AccountSummaryCache(redissonClient, objectMapper, false, 100, 60L, localTtlMillis);
+    }
+
+    private List<AccountInfo> accountInfos(Long balance) {
+        return List.of(AccountInfo.builder()
+                .accountNumber("1234567890")
+                .balance(balance)
+                .build());
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.zero.account.service;
+
+import com.zero.account.repository.AccountRepository;
+import com.zero.account.repository.BalanceSnapshotRepository;
+import com.zero.account.repository.TransactionRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceLedgerTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @DisplayName("ledger 모드는 optimistic endpoint 와 같이 쓸 수 없음")
+    @Test
+    void rejectOptimisticEndpoints() {
+        // given
+        Set<String> optimisticEndpoints = Set.of("/transaction/use.do");
+
+        // when
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> createBalanceLedger(optimisticEndpoints, false));
+
+        // then
+        assertThat(exception.getMessage()).contains("optimistic");
+    }
+
+    @DisplayName("ledger 모드는 sequencer 와 같이 쓸 수 없음")
+    @Test
+    void rejectSequencer() {
+        // given
+        Set<String> optimisticEndpoints = Collections.emptySet();
+
+        // when
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> createBalanceLedger(optimisticEndpoints, true));
+
+        // then
+        assertThat(exception.getMessage()).contains("sequencer");
+    }
+
+    private BalanceLedger createBalanceLedger(Set<String> optimisticEndpoints, boolean sequencerEnabled) {
+        return new BalanceLedger(accountRepository, transactionRepository, balanceSnapshotRepository,
+                true, false, false, optimisticEndpoints, sequencerEnabled);
+    }
+
+}
@@ -0,0 +1,142 @@
+package com.zero.account.service;
+
+import com.zero.account.dto.FailedTransaction;
+import com.zero.account.type.OverflowPolicy;
+import com.zero.account.type.TransactionStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FailedTransactionRecorderTest {
+
+    @Mock
+    private TransactionService transactionService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private FailedTransactionRecorder failedTransactionRecorder;
+
+    @AfterEach
+    void tearDown() {
+        failedTransactionRecorder.shutdown();
+    }
+
+    @DisplayName("비활성화면 요청 스레드에서 바로 저장")
+    @Test
+    void recordSynchronouslyWhenDisabled() {
+        // given
+        failedTransactionRecorder = createRecorder(false, 10, OverflowPolicy.CALLER_RUNS);
+
+        // when
+        failedTransactionRecorder.record("12345", 1000L, TransactionStatus.APPROVAL);
+
+        // then
+        verify(transactionService).createFailedTransaction("12345", 1000L, TransactionStatus.APPROVAL);
+        verify(transactionService, never()).createFailedTransactions(any());
+    }
+
+    @DisplayName("큐에 모아서 batch 단위로 저장")
+    @Test
+    void flushInBatches() {
+        // given
+        failedTransactionRecorder = createRecorder(true, 10, OverflowPolicy.CALLER_RUNS);
+        List<Integer> batchSizes = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<FailedTransaction> failedTransactions = invocation.getArgument(0);
+            batchSizes.add(failedTransactions.size());
+            return null;
+        }).when(transactionService).createFailedTransactions(any());
+        for (int i = 0; i < 5; i++) {
+            failedTransactionRecorder.record("12345", 1000L, TransactionStatus.APPROVAL);
+        }
+
+        // when
+        failedTransactionRecorder.flush();
+
+        // then
+        verify(transactionService, never()).createFailedTransaction(any(), any(), any());
+        assertThat(batchSizes).containsExactly(2, 2, 1);
+    }
+
+    @DisplayName("batch 저장이 실패하면 한 건씩 저장하고 저장할 수 없는 건만 버림")
+    @Test
+    void recordOneByOneWhenBatchFails() {
+        // given
+        failedTransactionRecorder = createRecorder(true, 10, OverflowPolicy.CALLER_RUNS);
+        doThrow(new IllegalStateException("constraint violation"))
+                .when(transactionService).createFailedTransactions(any());
+        doAnswer(invocation -> {
+            if (invocation.getArgument(1).equals(2000L)) {
+                throw new IllegalStateException("constraint violation");
+            }
+            return null;
+        }).when(transactionService).createFailedTransaction(any(), any(), any());
+        failedTransactionRecorder.record("12345", 1000L, TransactionStatus.APPROVAL);
+        failedTransactionRecorder.record("12345", 2000L, TransactionStatus.APPROVAL);
+
+        // when
+        failedTransactionRecorder.flush();
+
+        // then
+        verify(transactionService).createFailedTransaction("12345", 1000L, TransactionStatus.APPROVAL);
+        verify(transactionService).createFailedTransaction("12345", 2000L, TransactionStatus.APPROVAL);
+        assertThat(meterRegistry.counter("account.transaction.failures.dropped").count())
+                .isEqualTo(1.0);
+    }
+
+    @DisplayName("큐가 가득 차면 CALLER_RUNS 는 바로 저장")
+    @Test
+    void callerRunsOnOverflow() {
+        // given
+        failedTransactionRecorder = createRecorder(true, 1, OverflowPolicy.CALLER_RUNS);
+
+        // when
+        failedTransactionRecorder.record("12345", 1000L, TransactionStatus.APPROVAL);
+        failedTransactionRecorder.record("12345", 2000L, TransactionStatus.APPROVAL);
+
+        // then
+        verify(transactionService).createFailedTransaction("12345", 2000L, TransactionStatus.APPROVAL);
+    }
+
+    @DisplayName("큐가 가득 차면 DROP 은 버리고 개수를 기록")
+    @Test
+    void dropOnOverflow() {
+        // given
+        failedTransactionRecorder = createRecorder(true, 1, OverflowPolicy.DROP);
+        ArgumentCaptor<List<FailedTransaction>> captor = ArgumentCaptor.forClass(List.class);
+
+        // when
+        failedTransactionRecorder.record("12345", 1000L, TransactionStatus.APPROVAL);
+        failedTransactionRecorder.record("12345", 2000L, TransactionStatus.APPROVAL);
+        failedTransactionRecorder.flush();
+
+        // then
+        verify(transactionService, never()).createFailedTransaction(any(), any(), any());
+        verify(transactionService).createFailedTransactions(captor.capture());
+        assertThat(captor.getValue()).extracting(FailedTransaction::getTransactionAmount)
+                .containsExactly(1000L);
+        assertThat(meterRegistry.counter("account.transaction.failures.dropped").count())
+                .isEqualTo(1.0);
+    }
+
+    private FailedTransactionRecorder createRecorder(
+            boolean enabled, int queueCapacity, OverflowPolicy overflowPolicy) {
+        return new FailedTransactionRecorder(
+                transactionService, new ShardRouter(false, List.of()), meterRegistry,
+                enabled, queueCapacity, overflowPolicy, 2, 60000L);
+    }
+
+}
@@ -0,0 +1,237 @@
+package com.zero.account.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zero.account.aop.Idempotent;
+import com.zero.account.controller.TransactionController;
+import com.zero.account.dto.IdempotentResult;
+import com.zero.account.dto.TransactionUse;
+import com.zero.account.exception.AccountException;
+import com.zero.account.type.ErrorCode;
+import com.zero.account.type.TransactionResultStatus;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyAspectTest {
+
+    @Mock
+    private IdempotencyCache idempotencyCache;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Mock
+    private ProceedingJoinPoint proceedingJoinPoint;
+
+    @Mock
+    private MethodSignature methodSignature;
+
+    @Mock
+    private Idempotent idempotent;
+
+    @InjectMocks
+    private IdempotencyAspect idempotencyAspect;
+
+    private final TransactionUse.Request request = new TransactionUse.Request(1L, "12345", 1000L);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest();
+        servletRequest.addHeader(IdempotencyAspect.IDEMPOTENCY_KEY_HEADER, "retry-key");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(servletRequest));
+        lenient().when(proceedingJoinPoint.getSignature()).thenReturn(methodSignature);
+        lenient().when(methodSignature.getName()).thenReturn("transactionUse");
+        lenient().when(methodSignature.getReturnType()).thenReturn(CompletableFuture.class);
+        lenient().when(methodSignature.getMethod()).thenReturn(
+                TransactionController.class.getMethod("transactionUse", TransactionUse.Request.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @DisplayName("Idempotency-Key 가 없으면 그대로 실행")
+    @Test
+    void proceedWithoutKey() throws Throwable {
+        // given
+        RequestContextHolder.resetRequestAttributes();
+
+        // when
+        idempotencyAspect.aroundMethod(proceedingJoinPoint, idempotent, request);
+
+        // then
+        verify(proceedingJoinPoint, times(1)).proceed();
+        verifyNoInteractions(idempotencyCache);
+    }
+
+    @DisplayName("저장된 결과가 있으면 실행하지 않고 응답")
+    @Test
+    void returnCachedResult() throws Throwable {
+        // given
+        String cachedResponse = objectMapper.writeValueAsString(response());
+        given(idempotencyCache.get(anyString())).willReturn(Optional.of(new IdempotentResult(
+                cachedResponse, null, null)));
+
+        // when
+        Object result = idempotencyAspect.aroundMethod(proceedingJoinPoint, idempotent, request);
+
+        // then
+        verify(proceedingJoinPoint, never()).proceed();
+        TransactionUse.Response response = (TransactionUse.Response)
+                ((CompletableFuture<?>) result).join();
+        assertThat(response.getAccountNumber()).isEqualTo("12345");
+        assertThat(response.getTransactionResultStatus()).isEqualTo(TransactionResultStatus.SUCCEED);
+    }
+
+    @DisplayName("처리 결과를 저장")
+    @Test
+    void storeResult() throws Throwable {
+        // given
+        ArgumentCaptor<IdempotentResult> captor = ArgumentCaptor.forClass(IdempotentResult.class);
+        given(idempotencyCache.get(anyString())).willReturn(Optional.empty());
+        given(idempotencyCache.markInProgress(anyString())).willReturn(true);
+        given(proceedingJoinPoint.proceed()).willReturn(CompletableFuture.completedFuture(response()));
+
+        // when
+        idempotencyAspect.aroundMethod(proceedingJoinPoint, idempotent, request);
+
+        // then
+        verify(idempotencyCache).put(eq("transactionUse : 12345 : retry-key"), captor.capture());
+        assertThat(captor.getValue().getResponse()).contains("\"accountNumber\":\"12345\"");
+        assertThat(captor.getValue().getRequestHash()).isNotNull();
+    }
+
+    @DisplayName("같은 키로 금액이 다른 요청은 저장된 결과를 돌려주지 않고 실패")
+    @Test
+    void rejectReusedKeyWithDifferentRequest() throws Throwable {
+        // given
+        ArgumentCaptor<IdempotentResult> captor = ArgumentCaptor.forClass(IdempotentResult.class);
+        given(idempotencyCache.get(anyString())).willReturn(Optional.empty());
+        given(idempotencyCache.markInProgress(anyString())).willReturn(true);
+        given(proceedingJoinPoint.proceed()).willReturn(CompletableFuture.completedFuture(response()));
+        idempotencyAspect.aroundMethod(proceedingJoinPoint, idempotent, request);
+        verify(idempotencyCache).put(anyString(), captor.capture());
+        given(idempotencyCache.get(anyString())).willReturn(Optional.of(captor.getValue()));
+
+        // when
+        CompletableFuture<?> retry = (CompletableFuture<?>) idempotencyAspect.aroundMethod(
+                proceedingJoinPoint, idempotent, request);
+        CompletableFuture<?> reused = (CompletableFuture<?>) idempotencyAspect.aroundMethod(
+                proceedingJoinPoint, idempotent, new TransactionUse.Request(1L, "12345", 2000L));
+
+        // then
+        verify(proceedingJoinPoint, times(1)).proceed();
+        assertThat(((TransactionUse.Response) retry.join()).getTransactionAmount()).isEqualTo(1000L);
+        assertThat(reused.handle((value, e) -> ((AccountException) e).getErrorCode()).join())
+                .isEqualTo(ErrorCode.IDEMPOTENCY_KEY_REUSED);
+    }
+
+    @DisplayName("처리 중인 같은 키로 다른 요청이 오면 결과를 같이 받지 않고 실패")
+    @Test
+    void rejectReusedKeyInFlight() throws Throwable {
+        // given
+        given(idempotencyCache.get(anyString())).willReturn(Optional.empty());
+        given(idempotencyCache.markInProgress(anyString())).willReturn(true);
+        given(proceedingJoinPoint.proceed()).willReturn(new CompletableFuture<>());
+
+        // when
+        idempotencyAspect.aroundMethod(proceedingJoinPoint, idempotent, request);
+        CompletableFuture<?> reused = (CompletableFuture<?>) idempotencyAspect.aroundMethod(
+                proceedingJoinPoint, idempotent, new TransactionUse.Request(1L, "12345", 2000L));
+
+        // then
+        verify(proceedingJoinPoint, times(1)).proceed();
+        assertThat(reused.handle((value, e) -> ((AccountException) e).getErrorCode()).join())
+                .isEqualTo(ErrorCode.IDEMPOTENCY_KEY_REUSED);
+    }
+
+    @DisplayName("lock 실패는 저장하지 않고 다시 시도할 수 있게 함")
+    @Test
+    void doNotStoreLockFailure() throws Throwable {
+        // given
+        given(idempotencyCache.get(anyString())).willReturn(Optional.empty());
+        given(idempotencyCache.markInProgress(anyString())).willReturn(true);
+        given(proceedingJoinPoint.proceed()).willThrow(new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> idempotencyAspect.aroundMethod(proceedingJoinPoint, idempotent, request));
+
+        // then
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        verify(idempotencyCache, never()).put(anyString(), any());
+        verify(idempotencyCache).remove("transactionUse : 12345 : retry-key");
+    }
+
+    @DisplayName("처리 중인 같은 키의 요청은 먼저 들어온 요청의 결과를 같이 받음")
+    @Test
+    void coalesceInFlightRequest() throws Throwable {
+        // given
+        CompletableFuture<TransactionUse.Response> first = new CompletableFuture<>();
+        given(idempotencyCache.get(anyString())).willReturn(Optional.empty());
+        given(idempotencyCache.markInProgress(anyString())).willReturn(true);
+        given(proceedingJoinPoint.proceed()).willReturn(first);
+
+        // when
+        idempotencyAspect.aroundMethod(proceedingJoinPoint, idempotent, request);
+        CompletableFuture<?> duplicate = (CompletableFuture<?>)
+                idempotencyAspect.aroundMethod(proceedingJoinPoint, idempotent, request);
+        first.complete(response());
+
+        // then
+        verify(proceedingJoinPoint, times(1)).proceed();
+        assertThat(((TransactionUse.Response) duplicate.join()).getAccountNumber()).isEqualTo("12345");
+    }
+
+    @DisplayName("다른 노드에서 처리 중이면 처리 중 오류")
+    @Test
+    void inProgressOnOtherNode() throws Throwable {
+        // given
+        given(idempotencyCache.get(anyString())).willReturn(Optional.empty());
+        given(idempotencyCache.markInProgress(anyString())).willReturn(false);
+
+        // when
+        CompletableFuture<?> result = (CompletableFuture<?>)
+                idempotencyAspect.aroundMethod(proceedingJoinPoint, idempotent, request);
+
+        // then
+        verify(proceedingJoinPoint, never()).proceed();
+        assertThat(result).isCompletedExceptionally();
+        assertThat(result.handle((value, e) -> ((AccountException) e).getErrorCode()).join())
+                .isEqualTo(ErrorCode.IDEMPOTENT_REQUEST_IN_PROGRESS);
+    }
+
+    private TransactionUse.Response response() {
+        return TransactionUse.Response.builder()
+                .accountNumber("12345")
+                .transactionResultStatus(TransactionResultStatus.SUCCEED)
+                .transactionAmount(1000L)
+                .build();
+    }
+
+}
@@ -1,9 +1,12 @@
 package com.zero.account.service;
 
+import com.zero.account.aop.AccountLock;
 import com.zero.account.dto.TransactionUse;
 import com.zero.account.exception.AccountException;
 import com.zero.account.type.ErrorCode;
+import com.zero.account.type.LockMode;
 import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,10 +15,19 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -25,9 +37,27 @@ class LockAopAspectTest {
     @Mock
     private LockService lockService;
 
+    @Mock
+    private TransactionSequencer transactionSequencer;
+
+    @Mock
+    private LockMetrics lockMetrics;
+
+    @Mock
+    private RedisBalanceEngine redisBalanceEngine;
+
     @Mock
     private ProceedingJoinPoint proceedingJoinPoint;
 
+    @Mock
+    private AccountLock accountLock;
+
+    @Mock
+    private AccountLockExecutor accountLockExecutor;
+
+    @Mock
+    private MethodSignature methodSignature;
+
     @InjectMocks
     private LockAopAspect lockAopAspect;
 
@@ -41,12 +71,12 @@ class LockAopAspectTest {
                 123L, "12345", 1000L);
 
         // when
-        lockAopAspect.aroundMethod(proceedingJoinPoint, request);
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request);
 
 
         // then
         verify(lockService, times(1))
-                .lock(lockArgumentCaptor.capture());
+                .lock(lockArgumentCaptor.capture(), anyLong(), anyLong());
         verify(lockService, times(1))
                 .unlock(unlockArgumentCaptor.capture());
         assertThat(lockArgumentCaptor.getValue()).isEqualTo("12345");
@@ -66,16 +96,157 @@ class LockAopAspectTest {
 
         // when
         assertThrows(AccountException.class, () ->
-                lockAopAspect.aroundMethod(proceedingJoinPoint, request));
+                lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request));
 
 
         // then
         verify(lockService, times(1))
-                .lock(lockArgumentCaptor.capture());
+                .lock(lockArgumentCaptor.capture(), anyLong(), anyLong());
         verify(lockService, times(1))
                 .unlock(unlockArgumentCaptor.capture());
         assertThat(lockArgumentCaptor.getValue()).isEqualTo("54321");
         assertThat(unlockArgumentCaptor.getValue()).isEqualTo("54321");
     }
 
-}
\ No newline at end of file
+    @DisplayName("계좌별로 노드가 고정된 sequencer 모드에서는 lock 을 잡지 않음")
+    @Test
+    void skipLockWhenSequencerIsLockFree() throws Throwable {
+        // given
+        TransactionUse.Request request = new TransactionUse.Request(
+                123L, "12345", 1000L);
+        given(transactionSequencer.isLockFree()).willReturn(true);
+
+        // when
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request);
+
+        // then
+        verify(lockService, never()).lock(anyString(), anyLong(), anyLong());
+        verify(lockService, never()).unlock(anyString());
+        verify(proceedingJoinPoint, times(1)).proceed();
+    }
+
+    @DisplayName("atomic-debit 모드의 결제는 lock 을 잡지 않음")
+    @Test
+    void skipLockWhenAtomicDebit() throws Throwable {
+        // given
+        TransactionUse.Request request = new TransactionUse.Request(
+                123L, "12345", 1000L);
+        ReflectionTestUtils.setField(lockAopAspect, "atomicDebit", true);
+        given(accountLock.lockFreeOnAtomicDebit()).willReturn(true);
+
+        // when
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request);
+
+        // then
+        verify(lockService, never()).lock(anyString(), anyLong(), anyLong());
+        verify(lockService, never()).unlock(anyString());
+        verify(proceedingJoinPoint, times(1)).proceed();
+    }
+
+    @DisplayName("optimistic 모드는 lock 없이 한 번만 실행 (재시도는 서비스 호출에서)")
+    @Test
+    void skipLockWhenOptimistic() throws Throwable {
+        // given
+        TransactionUse.Request request = new TransactionUse.Request(
+                123L, "12345", 1000L);
+        given(accountLock.mode()).willReturn(LockMode.OPTIMISTIC);
+
+        // when
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request);
+
+        // then
+        verify(lockService, never()).lock(anyString(), anyLong(), anyLong());
+        verify(lockService, never()).unlock(anyString());
+        verify(proceedingJoinPoint, times(1)).proceed();
+    }
+
+    @DisplayName("설정한 endpoint 는 optimistic 모드로 실행")
+    @Test
+    void optimisticByEndpointProperty() throws Throwable {
+        // given
+        TransactionUse.Request request = new TransactionUse.Request(
+                123L, "12345", 1000L);
+        ReflectionTestUtils.setField(lockAopAspect, "optimisticEndpoints", Set.of("/transaction/use.do"));
+        given(lockMetrics.currentEndpoint()).willReturn("/transaction/use.do");
+
+        // when
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request);
+
+        // then
+        verify(lockService, never()).lock(anyString(), anyLong(), anyLong());
+        verify(proceedingJoinPoint, times(1)).proceed();
+    }
+
+    @DisplayName("ledger 모드는 optimistic 이어도 lock 을 잡음")
+    @Test
+    void lockWhenOptimisticInLedgerMode() throws Throwable {
+        // given
+        TransactionUse.Request request = new TransactionUse.Request(
+                123L, "12345", 1000L);
+        ReflectionTestUtils.setField(lockAopAspect, "balanceLedger", true);
+
+        // when
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request);
+
+        // then
+        verify(lockService, times(1)).lock(anyString(), anyLong(), anyLong());
+        verify(lockService, times(1)).unlock("12345");
+        verify(proceedingJoinPoint, times(1)).proceed();
+    }
+
+    @DisplayName("비동기 lock 은 임계 구역이 끝난 뒤 해제")
+    @Test
+    void asyncLockAndUnlock() throws Throwable {
+        // given
+        TransactionUse.Request request = new TransactionUse.Request(
+                123L, "12345", 1000L);
+        ReflectionTestUtils.setField(lockAopAspect, "asyncLock", true);
+        given(proceedingJoinPoint.getSignature()).willReturn(methodSignature);
+        given(methodSignature.getReturnType()).willReturn(CompletableFuture.class);
+        given(accountLockExecutor.getExecutor()).willReturn(Runnable::run);
+        given(lockMetrics.currentEndpoint()).willReturn("/transaction/use.do");
+        given(lockService.lockAsync(anyString(), anyString(), anyLong(), anyLong()))
+                .willReturn(CompletableFuture.completedFuture(-1L));
+        given(lockService.unlockAsync(anyString(), anyString(), any()))
+                .willReturn(CompletableFuture.completedFuture(null));
+        given(proceedingJoinPoint.proceed()).willReturn(CompletableFuture.completedFuture("done"));
+
+        // when
+        Object result = lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request);
+
+        // then
+        assertThat(((CompletableFuture<?>) result).get()).isEqualTo("done");
+        verify(lockService, times(1)).unlockAsync("12345", "/transaction/use.do", -1L);
+        verify(lockService, never()).lock(anyString(), anyLong(), anyLong());
+    }
+
+    @DisplayName("sequencer 모드라도 노드 고정이 아니면 lock 을 잡고 파티션 작업이 끝난 뒤 해제")
+    @Test
+    void keepLockUntilSequencerFutureCompletes() throws Throwable {
+        // given
+        TransactionUse.Request request = new TransactionUse.Request(
+                123L, "12345", 1000L);
+        CompletableFuture<Object> partitionFuture = new CompletableFuture<>();
+        given(transactionSequencer.isEnabled()).willReturn(true);
+        given(proceedingJoinPoint.getSignature()).willReturn(methodSignature);
+        given(methodSignature.getReturnType()).willReturn(CompletableFuture.class);
+        given(accountLockExecutor.getExecutor()).willReturn(Runnable::run);
+        given(lockMetrics.currentEndpoint()).willReturn("/transaction/use.do");
+        given(lockService.lockAsync(anyString(), anyString(), anyLong(), anyLong()))
+                .willReturn(CompletableFuture.completedFuture(-1L));
+        given(lockService.unlockAsync(anyString(), anyString(), any()))
+                .willReturn(CompletableFuture.completedFuture(null));
+        given(proceedingJoinPoint.proceed()).willReturn(partitionFuture);
+
+        // when
+        Object result = lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request);
+        verify(lockService, never()).unlockAsync(anyString(), anyString(), any());
+        partitionFuture.complete("done");
+
+        // then
+        assertThat(((CompletableFuture<?>) result).get()).isEqualTo("done");
+        verify(lockService, times(1)).lockAsync(eq("12345"), eq("/transaction/use.do"), anyLong(), anyLong());
+        verify(lockService, times(1)).unlockAsync("12345", "/transaction/use.do", -1L);
+    }
+
+}
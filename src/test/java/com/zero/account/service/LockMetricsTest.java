@@ -0,0 +1,56 @@
+package com.zero.account.service;
+
+import com.zero.account.dto.AccountLockInfo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LockMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final LockMetrics lockMetrics = new LockMetrics(meterRegistry);
+
+    @DisplayName("lock 획득/해제 시 대기 시간과 점유 시간 기록")
+    @Test
+    void recordAcquiredAndReleased() {
+        // given
+        lockMetrics.recordAcquired("12345", lockMetrics.currentEndpoint(), 1_000_000L);
+
+        // when
+        List<AccountLockInfo> heldLocks = lockMetrics.getHeldLocks();
+        lockMetrics.recordReleased("12345");
+
+        // then
+        assertThat(heldLocks).hasSize(1);
+        assertThat(heldLocks.get(0).getAccountNumber()).isEqualTo("12345");
+        assertThat(heldLocks.get(0).getEndpoint()).isEqualTo("none");
+        assertThat(lockMetrics.getHeldLocks()).isEmpty();
+        assertThat(meterRegistry.get("account.lock.wait").tag("outcome", "acquired").timer().count())
+                .isEqualTo(1L);
+        assertThat(meterRegistry.get("account.lock.hold").timer().count()).isEqualTo(1L);
+    }
+
+    @DisplayName("lock 실패와 Redis 오류 집계")
+    @Test
+    void recordFailures() {
+        // given
+
+        // when
+        lockMetrics.recordLockFailure("/transaction/use.do", 1_000_000L);
+        lockMetrics.recordRedisError("/transaction/use.do");
+        lockMetrics.recordUnlockFailure("/transaction/use.do");
+
+        // then
+        assertThat(meterRegistry.get("account.lock.failures").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("account.lock.redis.errors").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("account.lock.unlock.failures").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("account.lock.wait").tag("outcome", "failed").timer().count())
+                .isEqualTo(1L);
+    }
+
+}
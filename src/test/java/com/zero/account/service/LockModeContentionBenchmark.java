@@ -0,0 +1,135 @@
+package com.zero.account.service;
+
+import com.zero.account.domain.Account;
+import com.zero.account.exception.AccountException;
+import com.zero.account.repository.AccountRepository;
+import com.zero.account.repository.AccountUserRepository;
+import com.zero.account.type.AccountStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 같은 계좌에 몰리는 정도(계좌 수)별로 PESSIMISTIC(Redis lock) 과 OPTIMISTIC(@Version 재시도) 의 처리량을 비교한다
+// 계좌가 많아 충돌이 드물면 OPTIMISTIC 이 Redis 왕복만큼 빠르고, 한 계좌에 몰리면 재시도와 lock 대기가 비슷해져 차이가 사라진다
+// 실행 : LOAD_TEST=true ./gradlew test --tests '*LockModeContentionBenchmark'
+@EnabledIfEnvironmentVariable(named = "LOAD_TEST", matches = "true")
+@SpringBootTest(properties = {
+        "spring.redis.port=6393",
+        "account.lock.optimistic.max-attempts=20",
+        "spring.jpa.properties.hibernate.show_sql=false"})
+class LockModeContentionBenchmark {
+
+    private static final int THREADS = 16;
+    private static final int OPERATIONS_PER_THREAD = 100;
+    private static final int[] ACCOUNT_COUNTS = {1, 4, 64};
+    private static final long PAYMENT_AMOUNT = 100L;
+    private static final long INITIAL_BALANCE = 1_000_000_000L;
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private LockService lockService;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+
+    private final AtomicInteger accountSequence = new AtomicInteger();
+
+    @DisplayName("계좌 경합 정도별 lock 모드 처리량")
+    @Test
+    void compareLockModes() throws Exception {
+        for (int accountCount : ACCOUNT_COUNTS) {
+            run("PESSIMISTIC", accountCount, accountNumber -> {
+                lockService.lock(accountNumber, 5000L, 15000L);
+                try {
+                    transactionService.transactionUse(1L, accountNumber, PAYMENT_AMOUNT);
+                } finally {
+                    lockService.unlock(accountNumber);
+                }
+            });
+            // @OptimisticRetry 가 충돌한 트랜잭션만 다시 실행한다
+            run("OPTIMISTIC", accountCount, accountNumber ->
+                    transactionService.transactionUse(1L, accountNumber, PAYMENT_AMOUNT));
+        }
+    }
+
+    private void run(String mode, int accountCount, Operation operation) throws Exception {
+        List<String> accountNumbers = createAccounts(accountCount);
+        ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            int thread = i;
+            futures.add(executorService.submit(() -> {
+                start.await();
+                for (int j = 0; j < OPERATIONS_PER_THREAD; j++) {
+                    String accountNumber = accountNumbers.get((thread + j) % accountCount);
+                    try {
+                        operation.run(accountNumber);
+                        succeeded.incrementAndGet();
+                    } catch (AccountException e) {
+                        failed.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedMillis = Math.max(1L, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        executorService.shutdown();
+
+        System.out.printf("[%s] accounts=%d, succeeded=%d, failed=%d, elapsed=%dms, throughput=%.0f/s%n",
+                mode, accountCount, succeeded.get(), failed.get(), elapsedMillis,
+                succeeded.get() * 1000.0 / elapsedMillis);
+        // 성공한 결제만큼만 잔액이 줄어야 한다 (lost update 없음)
+        long totalBalance = accountNumbers.stream()
+                .mapToLong(accountNumber -> accountRepository.findByAccountNumber(accountNumber)
+                        .orElseThrow().getBalance())
+                .sum();
+        assertThat(totalBalance)
+                .isEqualTo(INITIAL_BALANCE * accountCount - PAYMENT_AMOUNT * succeeded.get());
+    }
+
+    private List<String> createAccounts(int accountCount) {
+        List<String> accountNumbers = new ArrayList<>();
+        for (int i = 0; i < accountCount; i++) {
+            String accountNumber = String.valueOf(9_000_000_000L + accountSequence.incrementAndGet());
+            accountRepository.save(Account.builder()
+                    .accountUser(accountUserRepository.getReferenceById(1L))
+                    .accountNumber(accountNumber)
+                    .accountStatus(AccountStatus.IN_USE)
+                    .balance(INITIAL_BALANCE)
+                    .openingBalance(INITIAL_BALANCE)
+                    .build());
+            accountNumbers.add(accountNumber);
+        }
+        return accountNumbers;
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        void run(String accountNumber);
+    }
+
+}
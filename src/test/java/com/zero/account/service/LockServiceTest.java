@@ -8,13 +8,28 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RFuture;
 import org.redisson.api.RLock;
+import org.redisson.api.RLockReactive;
 import org.redisson.api.RedissonClient;
+import org.redisson.api.RedissonReactiveClient;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class LockServiceTest {
@@ -22,18 +37,34 @@ class LockServiceTest {
     @Mock
     private RedissonClient redissonClient;
 
+    @Mock
+    private LockMetrics lockMetrics;
+
     @Mock
     private RLock rLock;
 
+    @Mock
+    private RFuture<Boolean> lockFuture;
+
+    @Mock
+    private RFuture<Void> unlockFuture;
+
+    @Mock
+    private RedissonReactiveClient redissonReactiveClient;
+
+    @Mock
+    private RLockReactive rLockReactive;
+
     @InjectMocks
     private LockService lockService;
 
     @DisplayName("lock 걸기 성공")
     @Test
-    void successGetLock() throws InterruptedException {
+    void successGetLock() throws Exception {
         // given
         given(redissonClient.getLock(anyString())).willReturn(rLock);
-        given(rLock.tryLock(anyLong(), anyLong(), any())).willReturn(true);
+        given(rLock.tryLockAsync(anyLong(), anyLong(), any(), anyLong())).willReturn(lockFuture);
+        given(lockFuture.get()).willReturn(true);
 
         // when
 
@@ -41,12 +72,32 @@ class LockServiceTest {
         assertDoesNotThrow(() -> lockService.lock("12345"));
     }
 
+    @DisplayName("lock 대기 중 인터럽트 - 인터럽트 상태 유지, lock 실패")
+    @Test
+    void interruptedGetLock() throws Exception {
+        // given
+        given(redissonClient.getLock(anyString())).willReturn(rLock);
+        given(rLock.tryLockAsync(anyLong(), anyLong(), any(), anyLong())).willReturn(lockFuture);
+        given(lockFuture.get()).willThrow(new InterruptedException());
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> lockService.lock("12345"));
+        boolean interrupted = Thread.interrupted();
+
+        // then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+        assertTrue(interrupted);
+        verify(lockMetrics, times(0)).recordRedisError(any());
+    }
+
     @DisplayName("lock 걸기 실패")
     @Test
-    void failGetLock() throws InterruptedException {
+    void failGetLock() throws Exception {
         // given
         given(redissonClient.getLock(anyString())).willReturn(rLock);
-        given(rLock.tryLock(anyLong(), anyLong(), any())).willReturn(false);
+        given(rLock.tryLockAsync(anyLong(), anyLong(), any(), anyLong())).willReturn(lockFuture);
+        given(lockFuture.get()).willReturn(false);
 
         // when
         AccountException exception = assertThrows(AccountException.class,
@@ -56,4 +107,88 @@ class LockServiceTest {
         assertThat(exception.getErrorMessage()).isEqualTo(ErrorCode.ACCOUNT_TRANSACTION_LOCK.getDescription());
 
     }
-}
\ No newline at end of file
+
+    @DisplayName("같은 노드 경합 시 Redis lock 은 한 번만 획득")
+    @Test
+    void handOffRedisLockToLocalWaiters() throws Exception {
+        // given
+        given(redissonClient.getLock(anyString())).willReturn(rLock);
+        given(rLock.tryLockAsync(anyLong(), anyLong(), any(), anyLong())).willReturn(lockFuture);
+        given(lockFuture.get()).willReturn(true);
+        given(rLock.unlockAsync(anyLong())).willReturn(unlockFuture);
+        ExecutorService executorService = Executors.newFixedThreadPool(3);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // when
+        lockService.lock("12345");
+        for (int i = 0; i < 3; i++) {
+            futures.add(executorService.submit(() -> {
+                lockService.lock("12345");
+                lockService.unlock("12345");
+            }));
+        }
+        Thread.sleep(200L);
+        lockService.unlock("12345");
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+
+        // then
+        verify(rLock, times(1)).tryLockAsync(anyLong(), anyLong(), any(), anyLong());
+        verify(rLock, times(1)).unlockAsync(anyLong());
+    }
+
+    @DisplayName("비동기 lock 걸기 실패")
+    @Test
+    void failGetLockAsync() {
+        // given
+        given(redissonClient.getLock(anyString())).willReturn(rLock);
+        given(rLock.tryLockAsync(anyLong(), anyLong(), any(), anyLong())).willReturn(lockFuture);
+        given(lockFuture.toCompletableFuture()).willReturn(CompletableFuture.completedFuture(false));
+
+        // when
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> lockService.lockAsync("12345", "/transaction/use.do", 1000L, 15000L).join());
+
+        // then
+        assertThat(exception.getCause()).isInstanceOf(AccountException.class);
+        assertThat(((AccountException) exception.getCause()).getErrorCode())
+                .isEqualTo(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+    }
+
+    @DisplayName("reactive lock 걸기 실패")
+    @Test
+    void failGetLockReactive() {
+        // given
+        given(redissonClient.reactive()).willReturn(redissonReactiveClient);
+        given(redissonReactiveClient.getLock(anyString())).willReturn(rLockReactive);
+        given(rLockReactive.tryLock(anyLong(), anyLong(), any(), anyLong())).willReturn(Mono.just(false));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> lockService.lockReactive("12345", "/transaction/use.do", 1000L, 15000L).block());
+
+        // then
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+    }
+
+    @DisplayName("reactive lock Redis 오류 시 lock 없이 진행")
+    @Test
+    void redisErrorLockReactive() {
+        // given
+        given(redissonClient.reactive()).willReturn(redissonReactiveClient);
+        given(redissonReactiveClient.getLock(anyString())).willReturn(rLockReactive);
+        given(rLockReactive.tryLock(anyLong(), anyLong(), any(), anyLong()))
+                .willReturn(Mono.error(new IllegalStateException("redis down")));
+
+        // when
+        Optional<Long> ownerId = lockService.lockReactive("12345", "/transaction/use.do", 1000L, 15000L).block();
+        lockService.unlockReactive("12345", "/transaction/use.do", ownerId).block();
+
+        // then
+        assertThat(ownerId).isEmpty();
+        verify(lockMetrics, times(1)).recordRedisError("/transaction/use.do");
+        verify(rLockReactive, times(0)).unlock(anyLong());
+    }
+}
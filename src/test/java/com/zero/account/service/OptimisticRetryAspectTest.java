@@ -0,0 +1,63 @@
+package com.zero.account.service;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class OptimisticRetryAspectTest {
+
+    @Mock
+    private ProceedingJoinPoint proceedingJoinPoint;
+
+    private final OptimisticRetryAspect optimisticRetryAspect =
+            new OptimisticRetryAspect(new OptimisticRetryExecutor(3, 1L, 4L));
+
+    @DisplayName("버전 충돌 시 서비스 호출만 다시 실행")
+    @Test
+    void retryServiceCall() throws Throwable {
+        // given
+        given(proceedingJoinPoint.proceed())
+                .willThrow(new ObjectOptimisticLockingFailureException("Account", 1L))
+                .willReturn("done");
+
+        // when
+        Object result = optimisticRetryAspect.aroundMethod(proceedingJoinPoint);
+
+        // then
+        assertThat(result).isEqualTo("done");
+        verify(proceedingJoinPoint, times(2)).proceed();
+    }
+
+    @DisplayName("바깥 트랜잭션 안에서는 재시도하지 않음")
+    @Test
+    void notRetryInsideTransaction() throws Throwable {
+        // given
+        given(proceedingJoinPoint.proceed())
+                .willThrow(new ObjectOptimisticLockingFailureException("Account", 1L));
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        // when
+        try {
+            assertThrows(ObjectOptimisticLockingFailureException.class,
+                    () -> optimisticRetryAspect.aroundMethod(proceedingJoinPoint));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        // then
+        verify(proceedingJoinPoint, times(1)).proceed();
+    }
+
+}
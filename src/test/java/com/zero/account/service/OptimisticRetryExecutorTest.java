@@ -0,0 +1,74 @@
+package com.zero.account.service;
+
+import com.zero.account.exception.AccountException;
+import com.zero.account.type.ErrorCode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OptimisticRetryExecutorTest {
+
+    private final OptimisticRetryExecutor optimisticRetryExecutor =
+            new OptimisticRetryExecutor(3, 1L, 4L);
+
+    @DisplayName("버전 충돌 후 재시도 성공")
+    @Test
+    void retryUntilSuccess() throws Throwable {
+        // given
+        AtomicInteger attempts = new AtomicInteger();
+
+        // when
+        Object result = optimisticRetryExecutor.execute(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException("Account", 1L);
+            }
+            return "done";
+        });
+
+        // then
+        assertThat(result).isEqualTo("done");
+        assertThat(attempts.get()).isEqualTo(3);
+    }
+
+    @DisplayName("재시도 횟수 초과 시 lock 실패")
+    @Test
+    void failAfterMaxAttempts() {
+        // given
+        AtomicInteger attempts = new AtomicInteger();
+
+        // when
+        AccountException exception = assertThrows(AccountException.class, () ->
+                optimisticRetryExecutor.execute(() -> {
+                    attempts.incrementAndGet();
+                    throw new ObjectOptimisticLockingFailureException("Account", 1L);
+                }));
+
+        // then
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        assertThat(attempts.get()).isEqualTo(3);
+    }
+
+    @DisplayName("버전 충돌이 아닌 예외는 재시도하지 않음")
+    @Test
+    void notRetryAccountException() {
+        // given
+        AtomicInteger attempts = new AtomicInteger();
+
+        // when
+        AccountException exception = assertThrows(AccountException.class, () ->
+                optimisticRetryExecutor.execute(() -> {
+                    attempts.incrementAndGet();
+                    throw new AccountException(ErrorCode.INSUFFICIENT_BALANCE);
+                }));
+
+        // then
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.INSUFFICIENT_BALANCE);
+        assertThat(attempts.get()).isEqualTo(1);
+    }
+
+}
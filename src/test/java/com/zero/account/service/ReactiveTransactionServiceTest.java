@@ -0,0 +1,171 @@
+package com.zero.account.service;
+
+import com.zero.account.domain.AccountRow;
+import com.zero.account.domain.TransactionRow;
+import com.zero.account.dto.TransactionDto;
+import com.zero.account.exception.AccountException;
+import com.zero.account.repository.ReactiveAccountRepository;
+import com.zero.account.repository.ReactiveTransactionRepository;
+import com.zero.account.type.AccountStatus;
+import com.zero.account.type.ErrorCode;
+import com.zero.account.type.TransactionResultStatus;
+import com.zero.account.type.TransactionStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveTransactionServiceTest {
+
+    @Mock
+    private ReactiveAccountRepository reactiveAccountRepository;
+    @Mock
+    private ReactiveTransactionRepository reactiveTransactionRepository;
+    @Mock
+    private LockService lockService;
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    private ReactiveTransactionService reactiveTransactionService;
+
+    @BeforeEach
+    void setUp() {
+        reactiveTransactionService = new ReactiveTransactionService(
+                reactiveAccountRepository, reactiveTransactionRepository, lockService, transactionalOperator, 0);
+    }
+
+    @DisplayName("reactive 거래(결제) - 성공")
+    @Test
+    void successTransactionUse() {
+        // given
+        givenLocked();
+        given(reactiveAccountRepository.useBalance("12345", 1L, 1000L, AccountStatus.IN_USE))
+                .willReturn(Mono.just(1));
+        given(reactiveAccountRepository.findByAccountNumber("12345")).willReturn(Mono.just(getAccount(1L)));
+        given(reactiveTransactionRepository.save(any())).willAnswer(invocation ->
+                Mono.just(invocation.getArgument(0)));
+
+        // when
+        TransactionDto transactionDto = reactiveTransactionService.transactionUse(1L, "12345", 1000L).block();
+
+        // then
+        assertThat(transactionDto.getTransactionId()).isNotNull();
+        assertThat(transactionDto.getAccountNumber()).isEqualTo("12345");
+        assertThat(transactionDto.getTransactionStatus()).isEqualTo(TransactionStatus.APPROVAL);
+        assertThat(transactionDto.getTransactionResultStatus()).isEqualTo(TransactionResultStatus.SUCCEED);
+        verify(lockService, times(1)).unlockReactive(eq("12345"), anyString(), eq(Optional.of(-1L)));
+    }
+
+    @DisplayName("reactive 거래(결제) - 실패 사용자 불일치, 실패 거래 기록")
+    @Test
+    void failedTransactionUseUserMisMatch() {
+        // given
+        givenLocked();
+        given(reactiveAccountRepository.useBalance("12345", 2L, 1000L, AccountStatus.IN_USE))
+                .willReturn(Mono.just(0));
+        given(reactiveAccountRepository.existsAccountUserById(2L)).willReturn(Mono.just(true));
+        given(reactiveAccountRepository.findByAccountNumber("12345")).willReturn(Mono.just(getAccount(1L)));
+        given(reactiveTransactionRepository.save(any())).willAnswer(invocation ->
+                Mono.just(invocation.getArgument(0)));
+        ArgumentCaptor<TransactionRow> captor = ArgumentCaptor.forClass(TransactionRow.class);
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> reactiveTransactionService.transactionUse(2L, "12345", 1000L).block());
+
+        // then
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.USER_MIS_MATCH);
+        verify(reactiveTransactionRepository, times(1)).save(captor.capture());
+        assertThat(captor.getValue().getTransactionResultStatus()).isEqualTo(TransactionResultStatus.FAILED);
+        assertThat(captor.getValue().getTransactionStatus()).isEqualTo(TransactionStatus.APPROVAL);
+        verify(lockService, times(1)).unlockReactive(eq("12345"), anyString(), eq(Optional.of(-1L)));
+    }
+
+    @DisplayName("reactive 거래(결제) - 실패 lock 획득 실패 (실패 거래는 기록하지 않음)")
+    @Test
+    void failedTransactionUseLock() {
+        // given
+        given(lockService.lockReactive(anyString(), anyString(), anyLong(), anyLong()))
+                .willReturn(Mono.error(new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK)));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> reactiveTransactionService.transactionUse(1L, "12345", 1000L).block());
+
+        // then
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        verify(reactiveAccountRepository, never()).useBalance(anyString(), anyLong(), anyLong(), any());
+        verify(reactiveTransactionRepository, never()).save(any());
+    }
+
+    @DisplayName("reactive 거래 취소 - 실패 거래 금액 불일치")
+    @Test
+    void failedTransactionCancelAmountMisMatch() {
+        // given
+        givenLocked();
+        given(reactiveTransactionRepository.findById(10L)).willReturn(Mono.just(TransactionRow.builder()
+                .id(10L)
+                .accountId(1L)
+                .accountNumber("12345")
+                .transactionAmount(1000L)
+                .build()));
+        given(reactiveAccountRepository.findByAccountNumber("12345")).willReturn(Mono.empty());
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> reactiveTransactionService.transactionCancel(10L, "12345", 2000L).block());
+
+        // then
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.TRANSACTION_AMOUNT_MIS_MATCH);
+        verify(reactiveAccountRepository, never()).addBalance(anyLong(), anyLong());
+    }
+
+    @DisplayName("reactive 거래 조회 - 실패 거래 없음")
+    @Test
+    void failedSelectTransactionNotFound() {
+        // given
+        given(reactiveTransactionRepository.findById(10L)).willReturn(Mono.empty());
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> reactiveTransactionService.selectTransaction(10L).block());
+
+        // then
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.TRANSACTION_NOT_FOUND);
+    }
+
+    private void givenLocked() {
+        given(lockService.lockReactive(anyString(), anyString(), anyLong(), anyLong()))
+                .willReturn(Mono.just(Optional.of(-1L)));
+        given(lockService.unlockReactive(anyString(), anyString(), any())).willReturn(Mono.empty());
+        given(transactionalOperator.transactional(any(Mono.class))).willAnswer(invocation ->
+                invocation.getArgument(0));
+    }
+
+    private AccountRow getAccount(Long accountUserId) {
+        return AccountRow.builder()
+                .id(1L)
+                .accountUserId(accountUserId)
+                .accountNumber("12345")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .build();
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.zero.account.service;
+
+import com.zero.account.dto.ReconciliationReport;
+import com.zero.account.dto.ReconciliationRow;
+import com.zero.account.repository.AccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ReconciliationServiceTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReconciliationService reconciliationService;
+
+    @BeforeEach
+    void setUp() {
+        reconciliationService = new ReconciliationService(
+                accountRepository, transactionManager, new ShardRouter(false, List.of()),
+                new SimpleMeterRegistry(), 2, 2, 10, "");
+    }
+
+    @DisplayName("정합성 검사 - 구간별로 잔액 불일치 보고")
+    @Test
+    void reconcile() {
+        // given
+        given(accountRepository.findIdsAfter(eq(Long.MIN_VALUE), any())).willReturn(List.of(2L));
+        given(accountRepository.findIdsAfter(eq(2L), any())).willReturn(List.of());
+        given(accountRepository.streamReconciliationRows(Long.MIN_VALUE, 2L)).willReturn(Stream.of(
+                new ReconciliationRow("1000000001", 10000L, 9000L, -1000L, 0L),
+                new ReconciliationRow("1000000002", 10000L, 10000L, -1000L, 0L)));
+        given(accountRepository.streamReconciliationRows(2L, Long.MAX_VALUE)).willReturn(Stream.of(
+                new ReconciliationRow("1000000003", null, 5000L, 0L, 0L)));
+
+        // when
+        ReconciliationReport report = reconciliationService.run();
+
+        // then
+        verify(accountRepository).findIdsAfter(Long.MIN_VALUE, PageRequest.of(1, 1));
+        assertThat(report.isRunning()).isFalse();
+        assertThat(report.getCompletedChunks()).isEqualTo(2L);
+        assertThat(report.getCheckedAccounts()).isEqualTo(2L);
+        assertThat(report.getSkippedAccounts()).isEqualTo(1L);
+        assertThat(report.getMismatchCount()).isEqualTo(1L);
+        assertThat(report.getMismatches().get(0).getAccountNumber()).isEqualTo("1000000002");
+        assertThat(report.getMismatches().get(0).getExpectedBalance()).isEqualTo(9000L);
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.zero.account.service;
+
+import com.zero.account.domain.Account;
+import com.zero.account.domain.AccountUser;
+import com.zero.account.dto.LedgerEntry;
+import com.zero.account.dto.TransactionDto;
+import com.zero.account.exception.AccountException;
+import com.zero.account.repository.AccountRepository;
+import com.zero.account.type.AccountStatus;
+import com.zero.account.type.ErrorCode;
+import com.zero.account.type.TransactionStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class RedisBalanceEngineTest {
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RScript rScript;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    private RedisBalanceEngine redisBalanceEngine;
+
+    @BeforeEach
+    void setUp() {
+        redisBalanceEngine = new RedisBalanceEngine(
+                redissonClient, accountRepository, new ShardRouter(false, List.of()), true, "12345, 54321", true, 0);
+    }
+
+    @DisplayName("핫 계좌 설정")
+    @Test
+    void hotAccounts() {
+        assertThat(redisBalanceEngine.isHotAccount("12345")).isTrue();
+        assertThat(redisBalanceEngine.isHotAccount("54321")).isTrue();
+        assertThat(redisBalanceEngine.isHotAccount("99999")).isFalse();
+    }
+
+    @DisplayName("Redis 잔액 차감 성공")
+    @Test
+    void successUse() {
+        // given
+        given(redissonClient.getScript(any())).willReturn(rScript);
+        given(rScript.eval(any(RScript.Mode.class), anyString(), any(), anyList(), any()))
+                .willReturn(9000L);
+
+        // when
+        TransactionDto transactionDto = redisBalanceEngine.use(1L, "12345", 1000L);
+
+        // then
+        assertThat(transactionDto.getTransactionId()).isNotNull();
+        assertThat(transactionDto.getAccountNumber()).isEqualTo("12345");
+        assertThat(transactionDto.getTransactionStatus()).isEqualTo(TransactionStatus.APPROVAL);
+        assertThat(transactionDto.getTransactionAmount()).isEqualTo(1000L);
+    }
+
+    @DisplayName("Redis 잔액 차감 - 원장에 응답과 같은 거래 id 와 시각을 기록")
+    @Test
+    void useRecordsTransactionIdInLedger() {
+        // given
+        given(redissonClient.getScript(any())).willReturn(rScript);
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        given(rScript.eval(any(RScript.Mode.class), anyString(), any(), anyList(), any(), any(), captor.capture()))
+                .willReturn(9000L);
+
+        // when
+        TransactionDto transactionDto = redisBalanceEngine.use(1L, "12345", 1000L);
+        LedgerEntry ledgerEntry = LedgerEntry.parse("1|" + captor.getValue());
+
+        // then
+        assertThat(ledgerEntry.getTransactionId()).isEqualTo(transactionDto.getTransactionId());
+        assertThat(ledgerEntry.getCreatedAt()).isEqualTo(transactionDto.getCreatedAt());
+    }
+
+    @DisplayName("시간 순서 id 를 쓰지 않으면 기동 실패")
+    @Test
+    void requireTimeOrderedId() {
+        assertThrows(IllegalStateException.class, () -> new RedisBalanceEngine(
+                redissonClient, accountRepository, new ShardRouter(false, List.of()), true, "12345", false, 0));
+    }
+
+    @DisplayName("Redis 잔액 차감 - 잔액이 없으면 DB 에서 적재 후 재시도")
+    @Test
+    void loadAndRetryUse() {
+        // given
+        AccountUser accountUser = new AccountUser();
+        accountUser.setId(1L);
+        Account account = Account.builder()
+                .accountUser(accountUser)
+                .accountNumber("12345")
+                .balance(10000L)
+                .accountStatus(AccountStatus.IN_USE)
+                .build();
+        given(redissonClient.getScript(any())).willReturn(rScript);
+        given(rScript.eval(any(RScript.Mode.class), anyString(), any(), anyList(), any()))
+                .willReturn(-1L, 1L, 9000L);
+        given(accountRepository.findByAccountNumber(anyString())).willReturn(Optional.of(account));
+
+        // when
+        TransactionDto transactionDto = redisBalanceEngine.use(1L, "12345", 1000L);
+
+        // then
+        assertThat(transactionDto.getTransactionAmount()).isEqualTo(1000L);
+    }
+
+    @DisplayName("Redis 잔액 차감 실패 - 잔액 부족")
+    @Test
+    void failedUseInsufficientBalance() {
+        // given
+        given(redissonClient.getScript(any())).willReturn(rScript);
+        given(rScript.eval(any(RScript.Mode.class), anyString(), any(), anyList(), any()))
+                .willReturn(-4L);
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> redisBalanceEngine.use(1L, "12345", 1000L));
+
+        // then
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.INSUFFICIENT_BALANCE);
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.zero.account.service;
+
+import com.zero.account.domain.Account;
+import com.zero.account.repository.AccountRepository;
+import com.zero.account.repository.JournalCheckpointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class RedisLedgerWriterTest {
+
+    @Mock
+    private RedisBalanceEngine redisBalanceEngine;
+    @Mock
+    private TransactionService transactionService;
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private BalanceLedger balanceLedger;
+    @Mock
+    private JournalCheckpointRepository journalCheckpointRepository;
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private RLock writerLock;
+
+    private RedisLedgerWriter redisLedgerWriter;
+
+    @BeforeEach
+    void setUp() {
+        redisLedgerWriter = new RedisLedgerWriter(redisBalanceEngine, transactionService, accountRepository,
+                balanceLedger, journalCheckpointRepository, redissonClient, 500, 200L);
+        given(redissonClient.getLock(anyString())).willReturn(writerLock);
+        given(redisBalanceEngine.getHotAccounts()).willReturn(Set.of("1234567890"));
+        given(redisBalanceEngine.getSettledBalance("1234567890")).willReturn(7000L);
+        Account account = Account.builder()
+                .accountNumber("1234567890")
+                .balance(10000L)
+                .build();
+        account.setId(1L);
+        given(accountRepository.findByAccountNumber("1234567890")).willReturn(Optional.of(account));
+    }
+
+    @DisplayName("원장 모드에서는 스냅샷 이후 거래까지 더한 잔액과 비교")
+    @Test
+    void reconcileWithCurrentBalanceInLedgerMode() {
+        // given
+        given(balanceLedger.isEnabled()).willReturn(true);
+        given(accountRepository.findCurrentBalance(1L)).willReturn(7000L);
+
+        // when
+        redisLedgerWriter.reconcile();
+
+        // then
+        verify(accountRepository).findCurrentBalance(1L);
+    }
+
+    @DisplayName("원장 모드가 아니면 account 잔액과 비교")
+    @Test
+    void reconcileWithAccountBalance() {
+        // given
+        given(balanceLedger.isEnabled()).willReturn(false);
+
+        // when
+        redisLedgerWriter.reconcile();
+
+        // then
+        verify(accountRepository, never()).findCurrentBalance(anyLong());
+    }
+
+}
@@ -0,0 +1,131 @@
+package com.zero.account.service;
+
+import com.zero.account.aop.ReplicaRead;
+import com.zero.account.config.ReplicaContext;
+import com.zero.account.exception.AccountException;
+import com.zero.account.type.ConsistencyKey;
+import com.zero.account.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingAspectTest {
+
+    @Mock
+    private RecentWriteTracker recentWriteTracker;
+
+    @Mock
+    private ProceedingJoinPoint proceedingJoinPoint;
+
+    @Mock
+    private ReplicaRead replicaRead;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ReplicaRoutingAspect replicaRoutingAspect;
+
+    @BeforeEach
+    void setUp() {
+        replicaRoutingAspect = new ReplicaRoutingAspect(recentWriteTracker, meterRegistry, true);
+    }
+
+    @DisplayName("최근 쓰기가 없으면 replica 에서 조회")
+    @Test
+    void readOnReplica() throws Throwable {
+        // given
+        List<Boolean> routes = new ArrayList<>();
+        given(replicaRead.key()).willReturn(ConsistencyKey.ACCOUNT);
+        given(proceedingJoinPoint.getArgs()).willReturn(new Object[]{"1000000000"});
+        given(recentWriteTracker.isRecent(ConsistencyKey.ACCOUNT, "1000000000")).willReturn(false);
+        given(proceedingJoinPoint.proceed()).will(invocation -> {
+            routes.add(ReplicaContext.isReplica());
+            return "result";
+        });
+
+        // when
+        Object result = replicaRoutingAspect.aroundMethod(proceedingJoinPoint, replicaRead);
+
+        // then
+        assertThat(result).isEqualTo("result");
+        assertThat(routes).containsExactly(true);
+        assertThat(ReplicaContext.isReplica()).isFalse();
+        assertThat(meterRegistry.counter("account.replica.reads", "route", "replica").count()).isEqualTo(1);
+    }
+
+    @DisplayName("최근 쓰기가 있으면 primary 에서 조회")
+    @Test
+    void readYourWritesOnPrimary() throws Throwable {
+        // given
+        List<Boolean> routes = new ArrayList<>();
+        given(replicaRead.key()).willReturn(ConsistencyKey.USER);
+        given(proceedingJoinPoint.getArgs()).willReturn(new Object[]{1L});
+        given(recentWriteTracker.isRecent(ConsistencyKey.USER, 1L)).willReturn(true);
+        given(proceedingJoinPoint.proceed()).will(invocation -> {
+            routes.add(ReplicaContext.isReplica());
+            return "result";
+        });
+
+        // when
+        replicaRoutingAspect.aroundMethod(proceedingJoinPoint, replicaRead);
+
+        // then
+        assertThat(routes).containsExactly(false);
+        assertThat(meterRegistry.counter("account.replica.reads", "route", "primary").count()).isEqualTo(1);
+    }
+
+    @DisplayName("replica 에 아직 없으면 primary 에서 다시 조회")
+    @Test
+    void fallbackToPrimaryWhenNotReplicated() throws Throwable {
+        // given
+        List<Boolean> routes = new ArrayList<>();
+        given(replicaRead.key()).willReturn(ConsistencyKey.NONE);
+        given(proceedingJoinPoint.getArgs()).willReturn(new Object[]{10L});
+        given(proceedingJoinPoint.proceed()).will(invocation -> {
+            routes.add(ReplicaContext.isReplica());
+            if (ReplicaContext.isReplica()) {
+                throw new AccountException(ErrorCode.TRANSACTION_NOT_FOUND);
+            }
+            return "result";
+        });
+
+        // when
+        Object result = replicaRoutingAspect.aroundMethod(proceedingJoinPoint, replicaRead);
+
+        // then
+        assertThat(result).isEqualTo("result");
+        assertThat(routes).containsExactly(true, false);
+        assertThat(meterRegistry.counter("account.replica.reads", "route", "fallback").count()).isEqualTo(1);
+    }
+
+    @DisplayName("다른 오류는 primary 에서 다시 조회하지 않음")
+    @Test
+    void failedReadOnReplica() throws Throwable {
+        // given
+        given(replicaRead.key()).willReturn(ConsistencyKey.ACCOUNT);
+        given(proceedingJoinPoint.getArgs()).willReturn(new Object[]{"1000000000"});
+        given(proceedingJoinPoint.proceed())
+                .willThrow(new AccountException(ErrorCode.BALANCE_HISTORY_NOT_AVAILABLE));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> replicaRoutingAspect.aroundMethod(proceedingJoinPoint, replicaRead));
+
+        // then
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.BALANCE_HISTORY_NOT_AVAILABLE);
+        assertThat(ReplicaContext.isReplica()).isFalse();
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.zero.account.service;
+
+import com.zero.account.config.ShardContext;
+import com.zero.account.domain.TimeOrderedIdGenerator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardRouterTest {
+
+    private final ShardRouter shardRouter = new ShardRouter(
+            true, List.of("jdbc:h2:mem:shard0", "jdbc:h2:mem:shard1", "jdbc:h2:mem:shard2"));
+
+    @DisplayName("id 의 노드 구간(nodeId * shardCount + shard)에서 샤드를 찾는다")
+    @Test
+    void shardOfId() {
+        // given
+        long id = new TimeOrderedIdGenerator(5 * 3 + 2).nextId();
+
+        // when
+        int shard = shardRouter.shardOfId(id);
+
+        // then
+        assertThat(shard).isEqualTo(2);
+    }
+
+    @DisplayName("샤드에서 실행하고 끝나면 이전 샤드로 되돌린다")
+    @Test
+    void executeRestoresShard() {
+        // given
+        String accountNumber = "1000000012";
+
+        // when
+        Integer shard = shardRouter.execute(accountNumber, ShardContext::get);
+
+        // then
+        assertThat(shard).isEqualTo(shardRouter.shardOf(accountNumber));
+        assertThat(ShardContext.get()).isNull();
+        assertThat(shardRouter.executeOnEachShard(ShardContext::get)).containsExactly(0, 1, 2);
+    }
+
+    @DisplayName("트랜잭션 안에서는 다른 샤드로 바꿀 수 없다")
+    @Test
+    void failedSwitchShardInsideTransaction() {
+        // given
+        Integer previous = shardRouter.enter(1);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        // when
+        IllegalStateException exception;
+        try {
+            exception = Assertions.assertThrows(IllegalStateException.class,
+                    () -> shardRouter.execute(2, () -> {
+                    }));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            shardRouter.exit(previous);
+        }
+
+        // then
+        assertThat(exception.getMessage()).contains("shard 1 to 2");
+        assertThat(ShardContext.get()).isNull();
+    }
+
+}
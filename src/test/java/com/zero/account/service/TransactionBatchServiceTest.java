@@ -0,0 +1,167 @@
+package com.zero.account.service;
+
+import com.zero.account.dto.TransactionUse;
+import com.zero.account.dto.TransactionUseBatch;
+import com.zero.account.exception.AccountException;
+import com.zero.account.type.ErrorCode;
+import com.zero.account.type.TransactionResultStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionBatchServiceTest {
+
+    @Mock
+    private LockService lockService;
+    @Mock
+    private TransactionService transactionService;
+    // 꺼진 sequencer 는 요청 스레드에서 바로 실행한다
+    @Spy
+    private TransactionSequencer transactionSequencer = new TransactionSequencer(false, false, 1, 1, 0L);
+    @Mock
+    private RedisBalanceEngine redisBalanceEngine;
+    @Mock
+    private LockMetrics lockMetrics;
+
+    @InjectMocks
+    private TransactionBatchService transactionBatchService;
+
+    @DisplayName("계좌별로 묶어서 계좌 번호 순서로 한 번씩 lock")
+    @Test
+    void lockEachAccountOnceInOrder() {
+        // given
+        given(transactionService.transactionUseBatch(anyString(), anyList())).willAnswer(invocation -> {
+            List<TransactionUse.Request> requests = invocation.getArgument(1);
+            return requests.stream()
+                    .map(request -> TransactionUseBatch.Result.builder()
+                            .accountNumber(request.getAccountNumber())
+                            .transactionAmount(request.getTransactionAmount())
+                            .transactionResultStatus(TransactionResultStatus.SUCCEED)
+                            .build())
+                    .collect(Collectors.toList());
+        });
+
+        // when
+        List<TransactionUseBatch.Result> results = transactionBatchService.transactionUseBatch(List.of(
+                new TransactionUse.Request(1L, "22222", 1000L),
+                new TransactionUse.Request(1L, "11111", 2000L),
+                new TransactionUse.Request(1L, "22222", 3000L)));
+
+        // then
+        InOrder inOrder = inOrder(lockService);
+        inOrder.verify(lockService).lock("11111");
+        inOrder.verify(lockService).unlock("11111");
+        inOrder.verify(lockService).lock("22222");
+        inOrder.verify(lockService).unlock("22222");
+        verify(transactionService, times(2)).transactionUseBatch(anyString(), anyList());
+        assertThat(results).extracting(TransactionUseBatch.Result::getTransactionAmount)
+                .containsExactly(1000L, 2000L, 3000L);
+    }
+
+    @DisplayName("lock 실패한 계좌의 건만 실패 처리")
+    @Test
+    void failOnlyLockedAccount() {
+        // given
+        willThrow(new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK))
+                .given(lockService).lock("11111");
+        given(transactionService.transactionUseBatch(eq("22222"), anyList())).willReturn(List.of(
+                TransactionUseBatch.Result.builder()
+                        .accountNumber("22222")
+                        .transactionResultStatus(TransactionResultStatus.SUCCEED)
+                        .build()));
+
+        // when
+        List<TransactionUseBatch.Result> results = transactionBatchService.transactionUseBatch(List.of(
+                new TransactionUse.Request(1L, "11111", 1000L),
+                new TransactionUse.Request(1L, "22222", 2000L)));
+
+        // then
+        assertThat(results.get(0).getErrorCode()).isEqualTo(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        assertThat(results.get(1).getTransactionResultStatus()).isEqualTo(TransactionResultStatus.SUCCEED);
+        verify(lockService, never()).unlock("11111");
+    }
+
+
+    @DisplayName("DB 오류가 난 계좌의 건만 실패 처리하고 나머지 계좌 결과는 유지")
+    @Test
+    void failOnlyAccountWithDataAccessError() {
+        // given
+        given(transactionService.transactionUseBatch(eq("11111"), anyList()))
+                .willThrow(new DataIntegrityViolationException("constraint"));
+        given(transactionService.transactionUseBatch(eq("22222"), anyList())).willReturn(List.of(
+                TransactionUseBatch.Result.builder()
+                        .accountNumber("22222")
+                        .transactionResultStatus(TransactionResultStatus.SUCCEED)
+                        .build()));
+
+        // when
+        List<TransactionUseBatch.Result> results = transactionBatchService.transactionUseBatch(List.of(
+                new TransactionUse.Request(1L, "11111", 1000L),
+                new TransactionUse.Request(1L, "22222", 2000L)));
+
+        // then
+        assertThat(results.get(0).getTransactionResultStatus()).isEqualTo(TransactionResultStatus.FAILED);
+        assertThat(results.get(0).getErrorCode()).isEqualTo(ErrorCode.INTERNAL_SERVER_ERROR);
+        assertThat(results.get(1).getTransactionResultStatus()).isEqualTo(TransactionResultStatus.SUCCEED);
+        verify(lockService, times(1)).unlock("11111");
+    }
+
+    @DisplayName("atomic-debit 모드에서는 단건 결제와 같이 lock 을 잡지 않음")
+    @Test
+    void skipLockWhenAtomicDebit() {
+        // given
+        ReflectionTestUtils.setField(transactionBatchService, "atomicDebit", true);
+        given(transactionService.transactionUseBatch(eq("11111"), anyList())).willReturn(List.of(
+                TransactionUseBatch.Result.builder()
+                        .accountNumber("11111")
+                        .transactionResultStatus(TransactionResultStatus.SUCCEED)
+                        .build()));
+
+        // when
+        transactionBatchService.transactionUseBatch(List.of(
+                new TransactionUse.Request(1L, "11111", 1000L)));
+
+        // then
+        verify(lockService, never()).lock(anyString());
+    }
+
+    @DisplayName("계좌별로 노드가 고정된 sequencer 모드에서는 lock 을 잡지 않음")
+    @Test
+    void skipLockWhenSequencerIsLockFree() {
+        // given
+        given(transactionSequencer.isLockFree()).willReturn(true);
+        given(transactionService.transactionUseBatch(eq("11111"), anyList())).willReturn(List.of(
+                TransactionUseBatch.Result.builder()
+                        .accountNumber("11111")
+                        .transactionResultStatus(TransactionResultStatus.SUCCEED)
+                        .build()));
+
+        // when
+        transactionBatchService.transactionUseBatch(List.of(
+                new TransactionUse.Request(1L, "11111", 1000L)));
+
+        // then
+        verify(lockService, never()).lock(anyString());
+        verify(transactionSequencer, times(1)).execute(eq("11111"), any());
+    }
+
+}
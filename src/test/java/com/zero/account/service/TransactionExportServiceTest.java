@@ -0,0 +1,118 @@
+package com.zero.account.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.zero.account.dto.TransactionInfo;
+import com.zero.account.repository.TransactionRepository;
+import com.zero.account.type.ExportFormat;
+import com.zero.account.type.TransactionResultStatus;
+import com.zero.account.type.TransactionStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionExportServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2022, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2022, 1, 2, 0, 0);
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ObjectMapper objectMapper;
+
+    private TransactionExportService transactionExportService;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        transactionExportService = new TransactionExportService(
+                transactionRepository, objectMapper, new ShardRouter(false, List.of()), transactionManager);
+    }
+
+    @DisplayName("NDJSON export - 한 줄에 거래 하나")
+    @Test
+    void exportNdjson() throws Exception {
+        // given
+        given(transactionRepository.streamInfosByCreatedAt(any(), any())).willReturn(transactionInfos());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // when
+        long count = transactionExportService.export(FROM, TO, ExportFormat.NDJSON, false, outputStream);
+
+        // then
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(count).isEqualTo(2L);
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"transactionId\":1").contains("\"registeredAt\":\"2022-01-01T10:00:00\"");
+    }
+
+    @DisplayName("CSV export - gzip 압축")
+    @Test
+    void exportGzipCsv() throws Exception {
+        // given
+        given(transactionRepository.streamInfosByCreatedAt(any(), any())).willReturn(transactionInfos());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // when
+        transactionExportService.export(FROM, TO, ExportFormat.CSV, true, outputStream);
+
+        // then
+        String csv = new String(new GZIPInputStream(
+                new ByteArrayInputStream(outputStream.toByteArray())).readAllBytes(), StandardCharsets.UTF_8);
+        assertThat(csv.split("\n")).containsExactly(
+                "transactionId,accountNumber,transactionStatus,transactionResultStatus,transactionAmount,registeredAt",
+                "1,12345,APPROVAL,SUCCEED,1000,2022-01-01T10:00",
+                "2,12345,CANCEL,SUCCEED,1000,2022-01-01T11:00");
+    }
+
+    @DisplayName("샤딩 모드 - 샤드마다 이어서 export")
+    @Test
+    void exportShards() throws Exception {
+        // given
+        transactionExportService = new TransactionExportService(transactionRepository, objectMapper,
+                new ShardRouter(true, List.of("jdbc:h2:mem:shard0", "jdbc:h2:mem:shard1")), transactionManager);
+        given(transactionRepository.streamInfosByCreatedAt(any(), any()))
+                .willReturn(transactionInfos(), transactionInfos());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // when
+        long count = transactionExportService.export(FROM, TO, ExportFormat.NDJSON, false, outputStream);
+
+        // then
+        assertThat(count).isEqualTo(4L);
+        assertThat(outputStream.toString(StandardCharsets.UTF_8).split("\n")).hasSize(4);
+    }
+
+    private Stream<TransactionInfo> transactionInfos() {
+        return Stream.of(
+                new TransactionInfo(1L, "12345", TransactionStatus.APPROVAL,
+                        TransactionResultStatus.SUCCEED, 1000L, LocalDateTime.of(2022, 1, 1, 10, 0)),
+                new TransactionInfo(2L, "12345", TransactionStatus.CANCEL,
+                        TransactionResultStatus.SUCCEED, 1000L, LocalDateTime.of(2022, 1, 1, 11, 0)));
+    }
+
+}
@@ -0,0 +1,199 @@
+package com.zero.account.service;
+
+import com.zero.account.dto.JournalRecord;
+import com.zero.account.type.TransactionResultStatus;
+import com.zero.account.type.TransactionStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TransactionJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    @DisplayName("동시에 기록해도 sequence 가 빠짐없이 순서대로 읽힘")
+    @Test
+    void appendConcurrently() throws Exception {
+        // given
+        TransactionJournal transactionJournal = openJournal(1024 * 1024);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> futures = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < 100; i++) {
+            long amount = 1000L + i;
+            futures.add(executorService.submit(() -> transactionJournal.append(record(amount))));
+        }
+        for (Future<Boolean> future : futures) {
+            assertThat(future.get()).isTrue();
+        }
+        executorService.shutdown();
+        List<JournalRecord> records = transactionJournal.read(1000);
+
+        // then
+        assertThat(records).hasSize(100);
+        for (int i = 0; i < records.size(); i++) {
+            assertThat(records.get(i).getSequence()).isEqualTo(i + 1);
+        }
+        transactionJournal.close();
+    }
+
+    @DisplayName("다시 열면 기존 기록을 처음부터 읽고 sequence 를 이어감")
+    @Test
+    void reopen() throws Exception {
+        // given
+        TransactionJournal transactionJournal = openJournal(1024 * 1024);
+        transactionJournal.append(record(1000L));
+        transactionJournal.append(record(2000L));
+        transactionJournal.close();
+
+        // when
+        TransactionJournal reopened = openJournal(1024 * 1024);
+        JournalRecord appended = record(3000L);
+        reopened.append(appended);
+        List<JournalRecord> records = reopened.read(10);
+
+        // then
+        assertThat(appended.getSequence()).isEqualTo(3L);
+        assertThat(records).extracting(JournalRecord::getTransactionAmount)
+                .containsExactly(1000L, 2000L, 3000L);
+        assertThat(records.get(0).getAccountNumber()).isEqualTo("1000000000");
+        assertThat(records.get(0).getTransactionId()).isEqualTo(1000L);
+        assertThat(records.get(0).getTransactionStatus()).isEqualTo(TransactionStatus.APPROVAL);
+        reopened.close();
+    }
+
+    @DisplayName("반영 완료된 기록은 다시 읽지 않고, 가득 차면 false")
+    @Test
+    void markAppliedAndFull() throws Exception {
+        // given
+        TransactionJournal transactionJournal = openJournal(256);
+        transactionJournal.append(record(1000L));
+        transactionJournal.append(record(2000L));
+
+        // when
+        transactionJournal.markApplied(1L);
+        List<JournalRecord> records = transactionJournal.read(10);
+        boolean appended = true;
+        for (int i = 0; i < 10 && appended; i++) {
+            appended = transactionJournal.append(record(3000L));
+        }
+
+        // then
+        assertThat(records).extracting(JournalRecord::getSequence).containsExactly(2L);
+        assertThat(appended).isFalse();
+        transactionJournal.close();
+    }
+
+    @DisplayName("모두 반영되면 처음부터 다시 쓰고 sequence 는 이어감")
+    @Test
+    void rewindAfterApplied() throws Exception {
+        // given
+        TransactionJournal transactionJournal = openJournal(256);
+        transactionJournal.append(record(1000L));
+        transactionJournal.append(record(2000L));
+        transactionJournal.append(record(3000L));
+
+        // when
+        transactionJournal.markApplied(3L);
+        JournalRecord appended = record(4000L);
+        transactionJournal.append(appended);
+        transactionJournal.close();
+        List<JournalRecord> records = openJournal(256).read(10);
+
+        // then
+        assertThat(appended.getSequence()).isEqualTo(4L);
+        assertThat(records).extracting(JournalRecord::getSequence).containsExactly(4L);
+    }
+
+    @DisplayName("force 실패 시 예외, 그 기록은 읽히지 않고 이후 기록은 받지 않음")
+    @Test
+    void discardRecordWhenForceFails() throws Exception {
+        // given
+        TransactionJournal transactionJournal = new TransactionJournal(
+                true, tempDir.resolve("transaction.journal").toString(), 1024, true, 0) {
+            @Override
+            void force(int offset, int length) {
+                throw new UncheckedIOException(new IOException("disk failure"));
+            }
+        };
+        transactionJournal.ensureSequence(0L);
+
+        // when
+        assertThrows(UncheckedIOException.class, () -> transactionJournal.append(record(1000L)));
+        boolean appended = transactionJournal.append(record(2000L));
+        List<JournalRecord> records = transactionJournal.read(10);
+        List<JournalRecord> reopenedRecords = openJournal(1024).read(10);
+
+        // then
+        assertThat(appended).isFalse();
+        assertThat(records).isEmpty();
+        assertThat(reopenedRecords).isEmpty();
+    }
+
+    @DisplayName("sequence 확인 전에는 기록을 받지 않음")
+    @Test
+    void rejectAppendBeforeEnsureSequence() throws Exception {
+        // given
+        TransactionJournal transactionJournal = new TransactionJournal(
+                true, tempDir.resolve("transaction.journal").toString(), 1024, true, 0);
+
+        // when
+        boolean appended = transactionJournal.append(record(1000L));
+
+        // then
+        assertThat(appended).isFalse();
+        transactionJournal.close();
+    }
+
+    @DisplayName("파일을 새로 만들면 DB 에 반영된 sequence 다음부터 기록")
+    @Test
+    void startAfterAppliedSequence() throws Exception {
+        // given
+        TransactionJournal transactionJournal = new TransactionJournal(
+                true, tempDir.resolve("transaction.journal").toString(), 1024, true, 0);
+
+        // when
+        transactionJournal.ensureSequence(41L);
+        JournalRecord appended = record(1000L);
+        transactionJournal.append(appended);
+        transactionJournal.close();
+        List<JournalRecord> records = openJournal(1024).read(10);
+
+        // then
+        assertThat(appended.getSequence()).isEqualTo(42L);
+        assertThat(records).extracting(JournalRecord::getSequence).containsExactly(42L);
+    }
+
+    private TransactionJournal openJournal(int capacityBytes) {
+        TransactionJournal transactionJournal = new TransactionJournal(
+                true, tempDir.resolve("transaction.journal").toString(), capacityBytes, true, 0);
+        transactionJournal.ensureSequence(0L);
+        return transactionJournal;
+    }
+
+    private JournalRecord record(long amount) {
+        return JournalRecord.builder()
+                .accountId(1L)
+                .accountNumber("1000000000")
+                .transactionStatus(TransactionStatus.APPROVAL)
+                .transactionResultStatus(TransactionResultStatus.SUCCEED)
+                .transactionAmount(amount)
+                .transactionId(amount)
+                .build();
+    }
+
+}
@@ -0,0 +1,178 @@
+package com.zero.account.service;
+
+import com.zero.account.exception.AccountException;
+import com.zero.account.type.ErrorCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class TransactionSequencerTest {
+
+    private final TransactionSequencer transactionSequencer =
+            new TransactionSequencer(true, false, 4, 16, 1000L);
+
+    @AfterEach
+    void tearDown() {
+        transactionSequencer.shutdown();
+    }
+
+    @DisplayName("같은 계좌 요청은 같은 파티션 스레드에서 직렬 실행")
+    @Test
+    void executeSameAccountSerially() throws Exception {
+        // given
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        List<Future<String>> futures = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < 32; i++) {
+            futures.add(executorService.submit(() ->
+                    transactionSequencer.execute("12345", () -> {
+                        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        running.decrementAndGet();
+                        return Thread.currentThread().getName();
+                    })));
+        }
+        List<String> threadNames = new ArrayList<>();
+        for (Future<String> future : futures) {
+            threadNames.add(future.get());
+        }
+        executorService.shutdown();
+
+        // then
+        assertThat(maxRunning.get()).isEqualTo(1);
+        assertThat(threadNames).containsOnly(threadNames.get(0));
+    }
+
+    @DisplayName("파티션에서 발생한 예외는 그대로 전달")
+    @Test
+    void executePropagatesAccountException() {
+        // given
+
+        // when
+        AccountException exception = assertThrows(AccountException.class, () ->
+                transactionSequencer.execute("12345", () -> {
+                    throw new AccountException(ErrorCode.INSUFFICIENT_BALANCE);
+                }));
+
+        // then
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.INSUFFICIENT_BALANCE);
+    }
+
+    @DisplayName("submit 은 요청 스레드를 막지 않고 파티션 작업의 future 를 돌려줌")
+    @Test
+    void submitReturnsPartitionFuture() throws Exception {
+        // given
+        CountDownLatch release = new CountDownLatch(1);
+
+        // when
+        CompletableFuture<String> future = transactionSequencer.submit("12345", () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Thread.currentThread().getName();
+        });
+
+        // then
+        assertThat(future).isNotDone();
+        release.countDown();
+        assertThat(future.get(1, TimeUnit.SECONDS)).startsWith("transaction-partition-");
+    }
+
+    @DisplayName("submit 의 예외는 future 로 전달")
+    @Test
+    void submitPropagatesAccountException() {
+        // given
+
+        // when
+        CompletableFuture<Object> future = transactionSequencer.submit("12345", () -> {
+            throw new AccountException(ErrorCode.INSUFFICIENT_BALANCE);
+        });
+
+        // then
+        ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+        assertThat(exception.getCause()).isInstanceOf(AccountException.class);
+    }
+
+    @DisplayName("계좌별 노드 고정을 설정해야 lock 을 생략")
+    @Test
+    void lockFreeOnlyWithAccountAffineRouting() {
+        // given
+        TransactionSequencer affineSequencer = new TransactionSequencer(true, true, 1, 1, 100L);
+
+        // when
+
+        // then
+        assertThat(transactionSequencer.isLockFree()).isFalse();
+        assertThat(affineSequencer.isLockFree()).isTrue();
+        affineSequencer.shutdown();
+    }
+
+    @DisplayName("종료 후 요청은 대기하지 않고 실패")
+    @Test
+    void executeAfterShutdown() {
+        // given
+        transactionSequencer.shutdown();
+
+        // when
+        AccountException exception = assertTimeoutPreemptively(Duration.ofSeconds(1), () ->
+                assertThrows(AccountException.class, () ->
+                        transactionSequencer.execute("12345", () -> "done")));
+
+        // then
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.INTERNAL_SERVER_ERROR);
+    }
+
+    @DisplayName("큐가 가득 차면 offer-timeout 후 실패")
+    @Test
+    void executeQueueFull() throws Exception {
+        // given
+        TransactionSequencer smallSequencer = new TransactionSequencer(true, false, 1, 1, 100L);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        executorService.submit(() -> smallSequencer.execute("12345", () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        started.await();
+        executorService.submit(() -> smallSequencer.execute("12345", () -> null));
+        Thread.sleep(100L);
+
+        // when
+        AccountException exception = assertTimeoutPreemptively(Duration.ofSeconds(2), () ->
+                assertThrows(AccountException.class, () ->
+                        smallSequencer.execute("12345", () -> "done")));
+
+        // then
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.INTERNAL_SERVER_ERROR);
+        release.countDown();
+        executorService.shutdown();
+        smallSequencer.shutdown();
+    }
+
+}
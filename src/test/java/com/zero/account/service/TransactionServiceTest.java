@@ -2,12 +2,20 @@ package com.zero.account.service;
 
 import com.zero.account.domain.Account;
 import com.zero.account.domain.AccountUser;
+import com.zero.account.domain.JournalCheckpoint;
 import com.zero.account.domain.Transaction;
+import com.zero.account.dto.FailedTransaction;
+import com.zero.account.dto.JournalRecord;
+import com.zero.account.dto.LedgerEntry;
 import com.zero.account.dto.TransactionDto;
+import com.zero.account.dto.TransactionHistory;
 import com.zero.account.dto.TransactionInfo;
+import com.zero.account.dto.TransactionUse;
+import com.zero.account.dto.TransactionUseBatch;
 import com.zero.account.exception.AccountException;
 import com.zero.account.repository.AccountRepository;
 import com.zero.account.repository.AccountUserRepository;
+import com.zero.account.repository.JournalCheckpointRepository;
 import com.zero.account.repository.TransactionRepository;
 import com.zero.account.type.AccountStatus;
 import com.zero.account.type.ErrorCode;
@@ -17,16 +25,27 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class TransactionServiceTest {
@@ -40,6 +59,20 @@ class TransactionServiceTest {
     private AccountRepository accountRepository;
     @Mock
     private TransactionRepository transactionRepository;
+    @Mock
+    private RedisBalanceEngine redisBalanceEngine;
+    @Mock
+    private TransactionJournal transactionJournal;
+    @Mock
+    private JournalCheckpointRepository journalCheckpointRepository;
+    @Mock
+    private AccountSummaryCache accountSummaryCache;
+    @Mock
+    private BalanceLedger balanceLedger;
+    @Mock
+    private RecentWriteTracker recentWriteTracker;
+    @Spy
+    private AccountIdCache accountIdCache = new AccountIdCache(100);
 
 
     @DisplayName("거래(결제) -  성공")
@@ -75,7 +108,7 @@ class TransactionServiceTest {
         assertThat(getTransaction.getAccountNumber()).isEqualTo(account.getAccountNumber());
         assertThat(getTransaction.getTransactionStatus()).isEqualTo(TransactionStatus.APPROVAL);
         assertThat(getTransaction.getTransactionAmount()).isEqualTo(transaction.getTransactionAmount());
-
+        verify(accountSummaryCache, times(1)).evictAfterCommit(1L);
     }
 
     @DisplayName("거래(결제) - 실패 사용자 없음")
@@ -175,6 +208,70 @@ class TransactionServiceTest {
         assertThat(exception.getErrorMessage()).isEqualTo(ErrorCode.INSUFFICIENT_BALANCE.getDescription());
     }
 
+    @DisplayName("거래(결제) - ledger 모드 성공 (계좌 잔액 갱신 없이 거래만 저장)")
+    @Test
+    void successTransactionUseLedger() {
+        // given
+        AccountUser accountUser = new AccountUser();
+        accountUser.setId(1L);
+        Account account = Account.builder()
+                .accountNumber("12345")
+                .balance(10000L)
+                .snapshotTransactionId(0L)
+                .accountUser(accountUser)
+                .accountStatus(AccountStatus.IN_USE)
+                .build();
+        account.setId(1L);
+        Transaction transaction = Transaction.builder()
+                .account(account)
+                .transactionStatus(TransactionStatus.APPROVAL)
+                .transactionAmount(1000L)
+                .accountNumber("12345")
+                .build();
+        transaction.setId(1L);
+        given(balanceLedger.isEnabled()).willReturn(true);
+        given(balanceLedger.getCurrentBalance(account)).willReturn(1000L);
+        given(accountUserRepository.findById(any())).willReturn(Optional.of(accountUser));
+        given(accountRepository.findByAccountNumber(any())).willReturn(Optional.of(account));
+        given(transactionRepository.save(any())).willReturn(transaction);
+
+        // when
+        TransactionDto getTransaction = transactionService.transactionUse(
+                1L, "12345", 1000L);
+
+        // then
+        assertThat(getTransaction.getTransactionAmount()).isEqualTo(1000L);
+        assertThat(account.getBalance()).isEqualTo(10000L);
+        verify(accountRepository, never()).save(any());
+    }
+
+    @DisplayName("거래(결제) - ledger 모드 실패 잔액 부족")
+    @Test
+    void failedCreateTransactionLedgerInsufficientBalance() {
+        // given
+        AccountUser accountUser = new AccountUser();
+        accountUser.setId(1L);
+        Account account = Account.builder()
+                .accountUser(accountUser)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .snapshotTransactionId(0L)
+                .build();
+        account.setId(1L);
+        given(balanceLedger.isEnabled()).willReturn(true);
+        given(balanceLedger.getCurrentBalance(account)).willReturn(500L);
+        given(accountUserRepository.findById(any())).willReturn(Optional.of(accountUser));
+        given(accountRepository.findByAccountNumber(any())).willReturn(Optional.of(account));
+
+        // when
+        AccountException exception = Assertions.assertThrows(AccountException.class,
+                () -> transactionService.transactionUse(1L, "1", 1000L));
+
+        // then
+        assertThat(exception.getErrorMessage()).isEqualTo(ErrorCode.INSUFFICIENT_BALANCE.getDescription());
+        verify(transactionRepository, never()).save(any());
+    }
+
     @DisplayName("거래(결제) - 실패 최소 거래 금액 미만")
     @Test
     void failedCreateTransactionOutOfRangeMinimumBalance() {
@@ -297,6 +394,39 @@ class TransactionServiceTest {
         assertThat(transactionDto.getTransactionStatus()).isEqualTo(TransactionStatus.CANCEL);
         assertThat(transactionDto.getAccountNumber()).isEqualTo("123");
         assertThat(transactionDto.getTransactionId()).isEqualTo(1L);
+        assertThat(account.getBalance()).isEqualTo(7000L);
+        verify(accountRepository, never()).addBalance(anyLong(), anyLong());
+        verify(accountRepository, never()).save(any());
+    }
+
+    @DisplayName("atomic-debit 모드의 거래(취소)는 UPDATE 한 번으로 잔액을 더함")
+    @Test
+    void transactionCancelWithAtomicDebit() {
+        // given
+        ReflectionTestUtils.setField(transactionService, "atomicDebit", true);
+        AccountUser accountUser = new AccountUser();
+        accountUser.setId(1L);
+        Account account = Account.builder()
+                .balance(5000L)
+                .accountUser(accountUser)
+                .accountStatus(AccountStatus.IN_USE)
+                .build();
+        account.setId(1L);
+        Transaction transaction = Transaction.builder()
+                .accountNumber("123")
+                .transactionAmount(2000L)
+                .account(account)
+                .build();
+        transaction.setId(1L);
+        given(transactionRepository.findById(any())).willReturn(Optional.of(transaction));
+        given(transactionRepository.save(any())).willReturn(transaction);
+
+        // when
+        transactionService.transactionCancel(1L, "123", 2000L);
+
+        // then
+        verify(accountRepository, times(1)).addBalance(1L, 2000L);
+        assertThat(account.getBalance()).isEqualTo(5000L);
     }
 
     @DisplayName("거래 확인 - 실패 존재하지 않는 거래")
@@ -318,24 +448,564 @@ class TransactionServiceTest {
     @Test
     void successSelectTransaction() {
         // given
+        given(transactionRepository.findInfoById(any())).willReturn(Optional.of(
+                TransactionInfo.builder()
+                        .transactionId(1L)
+                        .transactionResultStatus(TransactionResultStatus.SUCCEED)
+                        .transactionAmount(1000L)
+                        .accountNumber("12345")
+                        .transactionStatus(TransactionStatus.APPROVAL)
+                        .build()));
+
+        // when
+        TransactionInfo transactionInfo = transactionService.selectTransaction(1L);
+
+        // then
+        assertThat(transactionInfo.getTransactionId()).isEqualTo(1L);
+        assertThat(transactionInfo.getAccountNumber()).isEqualTo("12345");
+        assertThat(transactionInfo.getTransactionStatus()).isEqualTo(TransactionStatus.APPROVAL);
+        assertThat(transactionInfo.getTransactionResultStatus()).isEqualTo(TransactionResultStatus.SUCCEED);
+        assertThat(transactionInfo.getTransactionAmount()).isEqualTo(1000L);
+    }
+
+    @DisplayName("거래(결제) - atomic-debit 성공")
+    @Test
+    void successAtomicTransactionUse() {
+        // given
+        ReflectionTestUtils.setField(transactionService, "atomicDebit", true);
+        Account account = Account.builder()
+                .accountNumber("12345")
+                .build();
+        account.setId(1L);
         Transaction transaction = Transaction.builder()
+                .account(account)
+                .transactionStatus(TransactionStatus.APPROVAL)
                 .transactionResultStatus(TransactionResultStatus.SUCCEED)
                 .transactionAmount(1000L)
                 .accountNumber("12345")
+                .build();
+        transaction.setId(1L);
+        given(accountRepository.useBalance(anyString(), anyLong(), anyLong(), any())).willReturn(1);
+        given(accountRepository.findIdByAccountNumber(anyString())).willReturn(Optional.of(1L));
+        given(accountRepository.getReferenceById(anyLong())).willReturn(account);
+        given(transactionRepository.save(any())).willReturn(transaction);
+
+        // when
+        TransactionDto getTransaction = transactionService.transactionUse(
+                1L, "12345", 1000L);
+
+        // then
+        assertThat(getTransaction.getAccountNumber()).isEqualTo("12345");
+        assertThat(getTransaction.getTransactionResultStatus()).isEqualTo(TransactionResultStatus.SUCCEED);
+        assertThat(getTransaction.getTransactionAmount()).isEqualTo(1000L);
+    }
+
+    @DisplayName("거래(결제) - atomic-debit 두 번째부터는 계좌 id 를 다시 조회하지 않음")
+    @Test
+    void atomicTransactionUseCachesAccountId() {
+        // given
+        ReflectionTestUtils.setField(transactionService, "atomicDebit", true);
+        Account account = Account.builder()
+                .accountNumber("12345")
+                .build();
+        account.setId(1L);
+        Transaction transaction = Transaction.builder()
+                .account(account)
                 .transactionStatus(TransactionStatus.APPROVAL)
+                .transactionResultStatus(TransactionResultStatus.SUCCEED)
+                .transactionAmount(1000L)
+                .accountNumber("12345")
                 .build();
         transaction.setId(1L);
-        given(transactionRepository.findById(any())).willReturn(Optional.of(transaction));
+        given(accountRepository.useBalance(anyString(), anyLong(), anyLong(), any())).willReturn(1);
+        given(accountRepository.findIdByAccountNumber(anyString())).willReturn(Optional.of(1L));
+        given(accountRepository.getReferenceById(anyLong())).willReturn(account);
+        given(transactionRepository.save(any())).willReturn(transaction);
 
         // when
-        TransactionInfo transactionInfo = transactionService.selectTransaction(1L);
+        transactionService.transactionUse(1L, "12345", 1000L);
+        transactionService.transactionUse(1L, "12345", 1000L);
 
         // then
-        assertThat(transactionInfo.getTransactionId()).isEqualTo(1L);
-        assertThat(transactionInfo.getAccountNumber()).isEqualTo("12345");
-        assertThat(transactionInfo.getTransactionStatus()).isEqualTo(TransactionStatus.APPROVAL);
-        assertThat(transactionInfo.getTransactionResultStatus()).isEqualTo(TransactionResultStatus.SUCCEED);
-        assertThat(transactionInfo.getTransactionAmount()).isEqualTo(1000L);
+        verify(accountRepository, times(2)).useBalance(anyString(), anyLong(), anyLong(), any());
+        verify(accountRepository, times(1)).findIdByAccountNumber("12345");
+    }
+
+    @DisplayName("거래(결제) - atomic-debit 실패 잔액 부족")
+    @Test
+    void failedAtomicTransactionUseInsufficientBalance() {
+        // given
+        ReflectionTestUtils.setField(transactionService, "atomicDebit", true);
+        AccountUser accountUser = new AccountUser();
+        accountUser.setId(1L);
+        Account account = Account.builder()
+                .accountUser(accountUser)
+                .accountNumber("12345")
+                .balance(500L)
+                .accountStatus(AccountStatus.IN_USE)
+                .build();
+        given(accountRepository.useBalance(anyString(), anyLong(), anyLong(), any())).willReturn(0);
+        given(accountUserRepository.findById(any())).willReturn(Optional.of(accountUser));
+        given(accountRepository.findByAccountNumber(any())).willReturn(Optional.of(account));
+
+        // when
+        AccountException exception = Assertions.assertThrows(AccountException.class,
+                () -> transactionService.transactionUse(1L, "12345", 1000L));
+
+        // then
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.INSUFFICIENT_BALANCE);
+    }
+
+    @DisplayName("거래(결제) - atomic-debit 실패 해지된 계좌")
+    @Test
+    void failedAtomicTransactionUseCancelAccount() {
+        // given
+        ReflectionTestUtils.setField(transactionService, "atomicDebit", true);
+        AccountUser accountUser = new AccountUser();
+        accountUser.setId(1L);
+        Account account = Account.builder()
+                .accountUser(accountUser)
+                .accountNumber("12345")
+                .balance(5000L)
+                .accountStatus(AccountStatus.UNREGISTERED)
+                .build();
+        given(accountRepository.useBalance(anyString(), anyLong(), anyLong(), any())).willReturn(0);
+        given(accountUserRepository.findById(any())).willReturn(Optional.of(accountUser));
+        given(accountRepository.findByAccountNumber(any())).willReturn(Optional.of(account));
+
+        // when
+        AccountException exception = Assertions.assertThrows(AccountException.class,
+                () -> transactionService.transactionUse(1L, "12345", 1000L));
+
+        // then
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.CANCEL_ACCOUNT);
+    }
+
+    @DisplayName("거래(결제) 일괄 처리 - 건별 성공/실패")
+    @Test
+    void transactionUseBatch() {
+        // given
+        AccountUser accountUser = new AccountUser();
+        accountUser.setId(1L);
+        Account account = Account.builder()
+                .accountNumber("12345")
+                .balance(10000L)
+                .accountUser(accountUser)
+                .accountStatus(AccountStatus.IN_USE)
+                .build();
+        account.setId(1L);
+        given(accountRepository.findByAccountNumber(any())).willReturn(Optional.of(account));
+        given(accountUserRepository.findById(any())).willReturn(Optional.of(accountUser));
+        given(transactionRepository.saveAll(anyList())).willAnswer(invocation -> invocation.getArgument(0));
+
+        // when
+        List<TransactionUseBatch.Result> results = transactionService.transactionUseBatch("12345", List.of(
+                new TransactionUse.Request(1L, "12345", 6000L),
+                new TransactionUse.Request(1L, "12345", 6000L),
+                new TransactionUse.Request(1L, "12345", 4000L)));
+
+        // then
+        assertThat(results).extracting(TransactionUseBatch.Result::getTransactionResultStatus)
+                .containsExactly(
+                        TransactionResultStatus.SUCCEED,
+                        TransactionResultStatus.FAILED,
+                        TransactionResultStatus.SUCCEED);
+        assertThat(results.get(1).getErrorCode()).isEqualTo(ErrorCode.INSUFFICIENT_BALANCE);
+        assertThat(account.getBalance()).isEqualTo(0L);
+    }
+
+    @DisplayName("거래(결제) - journal 모드는 거래 내역을 바로 저장하지 않음")
+    @Test
+    void transactionUseWithJournal() {
+        // given
+        AccountUser accountUser = new AccountUser();
+        accountUser.setId(1L);
+        Account account = Account.builder()
+                .accountNumber("12345")
+                .balance(10000L)
+                .accountUser(accountUser)
+                .accountStatus(AccountStatus.IN_USE)
+                .build();
+        account.setId(1L);
+        given(accountUserRepository.findById(any())).willReturn(Optional.of(accountUser));
+        given(accountRepository.findByAccountNumber(any())).willReturn(Optional.of(account));
+        given(transactionJournal.isEnabled()).willReturn(true);
+        given(transactionJournal.nextTransactionId()).willReturn(100L);
+        given(transactionJournal.append(any())).willReturn(true);
+        ArgumentCaptor<JournalRecord> captor = ArgumentCaptor.forClass(JournalRecord.class);
+
+        // when
+        TransactionDto transactionDto = transactionService.transactionUse(1L, "12345", 1000L);
+
+        // then
+        verify(transactionRepository, never()).save(any());
+        verify(transactionJournal, times(1)).append(captor.capture());
+        assertThat(captor.getValue().getTransactionId()).isEqualTo(100L);
+        assertThat(transactionDto.getTransactionId()).isEqualTo(100L);
+        assertThat(transactionDto.getTransactionResultStatus()).isEqualTo(TransactionResultStatus.SUCCEED);
+        assertThat(account.getBalance()).isEqualTo(9000L);
+    }
+
+    @DisplayName("거래(결제) - journal 모드는 commit 직전에 journal 에 기록")
+    @Test
+    void transactionUseWithJournalAppendBeforeCommit() {
+        // given
+        AccountUser accountUser = new AccountUser();
+        accountUser.setId(1L);
+        Account account = Account.builder()
+                .accountNumber("12345")
+                .balance(10000L)
+                .accountUser(accountUser)
+                .accountStatus(AccountStatus.IN_USE)
+                .build();
+        account.setId(1L);
+        given(accountUserRepository.findById(any())).willReturn(Optional.of(accountUser));
+        given(accountRepository.findByAccountNumber(any())).willReturn(Optional.of(account));
+        given(transactionJournal.isEnabled()).willReturn(true);
+        given(transactionJournal.nextTransactionId()).willReturn(100L);
+        given(transactionJournal.append(any())).willReturn(true);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        try {
+            transactionService.transactionUse(1L, "12345", 1000L);
+            verify(transactionJournal, never()).append(any());
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.beforeCommit(false));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // then
+        verify(transactionRepository, times(1)).flush();
+        verify(transactionJournal, times(1)).append(any());
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @DisplayName("거래(결제) - journal 에 기록하지 못하면 commit 전에 같은 트랜잭션에서 거래 내역 저장")
+    @Test
+    void transactionUseWithJournalFullSavesBeforeCommit() {
+        // given
+        AccountUser accountUser = new AccountUser();
+        accountUser.setId(1L);
+        Account account = Account.builder()
+                .accountNumber("12345")
+                .balance(10000L)
+                .accountUser(accountUser)
+                .accountStatus(AccountStatus.IN_USE)
+                .build();
+        account.setId(1L);
+        given(accountUserRepository.findById(any())).willReturn(Optional.of(accountUser));
+        given(accountRepository.findByAccountNumber(any())).willReturn(Optional.of(account));
+        given(accountRepository.getReferenceById(1L)).willReturn(account);
+        given(transactionJournal.isEnabled()).willReturn(true);
+        given(transactionJournal.nextTransactionId()).willReturn(100L);
+        given(transactionJournal.append(any())).willReturn(false);
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        try {
+            transactionService.transactionUse(1L, "12345", 1000L);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.beforeCommit(false));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // then
+        verify(transactionRepository, times(1)).save(captor.capture());
+        assertThat(captor.getValue().getReservedId()).isEqualTo(100L);
+    }
+
+    @DisplayName("거래(결제) - journal 에 기록한 뒤 롤백되면 취소 기록을 남김")
+    @Test
+    void transactionUseWithJournalAppendAbortRecordOnRollback() {
+        // given
+        AccountUser accountUser = new AccountUser();
+        accountUser.setId(1L);
+        Account account = Account.builder()
+                .accountNumber("12345")
+                .balance(10000L)
+                .accountUser(accountUser)
+                .accountStatus(AccountStatus.IN_USE)
+                .build();
+        account.setId(1L);
+        given(accountUserRepository.findById(any())).willReturn(Optional.of(accountUser));
+        given(accountRepository.findByAccountNumber(any())).willReturn(Optional.of(account));
+        given(transactionJournal.isEnabled()).willReturn(true);
+        given(transactionJournal.nextTransactionId()).willReturn(100L);
+        given(transactionJournal.append(any())).willAnswer(invocation -> {
+            invocation.<JournalRecord>getArgument(0).setSequence(1L);
+            return true;
+        });
+        ArgumentCaptor<JournalRecord> captor = ArgumentCaptor.forClass(JournalRecord.class);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        try {
+            transactionService.transactionUse(1L, "12345", 1000L);
+            List<TransactionSynchronization> synchronizations =
+                    TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+            synchronizations.forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // then
+        verify(transactionJournal, times(2)).append(captor.capture());
+        assertThat(captor.getAllValues()).extracting(JournalRecord::isAborted).containsExactly(false, true);
+        assertThat(captor.getAllValues()).extracting(JournalRecord::getTransactionId).containsOnly(100L);
+    }
+
+    @DisplayName("journal 반영 - 이미 저장된 거래와 취소된 거래는 저장하지 않음")
+    @Test
+    void applyJournalRecordsIdempotently() {
+        // given
+        Account account = Account.builder()
+                .accountNumber("12345")
+                .balance(10000L)
+                .build();
+        account.setId(1L);
+        given(accountRepository.getReferenceById(1L)).willReturn(account);
+        given(transactionRepository.findIdsByIdIn(any())).willReturn(List.of(101L, 103L));
+        ArgumentCaptor<List<Transaction>> captor = ArgumentCaptor.forClass(List.class);
+
+        // when
+        transactionService.applyJournalRecords("transaction.journal", List.of(
+                journalRecord(1L, 101L, false),
+                journalRecord(2L, 102L, false),
+                journalRecord(3L, 102L, true),
+                journalRecord(4L, 103L, true),
+                journalRecord(5L, 104L, false)));
+
+        // then
+        verify(transactionRepository, times(1)).deleteAllByIdInBatch(List.of(103L));
+        verify(transactionRepository, times(1)).saveAll(captor.capture());
+        assertThat(captor.getValue()).extracting(Transaction::getReservedId).containsExactly(104L);
+        verify(journalCheckpointRepository, times(1)).save(any());
+    }
+
+    @DisplayName("실패 거래 일괄 기록 - 없는 계좌는 제외")
+    @Test
+    void createFailedTransactions() {
+        // given
+        Account account = Account.builder()
+                .accountNumber("12345")
+                .balance(10000L)
+                .accountStatus(AccountStatus.IN_USE)
+                .build();
+        account.setId(1L);
+        given(accountRepository.findAllByAccountNumberIn(anyCollection())).willReturn(List.of(account));
+
+        // when
+        transactionService.createFailedTransactions(List.of(
+                new FailedTransaction("12345", TransactionStatus.APPROVAL, 1000L),
+                new FailedTransaction("99999", TransactionStatus.APPROVAL, 2000L),
+                new FailedTransaction("12345", TransactionStatus.CANCEL, 3000L)));
+
+        // then
+        verify(accountRepository, never()).findByAccountNumber(any());
+        verify(transactionRepository).saveAll(argThat(transactions -> {
+            List<Transaction> saved = new ArrayList<>();
+            transactions.forEach(saved::add);
+            return saved.size() == 2
+                    && saved.stream().allMatch(transaction ->
+                    transaction.getTransactionResultStatus() == TransactionResultStatus.FAILED);
+        }));
+    }
+
+    @DisplayName("거래 내역 조회 - size + 1 건으로 다음 페이지 cursor 생성")
+    @Test
+    void selectTransactionHistory() {
+        // given
+        ReflectionTestUtils.setField(transactionService, "maxHistoryPageSize", 100);
+        LocalDateTime now = LocalDateTime.now();
+        List<TransactionInfo> transactionInfos = List.of(
+                new TransactionInfo(3L, "12345", TransactionStatus.APPROVAL,
+                        TransactionResultStatus.SUCCEED, 1000L, now),
+                new TransactionInfo(2L, "12345", TransactionStatus.APPROVAL,
+                        TransactionResultStatus.SUCCEED, 2000L, now),
+                new TransactionInfo(1L, "12345", TransactionStatus.APPROVAL,
+                        TransactionResultStatus.SUCCEED, 3000L, now.minusSeconds(1)));
+        given(accountRepository.findIdByAccountNumber(anyString())).willReturn(Optional.of(1L));
+        given(transactionRepository.findHistory(anyLong(), any(), any(), any()))
+                .willReturn(transactionInfos);
+        given(transactionRepository.findHistoryAfter(
+                anyLong(), any(), anyLong(), any(), any(), any()))
+                .willReturn(List.of(transactionInfos.get(2)));
+
+        // when
+        TransactionHistory.Response firstPage = transactionService.selectTransactionHistory(
+                "12345", null, 2, null, null);
+        TransactionHistory.Response secondPage = transactionService.selectTransactionHistory(
+                "12345", firstPage.getNextCursor(), 2, null, null);
+
+        // then
+        assertThat(firstPage.getTransactions()).hasSize(2);
+        assertThat(firstPage.getNextCursor()).isNotNull();
+        verify(transactionRepository).findHistoryAfter(
+                eq(1L), eq(now), eq(2L), isNull(), isNull(), eq(PageRequest.of(0, 3)));
+        assertThat(secondPage.getTransactions()).hasSize(1);
+        assertThat(secondPage.getNextCursor()).isNull();
+    }
+
+    @DisplayName("거래 내역 조회 실패 - 잘못된 cursor")
+    @Test
+    void failedSelectTransactionHistoryInvalidCursor() {
+        // given
+        given(accountRepository.findIdByAccountNumber(anyString())).willReturn(Optional.of(1L));
+
+        // when
+        AccountException exception = Assertions.assertThrows(AccountException.class,
+                () -> transactionService.selectTransactionHistory("12345", "invalid", 20, null, null));
+
+        // then
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.INVALID_REQUEST);
+    }
+
+
+    @DisplayName("Redis 원장 반영 - 반영 위치 이하의 원장은 건너뛰고 반영 위치를 저장")
+    @Test
+    void applyLedgerEntriesAfterCheckpoint() {
+        // given
+        AccountUser accountUser = new AccountUser();
+        accountUser.setId(1L);
+        Account account = Account.builder()
+                .accountUser(accountUser)
+                .accountNumber("12345")
+                .balance(10000L)
+                .build();
+        given(journalCheckpointRepository.findById("ACLG"))
+                .willReturn(Optional.of(new JournalCheckpoint("ACLG", 2L)));
+        given(accountRepository.findByAccountNumber("12345")).willReturn(Optional.of(account));
+        ArgumentCaptor<JournalCheckpoint> captor = ArgumentCaptor.forClass(JournalCheckpoint.class);
+        ArgumentCaptor<List<Transaction>> transactionCaptor = ArgumentCaptor.forClass(List.class);
+
+        // when
+        transactionService.applyLedgerEntries("ACLG", List.of(
+                ledgerEntry(2L, 1000L),
+                ledgerEntry(3L, 2000L)));
+
+        // then
+        assertThat(account.getBalance()).isEqualTo(8000L);
+        verify(journalCheckpointRepository, times(1)).save(captor.capture());
+        assertThat(captor.getValue().getAppliedSequence()).isEqualTo(3L);
+        verify(transactionRepository, times(1)).saveAll(transactionCaptor.capture());
+        assertThat(transactionCaptor.getValue()).extracting(Transaction::getReservedId).containsExactly(1003L);
+        assertThat(transactionCaptor.getValue()).extracting(Transaction::getReservedCreatedAt)
+                .containsExactly(LocalDateTime.of(2022, 1, 1, 0, 0, 3));
+    }
+
+    @DisplayName("거래(취소) - 핫 계좌는 DB 에 반영되기 전의 결제도 Redis 원장에서 찾아 취소")
+    @Test
+    void cancelHotAccountTransactionBeforeDrain() {
+        // given
+        given(redisBalanceEngine.isHotAccount("12345")).willReturn(true);
+        given(redisBalanceEngine.findPendingEntry(1003L)).willReturn(Optional.of(ledgerEntry(3L, 1000L)));
+        given(redisBalanceEngine.cancel("12345", 1000L)).willReturn(TransactionDto.builder()
+                .transactionId(2000L)
+                .accountNumber("12345")
+                .transactionResultStatus(TransactionResultStatus.SUCCEED)
+                .build());
+
+        // when
+        TransactionDto transactionDto = transactionService.transactionCancel(1003L, "12345", 1000L);
+
+        // then
+        verify(transactionRepository, never()).findById(anyLong());
+        assertThat(transactionDto.getTransactionId()).isEqualTo(2000L);
+    }
+
+    @DisplayName("거래(취소) - 핫 계좌의 원장 금액과 다르면 실패")
+    @Test
+    void cancelHotAccountTransactionAmountMismatch() {
+        // given
+        given(redisBalanceEngine.isHotAccount("12345")).willReturn(true);
+        given(redisBalanceEngine.findPendingEntry(1003L)).willReturn(Optional.of(ledgerEntry(3L, 1000L)));
+
+        // when
+        AccountException exception = Assertions.assertThrows(AccountException.class,
+                () -> transactionService.transactionCancel(1003L, "12345", 2000L));
+
+        // then
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.TRANSACTION_AMOUNT_MIS_MATCH);
+        verify(redisBalanceEngine, never()).cancel(anyString(), anyLong());
+    }
+
+    @DisplayName("Redis 원장 반영 - 모두 반영된 원장을 다시 읽으면 아무것도 하지 않음")
+    @Test
+    void applyLedgerEntriesAlreadyApplied() {
+        // given
+        given(journalCheckpointRepository.findById("ACLG"))
+                .willReturn(Optional.of(new JournalCheckpoint("ACLG", 3L)));
+
+        // when
+        transactionService.applyLedgerEntries("ACLG", List.of(
+                ledgerEntry(2L, 1000L),
+                ledgerEntry(3L, 2000L)));
+
+        // then
+        verify(accountRepository, never()).findByAccountNumber(anyString());
+        verify(transactionRepository, never()).saveAll(any());
+        verify(journalCheckpointRepository, never()).save(any());
+    }
+
+
+    @DisplayName("일괄 결제 - atomic-debit 모드에서는 조건부 UPDATE 로 차감")
+    @Test
+    void atomicTransactionUseBatch() {
+        // given
+        ReflectionTestUtils.setField(transactionService, "atomicDebit", true);
+        AccountUser accountUser = new AccountUser();
+        accountUser.setId(1L);
+        Account account = Account.builder()
+                .accountUser(accountUser)
+                .accountNumber("12345")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(1500L)
+                .build();
+        given(accountRepository.findByAccountNumber("12345")).willReturn(Optional.of(account));
+        given(accountRepository.useBalance("12345", 1L, 1000L, AccountStatus.IN_USE)).willReturn(1);
+        given(accountRepository.useBalance("12345", 1L, 900L, AccountStatus.IN_USE)).willReturn(0);
+        given(accountUserRepository.findById(1L)).willReturn(Optional.of(accountUser));
+        given(transactionRepository.saveAll(anyList())).willAnswer(invocation -> invocation.getArgument(0));
+
+        // when
+        List<TransactionUseBatch.Result> results = transactionService.transactionUseBatch("12345", List.of(
+                new TransactionUse.Request(1L, "12345", 1000L),
+                new TransactionUse.Request(1L, "12345", 900L)));
+
+        // then
+        assertThat(results.get(0).getTransactionResultStatus()).isEqualTo(TransactionResultStatus.SUCCEED);
+        assertThat(results.get(1).getErrorCode()).isEqualTo(ErrorCode.INSUFFICIENT_BALANCE);
+        assertThat(account.getBalance()).isEqualTo(1500L);
+    }
+
+    private JournalRecord journalRecord(long sequence, long transactionId, boolean aborted) {
+        return JournalRecord.builder()
+                .sequence(sequence)
+                .accountId(1L)
+                .accountNumber("12345")
+                .transactionStatus(TransactionStatus.APPROVAL)
+                .transactionResultStatus(TransactionResultStatus.SUCCEED)
+                .transactionAmount(1000L)
+                .transactionId(transactionId)
+                .aborted(aborted)
+                .build();
+    }
+
+    private LedgerEntry ledgerEntry(long sequence, long amount) {
+        return LedgerEntry.builder()
+                .sequence(sequence)
+                .accountNumber("12345")
+                .transactionStatus(TransactionStatus.APPROVAL)
+                .transactionAmount(amount)
+                .transactionId(1000L + sequence)
+                .createdAt(LocalDateTime.of(2022, 1, 1, 0, 0, (int) sequence))
+                .build();
     }
 
-}
\ No newline at end of file
+}